@@ -0,0 +1,92 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Cache read-through das consultas completas (com histórico) por id e por número de série.
+// Limitado por quantidade (despejo W-TinyLFU do Caffeine) e por tempo; invalidado por EquipamentoAlteradoEvent,
+// que com change streams habilitados chega também das escritas das demais réplicas.
+// Estatísticas em /actuator/metrics: cache.gets (hit/miss), cache.evictions, cache.size, tag cache=equipamentos.*
+@Component
+public class CacheEquipamentos {
+    private final boolean habilitado;
+    private final Cache<String, EquipamentoRespostaDTO> porId;
+    private final Cache<String, EquipamentoRespostaDTO> porNumeroDeSerie;
+
+    @Autowired
+    public CacheEquipamentos(@Value("${app.equipamentos.cache.habilitado:true}") boolean habilitado,
+                             @Value("${app.equipamentos.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                             @Value("${app.equipamentos.cache.expiracao:5m}") Duration expiracao,
+                             MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.porId = criarCache(tamanhoMaximo, expiracao);
+        this.porNumeroDeSerie = criarCache(tamanhoMaximo, expiracao);
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "equipamentos.porId");
+        CaffeineCacheMetrics.monitor(meterRegistry, porNumeroDeSerie, "equipamentos.porNumeroDeSerie");
+    }
+
+    private static Cache<String, EquipamentoRespostaDTO> criarCache(long tamanhoMaximo, Duration expiracao) {
+        return Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<EquipamentoRespostaDTO> buscarPorId(String id, Function<String, Optional<EquipamentoRespostaDTO>> carregar) {
+        return buscar(porId, id, carregar);
+    }
+
+    public Optional<EquipamentoRespostaDTO> buscarPorNumeroDeSerie(String numeroDeSerie,
+                                                                   Function<String, Optional<EquipamentoRespostaDTO>> carregar) {
+        return buscar(porNumeroDeSerie, numeroDeSerie, carregar);
+    }
+
+    // Inexistentes não são guardados. Uma invalidação que chega durante a carga da mesma chave espera a carga
+    // terminar e então a descarta, então um valor lido antes de uma escrita não fica no cache depois dela.
+    private Optional<EquipamentoRespostaDTO> buscar(Cache<String, EquipamentoRespostaDTO> cache, String chave,
+                                                    Function<String, Optional<EquipamentoRespostaDTO>> carregar) {
+        if (!habilitado) {
+            return carregar.apply(chave);
+        }
+        return Optional.ofNullable(cache.get(chave, k -> carregar.apply(k).orElse(null)));
+    }
+
+    @EventListener
+    public void aoAlterarEquipamento(EquipamentoAlteradoEvent evento) {
+        porId.invalidate(evento.id());
+        if (evento.numeroDeSerie() != null) {
+            porNumeroDeSerie.invalidate(evento.numeroDeSerie());
+        } else {
+            // Remoção vinda do change stream sem pré-imagem: o número de série só é conhecido pelo valor em cache
+            porNumeroDeSerie.asMap().values().removeIf(equipamento -> evento.id().equals(equipamento.id()));
+        }
+    }
+
+    @EventListener
+    public void aoPerderSincronizacao(SincronizacaoPerdidaEvent evento) {
+        if (evento.entidade() == Equipamento.class) {
+            invalidarTudo();
+        }
+    }
+
+    public void invalidarTudo() {
+        porId.invalidateAll();
+        porNumeroDeSerie.invalidateAll();
+    }
+}
@@ -0,0 +1,75 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// JSON já serializado (UTF-8) dos equipamentos, para escrever nas respostas sem passar pelo Jackson a cada requisição.
+// A chave inclui a versão do documento (e, na visão completa, a quantidade de entradas do histórico, que só cresce):
+// um equipamento alterado simplesmente deixa de encontrar a entrada antiga, que expira sem uso ou é despejada.
+// Sem versão (documentos antigos) o equipamento não é guardado. Opcional: app.equipamentos.cache-json.habilitado.
+@Component
+public class CacheJsonEquipamentos {
+    private static final int BYTES_POR_ENTRADA = 96; // Chave, nó do Caffeine e cabeçalho do array
+
+    private final boolean habilitado;
+    private final Cache<ChaveJson, byte[]> fragmentos;
+
+    private record ChaveJson(Class<?> tipo, String id, long versao, int quantidadeLogs) {
+    }
+
+    @Autowired
+    public CacheJsonEquipamentos(@Value("${app.equipamentos.cache-json.habilitado:false}") boolean habilitado,
+                                 @Value("${app.equipamentos.cache-json.tamanho-maximo:64MB}") DataSize tamanhoMaximo,
+                                 @Value("${app.equipamentos.cache-json.expiracao:10m}") Duration expiracao,
+                                 MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.fragmentos = Caffeine.newBuilder()
+                .maximumWeight(tamanhoMaximo.toBytes())
+                .weigher((ChaveJson chave, byte[] json) -> json.length + BYTES_POR_ENTRADA)
+                .expireAfterAccess(expiracao)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, fragmentos, "equipamentos.json");
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    // Se o objeto é um equipamento que pode ser guardado (e o cache está habilitado)
+    public boolean suporta(Object dto) {
+        return habilitado && chave(dto) != null;
+    }
+
+    // O JSON do equipamento, serializado uma vez por versão
+    public byte[] obter(Object dto, Function<Object, byte[]> serializar) {
+        ChaveJson chave = habilitado ? chave(dto) : null;
+        if (chave == null) {
+            return serializar.apply(dto);
+        }
+        return fragmentos.get(chave, k -> serializar.apply(dto));
+    }
+
+    private static ChaveJson chave(Object dto) {
+        if (dto instanceof EquipamentoResumoDTO resumo && resumo.id() != null && resumo.versao() != null) {
+            return new ChaveJson(EquipamentoResumoDTO.class, resumo.id(), resumo.versao(), -1);
+        }
+        if (dto instanceof EquipamentoRespostaDTO resposta && resposta.id() != null && resposta.versao() != null
+                && resposta.logs() != null) {
+            return new ChaveJson(EquipamentoRespostaDTO.class, resposta.id(), resposta.versao(), resposta.logs().size());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,72 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.repository.EquipamentoRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Carrega os índices em memória de equipamentos em segundo plano, para não atrasar a subida da aplicação.
+// Cada índice é carregado por uma leitura própria da coleção; se ela falhar, aquele índice continua
+// desativado (o número de série segue consultando o Mongo, o autocomplete responde vazio).
+@Component
+public class CargaIndicesEquipamentos {
+    private static final Logger logger = LoggerFactory.getLogger(CargaIndicesEquipamentos.class);
+
+    private final EquipamentoRepository equipamentoRepository;
+    private final IndiceNumeroDeSerie indiceNumeroDeSerie;
+    private final IndiceAutocompleteEquipamentos indiceAutocomplete;
+
+    @Autowired
+    public CargaIndicesEquipamentos(EquipamentoRepository equipamentoRepository,
+                                    IndiceNumeroDeSerie indiceNumeroDeSerie,
+                                    IndiceAutocompleteEquipamentos indiceAutocomplete) {
+        this.equipamentoRepository = equipamentoRepository;
+        this.indiceNumeroDeSerie = indiceNumeroDeSerie;
+        this.indiceAutocomplete = indiceAutocomplete;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciarCarga() {
+        if (!indiceNumeroDeSerie.isHabilitado() && !indiceAutocomplete.isHabilitado()) {
+            return;
+        }
+        Thread.ofVirtual().name("carga-indices-equipamentos").start(this::carregar);
+    }
+
+    // Alterações podem ter passado sem evento (ex.: token do change stream fora do oplog): recarrega do zero
+    @EventListener
+    public void aoPerderSincronizacao(SincronizacaoPerdidaEvent evento) {
+        if (evento.entidade() == Equipamento.class) {
+            iniciarCarga();
+        }
+    }
+
+    void carregar() {
+        if (indiceNumeroDeSerie.isHabilitado()) {
+            carregar("números de série", indiceNumeroDeSerie::carregar);
+        }
+        if (indiceAutocomplete.isHabilitado()) {
+            carregar("autocomplete", indiceAutocomplete::carregar);
+        }
+    }
+
+    private void carregar(String indice, Consumer<Stream<EquipamentoResumoDTO>> carga) {
+        long inicio = System.nanoTime();
+        try (Stream<Equipamento> equipamentos = equipamentoRepository.streamEquipamentos()) {
+            carga.accept(equipamentos.map(EquipamentoResumoDTO::de));
+            logger.info("Carga do índice de {} concluída em {} ms", indice, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (RuntimeException ex) {
+            logger.error("Falha ao carregar o índice de {}", indice, ex);
+        }
+    }
+}
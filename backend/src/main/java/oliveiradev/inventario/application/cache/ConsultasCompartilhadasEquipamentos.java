@@ -0,0 +1,81 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.util.concorrencia.ConsultasCompartilhadas;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Une as leituras simultâneas do mesmo equipamento em uma única consulta ao Mongo: o mesmo item lido em várias
+// estações ao mesmo tempo, ou o cache frio depois de um deploy. Em /actuator/metrics, equipamentos.consultas
+// com resultado=executada|compartilhada mostra quantas consultas foram evitadas.
+// Uma escrita desliga a chave da consulta em andamento, para que leituras posteriores não recebam o valor anterior.
+@Component
+public class ConsultasCompartilhadasEquipamentos {
+    private final boolean habilitado;
+    private final ConsultasCompartilhadas<String, Optional<EquipamentoRespostaDTO>> porId = new ConsultasCompartilhadas<>();
+    private final ConsultasCompartilhadas<String, Optional<EquipamentoRespostaDTO>> porNumeroDeSerie = new ConsultasCompartilhadas<>();
+    private final ConsultasCompartilhadas<String, Optional<EquipamentoResumoDTO>> resumoPorNumeroDeSerie = new ConsultasCompartilhadas<>();
+
+    @Autowired
+    public ConsultasCompartilhadasEquipamentos(@Value("${app.equipamentos.consultas-compartilhadas.habilitado:true}") boolean habilitado,
+                                               MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        registrarMetricas(meterRegistry, "porId", porId);
+        registrarMetricas(meterRegistry, "porNumeroDeSerie", porNumeroDeSerie);
+        registrarMetricas(meterRegistry, "resumoPorNumeroDeSerie", resumoPorNumeroDeSerie);
+    }
+
+    private static void registrarMetricas(MeterRegistry meterRegistry, String consulta, ConsultasCompartilhadas<?, ?> consultas) {
+        FunctionCounter.builder("equipamentos.consultas", consultas, ConsultasCompartilhadas::getExecutadas)
+                .tag("consulta", consulta)
+                .tag("resultado", "executada")
+                .description("Consultas de equipamento enviadas ao Mongo")
+                .register(meterRegistry);
+        FunctionCounter.builder("equipamentos.consultas", consultas, ConsultasCompartilhadas::getCompartilhadas)
+                .tag("consulta", consulta)
+                .tag("resultado", "compartilhada")
+                .description("Leituras de equipamento atendidas por uma consulta idêntica já em andamento")
+                .register(meterRegistry);
+        Gauge.builder("equipamentos.consultas.em.andamento", consultas, ConsultasCompartilhadas::getEmAndamento)
+                .tag("consulta", consulta)
+                .description("Consultas de equipamento em andamento que podem ser compartilhadas")
+                .register(meterRegistry);
+    }
+
+    public Optional<EquipamentoRespostaDTO> buscarPorId(String id, Supplier<Optional<EquipamentoRespostaDTO>> consulta) {
+        return habilitado ? porId.executar(id, consulta) : consulta.get();
+    }
+
+    public Optional<EquipamentoRespostaDTO> buscarPorNumeroDeSerie(String numeroDeSerie,
+                                                                   Supplier<Optional<EquipamentoRespostaDTO>> consulta) {
+        return habilitado ? porNumeroDeSerie.executar(numeroDeSerie, consulta) : consulta.get();
+    }
+
+    public Optional<EquipamentoResumoDTO> buscarResumoPorNumeroDeSerie(String numeroDeSerie,
+                                                                       Supplier<Optional<EquipamentoResumoDTO>> consulta) {
+        return habilitado ? resumoPorNumeroDeSerie.executar(numeroDeSerie, consulta) : consulta.get();
+    }
+
+    @EventListener
+    public void aoAlterarEquipamento(EquipamentoAlteradoEvent evento) {
+        porId.esquecer(evento.id());
+        if (evento.numeroDeSerie() != null) {
+            porNumeroDeSerie.esquecer(evento.numeroDeSerie());
+            resumoPorNumeroDeSerie.esquecer(evento.numeroDeSerie());
+        } else {
+            porNumeroDeSerie.esquecerTodas();
+            resumoPorNumeroDeSerie.esquecerTodas();
+        }
+    }
+}
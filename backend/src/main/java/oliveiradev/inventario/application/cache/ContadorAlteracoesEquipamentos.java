@@ -0,0 +1,51 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versão da coleção de equipamentos neste nó: muda a cada EquipamentoAlteradoEvent. Base do ETag da listagem,
+// que permite responder 304 sem consultar o Mongo. Só é confiável se este nó vê todas as escritas: uma única
+// réplica, ou várias com change streams habilitados (app.equipamentos.etag.listagem.habilitado).
+@Component
+public class ContadorAlteracoesEquipamentos {
+    private final boolean habilitado;
+    // Distingue as versões de réplicas diferentes e de reinícios: o contador recomeça do zero
+    private final String instancia = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong alteracoes = new AtomicLong();
+
+    @Autowired
+    public ContadorAlteracoesEquipamentos(@Value("${app.equipamentos.etag.listagem.habilitado:true}") boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    // Vazio quando desabilitado. Lida antes da consulta, uma escrita concorrente só deixa a versão mais antiga que
+    // o conteúdo devolvido (o próximo pedido condicional recebe 200), nunca o contrário.
+    public Optional<String> versaoAtual() {
+        if (!habilitado) {
+            return Optional.empty();
+        }
+        return Optional.of(instancia + "-" + alteracoes.get());
+    }
+
+    @EventListener
+    public void aoAlterarEquipamento(EquipamentoAlteradoEvent evento) {
+        alteracoes.incrementAndGet();
+    }
+
+    @EventListener
+    public void aoPerderSincronizacao(SincronizacaoPerdidaEvent evento) {
+        if (evento.entidade() == Equipamento.class) {
+            alteracoes.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.SugestaoEquipamentoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.util.colecoes.TriePrefixos;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Sugestões de nomes de equipamento por prefixo, servidas da memória a cada tecla digitada.
+// O nome é normalizado (minúsculas, sem acentos) e indexado a partir de cada palavra, então "dell" encontra
+// "Monitor Dell 24". Os mais recentemente alterados vêm primeiro. Mantido atual pelos EquipamentoAlteradoEvent.
+@Component
+public class IndiceAutocompleteEquipamentos {
+    private static final Logger logger = LoggerFactory.getLogger(IndiceAutocompleteEquipamentos.class);
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Limites por nome: protegem a memória contra nomes longos com muitas palavras
+    private static final int MAX_PALAVRAS_INDEXADAS = 8;
+    private static final int MAX_TAMANHO_CHAVE = 48;
+
+    private record Entrada(String id, String nome, String numeroDeSerie, LocalDateTime recencia, Long versao) {
+    }
+
+    private static final Comparator<Entrada> MAIS_RECENTE_PRIMEIRO = Comparator
+            .comparing(Entrada::recencia, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Entrada::nome)
+            .thenComparing(Entrada::id);
+
+    private final boolean habilitado;
+    private TriePrefixos<Entrada> trie; // Substituída por uma vazia a cada carga
+    private final Map<String, Entrada> entradasPorId = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean carregado;
+    private boolean carregando;
+    private final Set<String> removidosDuranteCarga = new HashSet<>();
+
+    @Autowired
+    public IndiceAutocompleteEquipamentos(
+            @Value("${app.equipamentos.autocomplete.habilitado:true}") boolean habilitado,
+            @Value("${app.equipamentos.autocomplete.max-sugestoes:10}") int maxSugestoes,
+            MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.trie = new TriePrefixos<>(maxSugestoes, MAIS_RECENTE_PRIMEIRO);
+        Gauge.builder("equipamentos.autocomplete.entradas", this, IndiceAutocompleteEquipamentos::tamanho)
+                .description("Equipamentos no índice de autocomplete")
+                .register(meterRegistry);
+        Gauge.builder("equipamentos.autocomplete.nos", this, IndiceAutocompleteEquipamentos::quantidadeNos)
+                .description("Nós da trie do autocomplete")
+                .register(meterRegistry);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    public int getMaxSugestoes() {
+        return trie.getMaxPorNo();
+    }
+
+    // Vazio enquanto o índice não foi carregado
+    public List<SugestaoEquipamentoDTO> sugerir(String prefixo, int limite) {
+        String chave = normalizar(prefixo);
+        if (!carregado || chave.isEmpty()) {
+            return List.of();
+        }
+        List<Entrada> encontradas;
+        lock.readLock().lock();
+        try {
+            encontradas = trie.buscar(limitarChave(chave), limite);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return encontradas.stream()
+                .map(entrada -> new SugestaoEquipamentoDTO(entrada.id(), entrada.nome(), entrada.numeroDeSerie()))
+                .collect(Collectors.toList());
+    }
+
+    // Carga completa a partir de um cursor do Mongo. Eventos recebidos durante a carga prevalecem sobre ela.
+    // Uma recarga parte da trie vazia, descartando equipamentos removidos sem que o evento chegasse aqui.
+    public void carregar(Stream<EquipamentoResumoDTO> equipamentos) {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            trie = new TriePrefixos<>(trie.getMaxPorNo(), MAIS_RECENTE_PRIMEIRO);
+            entradasPorId.clear();
+            carregando = true;
+            removidosDuranteCarga.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            equipamentos.forEach(resumo -> {
+                lock.writeLock().lock();
+                try {
+                    if (!removidosDuranteCarga.contains(resumo.id())) {
+                        gravarSeMaisRecente(resumo);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+            carregado = true;
+            logger.info("Índice de autocomplete carregado: {} equipamentos, {} nós", tamanho(), quantidadeNos());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                carregando = false;
+                removidosDuranteCarga.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void aoAlterarEquipamento(EquipamentoAlteradoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (evento.tipo() == EquipamentoAlteradoEvent.TipoAlteracao.REMOVIDO) {
+                remover(evento.id());
+                if (carregando) {
+                    removidosDuranteCarga.add(evento.id());
+                }
+            } else if (evento.resumo() != null) {
+                gravarSeMaisRecente(evento.resumo());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chamado com o write lock. A versão impede que um documento lido antes (pela carga) sobrescreva um mais novo.
+    private void gravarSeMaisRecente(EquipamentoResumoDTO resumo) {
+        Entrada atual = entradasPorId.get(resumo.id());
+        if (atual != null && atual.versao() != null && resumo.versao() != null && atual.versao() > resumo.versao()) {
+            return;
+        }
+        remover(resumo.id());
+        if (resumo.nome() == null) {
+            return;
+        }
+        LocalDateTime recencia = resumo.dataUltimaModificacao() != null
+                ? resumo.dataUltimaModificacao()
+                : resumo.dataInclusaoNoSistema();
+        Entrada entrada = new Entrada(resumo.id(), resumo.nome(), resumo.numeroDeSerie(), recencia, resumo.versao());
+        chaves(entrada.nome()).forEach(chave -> trie.inserir(chave, entrada));
+        entradasPorId.put(entrada.id(), entrada);
+    }
+
+    private void remover(String id) {
+        Entrada anterior = entradasPorId.remove(id);
+        if (anterior != null) {
+            chaves(anterior.nome()).forEach(chave -> trie.remover(chave, anterior));
+        }
+    }
+
+    // O nome normalizado a partir de cada uma das primeiras palavras: "monitor dell 24", "dell 24", "24"
+    private static Set<String> chaves(String nome) {
+        String normalizado = normalizar(nome);
+        Set<String> chaves = new LinkedHashSet<>();
+        int inicio = 0;
+        while (inicio < normalizado.length() && chaves.size() < MAX_PALAVRAS_INDEXADAS) {
+            chaves.add(limitarChave(normalizado.substring(inicio)));
+            int espaco = normalizado.indexOf(' ', inicio);
+            if (espaco < 0) {
+                break;
+            }
+            inicio = espaco + 1;
+        }
+        return chaves;
+    }
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARADORES.matcher(semAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String limitarChave(String chave) {
+        return chave.length() > MAX_TAMANHO_CHAVE ? chave.substring(0, MAX_TAMANHO_CHAVE) : chave;
+    }
+
+    private int tamanho() {
+        lock.readLock().lock();
+        try {
+            return entradasPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int quantidadeNos() {
+        lock.readLock().lock();
+        try {
+            return trie.quantidadeNos();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.util.colecoes.MapaEnderecamentoAberto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Índice em memória numeroDeSerie -> resumo do equipamento, para as leituras de código de barras.
+// Opcional (app.equipamentos.indice-serial.habilitado) e consultado somente depois de carregado; até lá, e em
+// qualquer ausência, o serviço consulta o Mongo. Mantido atual pelos EquipamentoAlteradoEvent deste nó e, com
+// change streams habilitados, pelos das demais réplicas.
+@Component
+public class IndiceNumeroDeSerie {
+    private static final Logger logger = LoggerFactory.getLogger(IndiceNumeroDeSerie.class);
+
+    // Estimativa de memória (JVM 64 bits com compressed oops): duas referências por posição da tabela,
+    // e por entrada a String da chave e o resumo com suas Strings
+    private static final int BYTES_POR_POSICAO = 8;
+    private static final int BYTES_CABECALHO_STRING = 40;
+    private static final int BYTES_RESUMO = 120;
+
+    private final boolean habilitado;
+    private final MapaEnderecamentoAberto<EquipamentoResumoDTO> mapa = new MapaEnderecamentoAberto<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong bytesEntradas = new AtomicLong();
+
+    private volatile boolean carregado;
+    private boolean carregando;
+    private final Set<String> removidosDuranteCarga = new HashSet<>();
+    private long geracaoRemocoes; // Incrementada a cada remoção, com o write lock
+
+    private final Counter acertos;
+    private final Counter falhas;
+
+    @Autowired
+    public IndiceNumeroDeSerie(@Value("${app.equipamentos.indice-serial.habilitado:false}") boolean habilitado,
+                               MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.acertos = Counter.builder("equipamentos.indice.serial.consultas")
+                .tag("resultado", "acerto")
+                .description("Consultas por número de série respondidas pelo índice em memória")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("equipamentos.indice.serial.consultas")
+                .tag("resultado", "falha")
+                .description("Consultas por número de série que precisaram ir ao Mongo")
+                .register(meterRegistry);
+        Gauge.builder("equipamentos.indice.serial.entradas", this, IndiceNumeroDeSerie::tamanho)
+                .description("Números de série no índice em memória")
+                .register(meterRegistry);
+        Gauge.builder("equipamentos.indice.serial.memoria", this, IndiceNumeroDeSerie::estimarBytes)
+                .baseUnit("bytes")
+                .description("Memória estimada do índice de números de série")
+                .register(meterRegistry);
+        Gauge.builder("equipamentos.indice.serial.taxa.acerto", this, IndiceNumeroDeSerie::taxaDeAcerto)
+                .description("Fração das consultas respondidas pelo índice")
+                .register(meterRegistry);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public boolean isCarregado() {
+        return carregado;
+    }
+
+    // Vazio quando o índice está desabilitado, ainda carregando ou não conhece o número de série
+    public Optional<EquipamentoResumoDTO> buscar(String numeroDeSerie) {
+        if (!carregado) {
+            return Optional.empty();
+        }
+        EquipamentoResumoDTO resumo;
+        lock.readLock().lock();
+        try {
+            resumo = mapa.get(numeroDeSerie);
+        } finally {
+            lock.readLock().unlock();
+        }
+        (resumo != null ? acertos : falhas).increment();
+        return Optional.ofNullable(resumo);
+    }
+
+    // Carga completa a partir de um cursor do Mongo. Eventos recebidos durante a carga prevalecem sobre ela.
+    // Uma recarga parte do índice vazio, descartando equipamentos removidos sem que o evento chegasse aqui;
+    // enquanto ela corre, as ausências são respondidas pelo Mongo.
+    public void carregar(Stream<EquipamentoResumoDTO> equipamentos) {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            mapa.clear();
+            bytesEntradas.set(0);
+            carregando = true;
+            removidosDuranteCarga.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            equipamentos.forEach(resumo -> {
+                lock.writeLock().lock();
+                try {
+                    if (!removidosDuranteCarga.contains(resumo.id())) {
+                        gravarSeMaisRecente(resumo);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+            carregado = true;
+            logger.info("Índice de números de série carregado: {} entradas, ~{} KB", tamanho(), estimarBytes() / 1024);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                carregando = false;
+                removidosDuranteCarga.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // Lida antes de uma consulta ao Mongo e repassada a registrar, para descartar o que foi removido no meio dela
+    public long geracaoRemocoes() {
+        lock.readLock().lock();
+        try {
+            return geracaoRemocoes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Registro avulso, usado quando uma consulta ao Mongo encontra um equipamento ausente do índice.
+    // Se alguma remoção chegou depois de geracaoAntesDaLeitura, o documento lido pode ser justamente o removido
+    // (o evento já passou e não voltaria a apagá-lo): o registro é descartado e a próxima consulta o refaz.
+    public void registrar(EquipamentoResumoDTO resumo, long geracaoAntesDaLeitura) {
+        if (!habilitado || resumo.numeroDeSerie() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (geracaoRemocoes == geracaoAntesDaLeitura) {
+                gravarSeMaisRecente(resumo);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void aoAlterarEquipamento(EquipamentoAlteradoEvent evento) {
+        if (!habilitado) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (evento.tipo() == EquipamentoAlteradoEvent.TipoAlteracao.REMOVIDO) {
+                geracaoRemocoes++;
+                String numeroDeSerie = evento.numeroDeSerie() != null
+                        ? evento.numeroDeSerie()
+                        : numeroDeSerieDoId(evento.id());
+                EquipamentoResumoDTO anterior = numeroDeSerie != null ? mapa.remove(numeroDeSerie) : null;
+                if (anterior != null) {
+                    bytesEntradas.addAndGet(-estimarBytes(anterior));
+                }
+                if (carregando) {
+                    removidosDuranteCarga.add(evento.id());
+                }
+            } else if (evento.resumo() != null && evento.resumo().numeroDeSerie() != null) {
+                gravarSeMaisRecente(evento.resumo());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Chamado com o write lock. A versão impede que um documento lido antes (pela carga) sobrescreva um mais novo.
+    // Só compara versões do mesmo documento: um equipamento recriado com o mesmo número de série recomeça a contagem.
+    private void gravarSeMaisRecente(EquipamentoResumoDTO resumo) {
+        EquipamentoResumoDTO atual = mapa.get(resumo.numeroDeSerie());
+        if (atual != null && atual.id() != null && atual.id().equals(resumo.id())
+                && atual.versao() != null && resumo.versao() != null && atual.versao() > resumo.versao()) {
+            return;
+        }
+        EquipamentoResumoDTO anterior = mapa.put(resumo.numeroDeSerie(), resumo);
+        bytesEntradas.addAndGet(estimarBytes(resumo) - (anterior != null ? estimarBytes(anterior) : 0));
+    }
+
+    // Chamado com o write lock. Varre o índice inteiro: só acontece em remoções vindas do change stream sem pré-imagem.
+    private String numeroDeSerieDoId(String id) {
+        String[] encontrado = new String[1];
+        mapa.forEach((numeroDeSerie, resumo) -> {
+            if (id.equals(resumo.id())) {
+                encontrado[0] = numeroDeSerie;
+            }
+        });
+        return encontrado[0];
+    }
+
+    private int tamanho() {
+        lock.readLock().lock();
+        try {
+            return mapa.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long estimarBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) mapa.capacidade() * BYTES_POR_POSICAO + bytesEntradas.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double taxaDeAcerto() {
+        double total = acertos.count() + falhas.count();
+        return total == 0 ? 0 : acertos.count() / total;
+    }
+
+    private static long estimarBytes(EquipamentoResumoDTO resumo) {
+        return BYTES_RESUMO
+                + tamanhoString(resumo.numeroDeSerie())
+                + tamanhoString(resumo.id())
+                + tamanhoString(resumo.nome())
+                + tamanhoString(resumo.descricaoDetalhada())
+                + tamanhoString(resumo.criadoPorUsuario())
+                + tamanhoString(resumo.modificadoPorUsuario());
+    }
+
+    private static long tamanhoString(String valor) {
+        return valor == null ? 0 : BYTES_CABECALHO_STRING + valor.length();
+    }
+}
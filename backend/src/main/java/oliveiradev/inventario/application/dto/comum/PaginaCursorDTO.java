@@ -0,0 +1,17 @@
+package oliveiradev.inventario.application.dto.comum;
+
+import java.util.List;
+
+public record PaginaCursorDTO<T>(
+        List<T> itens,
+        String proximoCursor, // Nulo quando não há mais páginas
+        String proximaPagina) { // Link relativo para a próxima página, preenchido pelo controller
+
+    public boolean temProximaPagina() {
+        return proximoCursor != null;
+    }
+
+    public PaginaCursorDTO<T> comProximaPagina(String link) {
+        return new PaginaCursorDTO<>(itens, proximoCursor, link);
+    }
+}
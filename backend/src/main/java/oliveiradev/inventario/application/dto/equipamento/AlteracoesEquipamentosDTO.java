@@ -0,0 +1,12 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Resposta de GET /api/equipamentos/changes: tudo o que mudou em [since, sincronizadoAte)
+public record AlteracoesEquipamentosDTO(
+        List<EquipamentoResumoDTO> alterados, // Criados ou atualizados; estado atual de cada um
+        List<EquipamentoRemovidoDTO> removidos,
+        LocalDateTime sincronizadoAte, // Próximo 'since' do cliente
+        boolean temMais) { // Página cheia: chamar de novo com o novo 'since' antes de considerar a cópia atualizada
+}
@@ -0,0 +1,58 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Campos aceitos em ?fields= (sparse fieldsets). Os do documento viram projeção no Mongo; "logs" vem de
+// historico_equipamentos e só é consultado quando pedido.
+public enum CampoEquipamento {
+    ID("id"),
+    NOME("nome"),
+    NUMERO_DE_SERIE("numeroDeSerie"),
+    DESCRICAO_DETALHADA("descricaoDetalhada"),
+    DATA_INCLUSAO("dataInclusaoNoSistema"),
+    DATA_MODIFICACAO("dataUltimaModificacao"),
+    CRIADO_POR("criadoPorUsuario"),
+    MODIFICADO_POR("modificadoPorUsuario"),
+    VERSAO("versao"),
+    LOGS("logs");
+
+    private final String parametro; // Mesmo nome da propriedade no JSON e em Equipamento
+
+    CampoEquipamento(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public boolean isDoDocumento() {
+        return this != LOGS;
+    }
+
+    // Lista separada por vírgulas. A resposta segue a ordem das constantes (a mesma de EquipamentoRespostaDTO).
+    public static Set<CampoEquipamento> listaDoParametro(String parametro) {
+        Set<CampoEquipamento> campos = EnumSet.noneOf(CampoEquipamento.class);
+        if (parametro != null) {
+            for (String nome : parametro.split(",")) {
+                if (!nome.isBlank()) {
+                    campos.add(fromParametro(nome.trim()));
+                }
+            }
+        }
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um campo em 'fields'.");
+        }
+        return campos;
+    }
+
+    private static CampoEquipamento fromParametro(String parametro) {
+        for (CampoEquipamento campo : values()) {
+            if (campo.parametro.equalsIgnoreCase(parametro)) {
+                return campo;
+            }
+        }
+        throw new IllegalArgumentException("Campo de equipamento desconhecido: " + parametro);
+    }
+}
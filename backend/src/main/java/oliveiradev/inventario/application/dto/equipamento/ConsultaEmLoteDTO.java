@@ -0,0 +1,11 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.List;
+
+// Corpo de POST /api/equipamentos/batch-lookup: ids e/ou números de série (ao menos um, no total)
+public record ConsultaEmLoteDTO(
+        List<@NotBlank(message = "Os ids não podem estar em branco.") String> ids,
+        List<@NotBlank(message = "Os números de série não podem estar em branco.") String> numerosDeSerie) {
+}
@@ -1,5 +1,7 @@
 package oliveiradev.inventario.application.dto.equipamento;
 
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 
 public record EquipamentoAtualizacaoDTO(
@@ -7,5 +9,9 @@ public record EquipamentoAtualizacaoDTO(
         String nome, // Se nulo, não atualiza o nome
 
         @Size(max = 500, message = "A descrição detalhada não pode exceder 500 caracteres, se fornecida.")
-        String descricaoDetalhada) { // Se nulo, não atualiza a descrição
+        String descricaoDetalhada, // Se nulo, não atualiza a descrição
+
+        @NotNull(message = "A versão sobre a qual a edição foi feita é obrigatória.")
+        @PositiveOrZero(message = "A versão não pode ser negativa.")
+        Long versao) { // Versão sobre a qual a edição foi feita; sem ela não haveria como detectar conflitos
 }
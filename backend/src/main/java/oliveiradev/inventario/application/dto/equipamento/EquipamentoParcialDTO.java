@@ -0,0 +1,11 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Map;
+
+// Equipamento com apenas os campos pedidos em ?fields=, serializado como o próprio mapa
+public record EquipamentoParcialDTO(
+        @JsonValue Map<String, Object> campos,
+        Long versao) { // Sempre lida, para o ETag; no corpo só aparece se pedida
+}
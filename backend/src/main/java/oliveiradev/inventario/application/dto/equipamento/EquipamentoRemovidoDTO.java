@@ -0,0 +1,15 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import oliveiradev.inventario.domain.model.equipamentos.EquipamentoRemovido;
+
+import java.time.LocalDateTime;
+
+public record EquipamentoRemovidoDTO(
+        String id,
+        String numeroDeSerie,
+        LocalDateTime dataRemocao) {
+
+    public static EquipamentoRemovidoDTO de(EquipamentoRemovido removido) {
+        return new EquipamentoRemovidoDTO(removido.getId(), removido.getNumeroDeSerie(), removido.getDataRemocao());
+    }
+}
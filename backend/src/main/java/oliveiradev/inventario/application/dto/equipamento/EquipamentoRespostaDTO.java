@@ -12,5 +12,6 @@ public record EquipamentoRespostaDTO(
         LocalDateTime dataUltimaModificacao,
         String criadoPorUsuario,
         String modificadoPorUsuario,
+        Long versao,
         List<LogAlteracaoDTO> logs) {
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+
+import java.time.LocalDateTime;
+
+// Visão leve usada nas listagens e buscas: não carrega o histórico de alterações
+public record EquipamentoResumoDTO(
+        String id,
+        String nome,
+        String numeroDeSerie,
+        String descricaoDetalhada,
+        LocalDateTime dataInclusaoNoSistema,
+        LocalDateTime dataUltimaModificacao,
+        String criadoPorUsuario,
+        String modificadoPorUsuario,
+        Long versao) {
+
+    public static EquipamentoResumoDTO de(Equipamento equipamento) {
+        return new EquipamentoResumoDTO(
+                equipamento.getId(),
+                equipamento.getNome(),
+                equipamento.getNumeroDeSerie(),
+                equipamento.getDescricaoDetalhada(),
+                equipamento.getDataInclusaoNoSistema(),
+                equipamento.getDataUltimaModificacao(),
+                equipamento.getCriadoPorUsuario(),
+                equipamento.getModificadoPorUsuario(),
+                equipamento.getVersao()
+        );
+    }
+}
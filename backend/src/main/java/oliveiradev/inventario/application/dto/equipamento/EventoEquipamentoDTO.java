@@ -0,0 +1,16 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent.TipoAlteracao;
+
+// Dados de cada evento de GET /api/equipamentos/stream
+public record EventoEquipamentoDTO(
+        TipoAlteracao tipo,
+        String id,
+        String numeroDeSerie, // Pode vir nulo em REMOVIDO vindo de outra réplica (sem pré-imagem no Mongo)
+        EquipamentoResumoDTO equipamento) { // Estado após a alteração; nulo em REMOVIDO
+
+    public static EventoEquipamentoDTO de(EquipamentoAlteradoEvent evento) {
+        return new EventoEquipamentoDTO(evento.tipo(), evento.id(), evento.numeroDeSerie(), evento.resumo());
+    }
+}
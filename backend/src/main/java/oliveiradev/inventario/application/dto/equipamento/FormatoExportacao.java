@@ -0,0 +1,40 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+public enum FormatoExportacao {
+    NDJSON("ndjson", "application/x-ndjson", "ndjson"),
+    CSV("csv", "text/csv", "csv");
+
+    private final String parametro;
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String parametro, String contentType, String extensao) {
+        this.parametro = parametro;
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public static FormatoExportacao fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return NDJSON;
+        }
+        for (FormatoExportacao formato : values()) {
+            if (formato.parametro.equalsIgnoreCase(parametro.trim())) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportação desconhecido: " + parametro);
+    }
+}
@@ -0,0 +1,12 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+// Um item por chave pedida, na ordem do pedido; 'equipamento' é nulo quando 'encontrado' é falso
+public record ItemConsultaEmLoteDTO(
+        String chave,
+        boolean encontrado,
+        EquipamentoResumoDTO equipamento) {
+
+    public static ItemConsultaEmLoteDTO de(String chave, EquipamentoResumoDTO equipamento) {
+        return new ItemConsultaEmLoteDTO(chave, equipamento != null, equipamento);
+    }
+}
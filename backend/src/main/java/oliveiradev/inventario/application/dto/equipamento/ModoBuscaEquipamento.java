@@ -0,0 +1,28 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+public enum ModoBuscaEquipamento {
+    TEXTO("texto"), // Índice de texto em nome e descrição, por relevância (padrão)
+    REGEX("regex"); // Trecho do nome, sem diferenciar maiúsculas; percorre a coleção inteira
+
+    private final String parametro;
+
+    ModoBuscaEquipamento(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public static ModoBuscaEquipamento fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return TEXTO;
+        }
+        for (ModoBuscaEquipamento modo : values()) {
+            if (modo.parametro.equalsIgnoreCase(parametro.trim())) {
+                return modo;
+            }
+        }
+        throw new IllegalArgumentException("Modo de busca desconhecido: " + parametro);
+    }
+}
@@ -0,0 +1,8 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+import java.util.List;
+
+public record ResultadoConsultaEmLoteDTO(
+        List<ItemConsultaEmLoteDTO> ids,
+        List<ItemConsultaEmLoteDTO> numerosDeSerie) {
+}
@@ -0,0 +1,8 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+// Item do autocomplete: apenas o necessário para exibir a sugestão e abrir o equipamento
+public record SugestaoEquipamentoDTO(
+        String id,
+        String nome,
+        String numeroDeSerie) {
+}
@@ -0,0 +1,28 @@
+package oliveiradev.inventario.application.dto.equipamento;
+
+public enum VisaoEquipamento {
+    RESUMO("resumo"),     // EquipamentoResumoDTO, sem logs (padrão das listagens)
+    COMPLETA("completa"); // EquipamentoRespostaDTO, com logs
+
+    private final String parametro;
+
+    VisaoEquipamento(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public static VisaoEquipamento fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return RESUMO;
+        }
+        for (VisaoEquipamento visao : values()) {
+            if (visao.parametro.equalsIgnoreCase(parametro.trim())) {
+                return visao;
+            }
+        }
+        throw new IllegalArgumentException("Visão de equipamento desconhecida: " + parametro);
+    }
+}
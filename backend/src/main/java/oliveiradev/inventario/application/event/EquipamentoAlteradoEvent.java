@@ -0,0 +1,49 @@
+package oliveiradev.inventario.application.event;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+
+import java.util.Objects;
+
+// Publicado pelo serviço de equipamentos depois que uma escrita foi gravada no banco, e pelo OuvinteChangeStreams
+// para as escritas vistas no change stream (inclusive as de outras réplicas). Mantém atualizadas as estruturas em
+// memória (índices, caches) sem acoplá-las ao serviço.
+public record EquipamentoAlteradoEvent(
+        TipoAlteracao tipo,
+        String id,
+        String numeroDeSerie,
+        EquipamentoResumoDTO resumo, // Estado após a alteração; nulo em REMOVIDO
+        Origem origem) {
+
+    public enum TipoAlteracao {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    public enum Origem {
+        LOCAL,
+        CHANGE_STREAM // Número de série pode vir nulo em REMOVIDO quando o Mongo não guarda a pré-imagem
+    }
+
+    public EquipamentoAlteradoEvent {
+        Objects.requireNonNull(tipo, "Tipo da alteração não pode ser nulo.");
+        Objects.requireNonNull(id, "ID do equipamento não pode ser nulo.");
+        Objects.requireNonNull(origem, "Origem da alteração não pode ser nula.");
+    }
+
+    public static EquipamentoAlteradoEvent criado(EquipamentoResumoDTO resumo) {
+        return new EquipamentoAlteradoEvent(TipoAlteracao.CRIADO, resumo.id(), resumo.numeroDeSerie(), resumo, Origem.LOCAL);
+    }
+
+    public static EquipamentoAlteradoEvent atualizado(EquipamentoResumoDTO resumo) {
+        return new EquipamentoAlteradoEvent(TipoAlteracao.ATUALIZADO, resumo.id(), resumo.numeroDeSerie(), resumo, Origem.LOCAL);
+    }
+
+    public static EquipamentoAlteradoEvent removido(String id, String numeroDeSerie) {
+        return new EquipamentoAlteradoEvent(TipoAlteracao.REMOVIDO, id, numeroDeSerie, null, Origem.LOCAL);
+    }
+
+    public EquipamentoAlteradoEvent vindoDoChangeStream() {
+        return new EquipamentoAlteradoEvent(tipo, id, numeroDeSerie, resumo, Origem.CHANGE_STREAM);
+    }
+}
@@ -0,0 +1,12 @@
+package oliveiradev.inventario.application.event;
+
+import java.util.Objects;
+
+// Publicado quando alterações de uma coleção podem ter sido perdidas: o token de retomada saiu do oplog, ou a
+// coleção foi removida/renomeada. Quem mantém em memória dados dessa entidade deve descartá-los ou recarregá-los.
+public record SincronizacaoPerdidaEvent(Class<?> entidade) {
+
+    public SincronizacaoPerdidaEvent {
+        Objects.requireNonNull(entidade, "Entidade não pode ser nula.");
+    }
+}
@@ -0,0 +1,23 @@
+package oliveiradev.inventario.application.event;
+
+import java.util.Objects;
+
+// Publicado pelo UsuarioAppServiceImpl nas escritas locais e pelo OuvinteChangeStreams para cada escrita na coleção
+// de usuários, inclusive as de outras réplicas (com change streams, a escrita local chega duas vezes).
+// Permite que caches de usuários (dados de autenticação) sejam invalidados sem esperar a expiração.
+public record UsuarioAlteradoEvent(
+        TipoAlteracao tipo,
+        String id,
+        String email) { // Nulo em REMOVIDO quando o Mongo não guarda a pré-imagem
+
+    public enum TipoAlteracao {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    public UsuarioAlteradoEvent {
+        Objects.requireNonNull(tipo, "Tipo da alteração não pode ser nulo.");
+        Objects.requireNonNull(id, "ID do usuário não pode ser nulo.");
+    }
+}
@@ -0,0 +1,16 @@
+package oliveiradev.inventario.application.exception;
+
+// Edição baseada em uma versão desatualizada que sobrescreveria alterações de outro usuário.
+// Carrega o estado atual do recurso para que o cliente possa refazer a edição sobre ele.
+public class ConflitoDeVersaoException extends RuntimeException {
+    private final transient Object estadoAtual;
+
+    public ConflitoDeVersaoException(String mensagem, Object estadoAtual) {
+        super(mensagem);
+        this.estadoAtual = estadoAtual;
+    }
+
+    public Object getEstadoAtual() {
+        return estadoAtual;
+    }
+}
@@ -0,0 +1,17 @@
+package oliveiradev.inventario.application.exception;
+
+import java.time.Duration;
+
+// Capacidade do servidor esgotada para este tipo de requisição; respondida com 503 e Retry-After
+public class ServicoSobrecarregadoException extends RuntimeException {
+    private final Duration tentarNovamenteEm;
+
+    public ServicoSobrecarregadoException(String mensagem, Duration tentarNovamenteEm) {
+        super(mensagem);
+        this.tentarNovamenteEm = tentarNovamenteEm;
+    }
+
+    public Duration getTentarNovamenteEm() {
+        return tentarNovamenteEm;
+    }
+}
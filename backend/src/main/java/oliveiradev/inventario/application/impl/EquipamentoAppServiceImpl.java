@@ -1,19 +1,55 @@
 package oliveiradev.inventario.application.impl;
 
+import oliveiradev.inventario.application.cache.CacheEquipamentos;
+import oliveiradev.inventario.application.cache.ConsultasCompartilhadasEquipamentos;
+import oliveiradev.inventario.application.cache.ContadorAlteracoesEquipamentos;
+import oliveiradev.inventario.application.cache.IndiceAutocompleteEquipamentos;
+import oliveiradev.inventario.application.cache.IndiceNumeroDeSerie;
+import oliveiradev.inventario.application.dto.comum.PaginaCursorDTO;
+import oliveiradev.inventario.application.dto.equipamento.AlteracoesEquipamentosDTO;
+import oliveiradev.inventario.application.dto.equipamento.CampoEquipamento;
+import oliveiradev.inventario.application.dto.equipamento.ConsultaEmLoteDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoAtualizacaoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoCriacaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoParcialDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRemovidoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.FormatoExportacao;
+import oliveiradev.inventario.application.dto.equipamento.ItemConsultaEmLoteDTO;
 import oliveiradev.inventario.application.dto.equipamento.LogAlteracaoDTO; // Certifique-se que este DTO existe
+import oliveiradev.inventario.application.dto.equipamento.ModoBuscaEquipamento;
+import oliveiradev.inventario.application.dto.equipamento.ResultadoConsultaEmLoteDTO;
+import oliveiradev.inventario.application.dto.equipamento.SugestaoEquipamentoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.exception.ConflitoDeVersaoException;
 import oliveiradev.inventario.application.exception.RecursoNaoEncontradoException;
 import oliveiradev.inventario.application.exception.RegraDeNegocioException;
 import oliveiradev.inventario.application.service.EquipamentoAppService;
 import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
-// LogAlteracao da entidade não é usado diretamente aqui, mas sim o DTO LogAlteracaoDTO
+import oliveiradev.inventario.domain.model.equipamentos.EquipamentoRemovido;
+import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+import oliveiradev.inventario.domain.repository.EntradaHistorico;
+import oliveiradev.inventario.domain.repository.EquipamentoPontuado;
+import oliveiradev.inventario.domain.repository.EquipamentoRemovidoRepository;
 import oliveiradev.inventario.domain.repository.EquipamentoRepository;
+import oliveiradev.inventario.domain.repository.HistoricoEquipamentoRepository;
+import oliveiradev.inventario.domain.repository.OrdenacaoEquipamento;
+import oliveiradev.inventario.util.paginacao.CursorPaginacao;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,21 +57,98 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils; // Para StringUtils.hasText
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects; // Para Objects.equals e Objects.requireNonNull
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EquipamentoAppServiceImpl implements EquipamentoAppService {
 
     private static final Logger logger = LoggerFactory.getLogger(EquipamentoAppServiceImpl.class);
 
+    // Exportação: buffer de saída limitado e flush periódico para o cliente receber os dados enquanto são lidos
+    private static final int TAMANHO_BUFFER_EXPORTACAO = 64 * 1024;
+    private static final int DOCUMENTOS_POR_FLUSH = 500;
+
+    private static final String ORDENACAO_CURSOR_HISTORICO = "historico";
+    private static final String SEPARADOR_POSICAO_HISTORICO = ":";
+    private static final Sort ORDEM_REMOCOES = Sort.by(Sort.Direction.ASC, "dataRemocao");
+
     private final EquipamentoRepository equipamentoRepository;
+    private final HistoricoEquipamentoRepository historicoRepository;
+    private final EquipamentoRemovidoRepository removidoRepository;
+    private final ObjectMapper objectMapper;
+    private final IndiceNumeroDeSerie indiceNumeroDeSerie;
+    private final IndiceAutocompleteEquipamentos indiceAutocomplete;
+    private final CacheEquipamentos cacheEquipamentos;
+    private final ContadorAlteracoesEquipamentos contadorAlteracoes;
+    private final ConsultasCompartilhadasEquipamentos consultasCompartilhadas;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.equipamentos.paginacao.limite-padrao:50}")
+    private int limitePadraoPagina = 50;
+
+    @Value("${app.equipamentos.paginacao.limite-maximo:200}")
+    private int limiteMaximoPagina = 200;
+
+    @Value("${app.equipamentos.historico.limite-padrao:100}")
+    private int limitePadraoHistorico = 100;
+
+    // Entradas mais recentes embutidas em 'logs' na visão completa; o histórico inteiro é paginado em /{id}/historico
+    @Value("${app.equipamentos.historico.limite-embutido:20}")
+    private int limiteHistoricoEmbutido = 20;
+
+    @Value("${app.equipamentos.lote.limite-maximo:500}")
+    private int limiteMaximoLote = 500;
+
+    @Value("${app.equipamentos.alteracoes.margem:5s}")
+    private Duration margemAlteracoes = Duration.ofSeconds(5);
+
+    @Value("${app.equipamentos.atualizacao.max-tentativas:3}")
+    private int maxTentativasAtualizacao = 3;
 
     @Autowired
-    public EquipamentoAppServiceImpl(EquipamentoRepository equipamentoRepository) {
+    public EquipamentoAppServiceImpl(EquipamentoRepository equipamentoRepository,
+                                     HistoricoEquipamentoRepository historicoRepository,
+                                     EquipamentoRemovidoRepository removidoRepository,
+                                     ObjectMapper objectMapper,
+                                     IndiceNumeroDeSerie indiceNumeroDeSerie,
+                                     IndiceAutocompleteEquipamentos indiceAutocomplete,
+                                     CacheEquipamentos cacheEquipamentos,
+                                     ContadorAlteracoesEquipamentos contadorAlteracoes,
+                                     ConsultasCompartilhadasEquipamentos consultasCompartilhadas,
+                                     ApplicationEventPublisher eventPublisher) {
         this.equipamentoRepository = equipamentoRepository;
+        this.historicoRepository = historicoRepository;
+        this.removidoRepository = removidoRepository;
+        this.objectMapper = objectMapper;
+        this.indiceNumeroDeSerie = indiceNumeroDeSerie;
+        this.indiceAutocomplete = indiceAutocomplete;
+        this.cacheEquipamentos = cacheEquipamentos;
+        this.contadorAlteracoes = contadorAlteracoes;
+        this.consultasCompartilhadas = consultasCompartilhadas;
+        this.eventPublisher = eventPublisher;
     }
 
     private String getUsuarioAutenticadoEmail() {
@@ -51,13 +164,14 @@ public class EquipamentoAppServiceImpl implements EquipamentoAppService {
         return "sistema"; // Usuário padrão para logs se não houver autenticação (ex: processos batch)
     }
 
-    private EquipamentoRespostaDTO converterParaRespostaDTO(Equipamento equipamento) {
+    private EquipamentoRespostaDTO converterParaRespostaDTO(Equipamento equipamento, List<LogAlteracao> historico) {
         if (equipamento == null) {
             return null;
         }
-        List<LogAlteracaoDTO> logDTOs = equipamento.getLogs().stream()
-                .map(log -> new LogAlteracaoDTO(log.getDataHora(), log.getUsuarioResponsavel(), log.getDescricao()))
-                .collect(Collectors.toList());
+        // Imutável: a mesma resposta pode ser compartilhada pelo cache entre requisições
+        List<LogAlteracaoDTO> logDTOs = historico.stream()
+                .map(this::converterParaLogDTO)
+                .collect(Collectors.toUnmodifiableList());
 
         return new EquipamentoRespostaDTO(
                 equipamento.getId(),
@@ -68,10 +182,36 @@ public class EquipamentoAppServiceImpl implements EquipamentoAppService {
                 equipamento.getDataUltimaModificacao(),
                 equipamento.getCriadoPorUsuario(),
                 equipamento.getModificadoPorUsuario(),
+                equipamento.getVersao(),
                 logDTOs
         );
     }
 
+    private LogAlteracaoDTO converterParaLogDTO(LogAlteracao log) {
+        return new LogAlteracaoDTO(log.getDataHora(), log.getUsuarioResponsavel(), log.getDescricao());
+    }
+
+    // Uma agregação em historico_equipamentos por equipamento, só com as últimas limiteHistoricoEmbutido entradas
+    private EquipamentoRespostaDTO converterComHistorico(Equipamento equipamento) {
+        return converterParaRespostaDTO(equipamento, historicoRepository.listarEntradasRecentes(equipamento.getId(), limiteHistoricoEmbutido));
+    }
+
+    // Uma única agregação $in para o histórico recente de todos os equipamentos da lista
+    private List<EquipamentoRespostaDTO> converterComHistorico(List<Equipamento> equipamentos) {
+        Map<String, List<LogAlteracao>> historicos = historicoRepository.listarEntradasRecentesPorEquipamentos(
+                equipamentos.stream().map(Equipamento::getId).collect(Collectors.toList()), limiteHistoricoEmbutido);
+        return equipamentos.stream()
+                .map(equipamento -> converterParaRespostaDTO(equipamento, historicos.getOrDefault(equipamento.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    private EquipamentoResumoDTO converterParaResumoDTO(Equipamento equipamento) {
+        if (equipamento == null) {
+            return null;
+        }
+        return EquipamentoResumoDTO.de(equipamento);
+    }
+
     @Override
     @Transactional
     public EquipamentoRespostaDTO criarEquipamento(EquipamentoCriacaoDTO dto) throws RegraDeNegocioException {
@@ -82,10 +222,6 @@ public class EquipamentoAppServiceImpl implements EquipamentoAppService {
         logger.info("Tentativa de criar equipamento com número de série: {}", dto.numeroDeSerie());
 
         String numeroDeSerieNormalizado = dto.numeroDeSerie().trim();
-        if (equipamentoRepository.findByNumeroDeSerie(numeroDeSerieNormalizado).isPresent()) {
-            throw new RegraDeNegocioException("Número de série '" + numeroDeSerieNormalizado + "' já cadastrado.");
-        }
-
         Equipamento equipamento = new Equipamento(
                 dto.nome(), // A entidade Equipamento já faz trim()
                 numeroDeSerieNormalizado,
@@ -96,76 +232,627 @@ public class EquipamentoAppServiceImpl implements EquipamentoAppService {
         // Adiciona um log semântico de criação. Os campos @CreatedBy/@CreatedDate são automáticos.
         equipamento.adicionarLog(usuarioLogado, "Equipamento registrado no sistema por " + usuarioLogado + ".");
 
-        Equipamento equipamentoSalvo = equipamentoRepository.save(equipamento);
+        // Um único insert: a unicidade do número de série é garantida pelo índice unique, sem consulta prévia
+        // (que custaria uma ida ao banco e ainda deixaria passar duas criações concorrentes)
+        Equipamento equipamentoSalvo;
+        try {
+            equipamentoSalvo = equipamentoRepository.insert(equipamento);
+        } catch (DuplicateKeyException ex) {
+            throw new RegraDeNegocioException("Número de série '" + numeroDeSerieNormalizado + "' já cadastrado.", ex);
+        }
+        // Em um equipamento novo, o histórico completo são exatamente as entradas desta operação
+        List<LogAlteracao> historico = equipamentoSalvo.retirarLogsPendentes();
+        historicoRepository.registrar(equipamentoSalvo.getId(), historico);
         logger.info("Equipamento '{}' criado com ID: {} por {}", equipamentoSalvo.getNome(), equipamentoSalvo.getId(), usuarioLogado);
+        eventPublisher.publishEvent(EquipamentoAlteradoEvent.criado(converterParaResumoDTO(equipamentoSalvo)));
 
-        return converterParaRespostaDTO(equipamentoSalvo);
+        return converterParaRespostaDTO(equipamentoSalvo, historico);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<EquipamentoRespostaDTO> buscarEquipamentoPorId(String id) {
         Objects.requireNonNull(id, "ID do equipamento não pode ser nulo.");
-        return equipamentoRepository.findById(id).map(this::converterParaRespostaDTO);
+        // Cache desabilitado ou frio: leituras simultâneas do mesmo id compartilham a consulta
+        return cacheEquipamentos.buscarPorId(id,
+                chave -> consultasCompartilhadas.buscarPorId(chave,
+                        () -> equipamentoRepository.findById(chave).map(this::converterComHistorico)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<EquipamentoRespostaDTO> buscarEquipamentoPorNumeroDeSerie(String numeroDeSerie) {
         Objects.requireNonNull(numeroDeSerie, "Número de série do equipamento não pode ser nulo.");
-        return equipamentoRepository.findByNumeroDeSerie(numeroDeSerie.trim()).map(this::converterParaRespostaDTO);
+        return cacheEquipamentos.buscarPorNumeroDeSerie(numeroDeSerie.trim(),
+                chave -> consultasCompartilhadas.buscarPorNumeroDeSerie(chave,
+                        () -> equipamentoRepository.findByNumeroDeSerie(chave).map(this::converterComHistorico)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EquipamentoResumoDTO> buscarResumoPorNumeroDeSerie(String numeroDeSerie) {
+        Objects.requireNonNull(numeroDeSerie, "Número de série do equipamento não pode ser nulo.");
+        String numeroDeSerieNormalizado = numeroDeSerie.trim();
+        Optional<EquipamentoResumoDTO> doIndice = indiceNumeroDeSerie.buscar(numeroDeSerieNormalizado);
+        if (doIndice.isPresent()) {
+            return doIndice;
+        }
+        // Ausente do índice (desabilitado, carregando ou equipamento desconhecido): o Mongo é a fonte da verdade
+        // Leituras simultâneas do mesmo código (vários leitores ao mesmo tempo) compartilham a consulta; quem a executa
+        // registra o resultado no índice, com a geração de remoções lida antes dela
+        return consultasCompartilhadas.buscarResumoPorNumeroDeSerie(numeroDeSerieNormalizado, () -> {
+            long geracao = indiceNumeroDeSerie.geracaoRemocoes();
+            Optional<EquipamentoResumoDTO> resumo = equipamentoRepository.findByNumeroDeSerie(numeroDeSerieNormalizado)
+                    .map(this::converterParaResumoDTO);
+            resumo.ifPresent(lido -> indiceNumeroDeSerie.registrar(lido, geracao));
+            return resumo;
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<EquipamentoResumoDTO> listarEquipamentos(String cursor, Integer limite, String ordenacao) {
+        return buscarPagina(cursor, limite, ordenacao, pagina -> pagina.stream()
+                .map(this::converterParaResumoDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<EquipamentoRespostaDTO> listarEquipamentosCompletos(String cursor, Integer limite, String ordenacao) {
+        return buscarPagina(cursor, limite, ordenacao, this::converterComHistorico);
+    }
+
+    @Override
+    public Optional<String> versaoDaListagem() {
+        return contadorAlteracoes.versaoAtual();
+    }
+
+    private <T> PaginaCursorDTO<T> buscarPagina(String cursor, Integer limite, String ordenacao,
+                                                Function<List<Equipamento>, List<T>> conversor) {
+        OrdenacaoEquipamento ordenarPor = OrdenacaoEquipamento.fromParametro(ordenacao);
+        int tamanhoPagina = normalizarLimite(limite);
+        CursorPaginacao cursorAtual = decodificarCursor(cursor, ordenarPor);
+
+        // Busca um item a mais apenas para saber se existe próxima página
+        List<Equipamento> equipamentos = equipamentoRepository.buscarPaginaAposCursor(ordenarPor,
+                cursorAtual != null ? ordenarPor.converterValor(cursorAtual.valor()) : null,
+                cursorAtual != null ? cursorAtual.id() : null,
+                tamanhoPagina + 1);
+        boolean temMais = equipamentos.size() > tamanhoPagina;
+        List<Equipamento> pagina = temMais ? equipamentos.subList(0, tamanhoPagina) : equipamentos;
+
+        String proximoCursor = null;
+        if (temMais) {
+            Equipamento ultimo = pagina.get(pagina.size() - 1);
+            proximoCursor = new CursorPaginacao(ordenarPor.getParametro(), ultimo.getId(), ordenarPor.extrairValor(ultimo)).codificar();
+        }
+
+        return new PaginaCursorDTO<>(conversor.apply(pagina), proximoCursor, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<EquipamentoParcialDTO> listarEquipamentosParciais(String cursor, Integer limite, String ordenacao,
+                                                                            Set<CampoEquipamento> campos) {
+        OrdenacaoEquipamento ordenarPor = OrdenacaoEquipamento.fromParametro(ordenacao);
+        int tamanhoPagina = normalizarLimite(limite);
+        CursorPaginacao cursorAtual = decodificarCursor(cursor, ordenarPor);
+
+        // O campo da ordenação é lido mesmo se não pedido: o cursor da próxima página depende dele
+        Set<String> projecao = camposDoDocumento(campos);
+        projecao.add(ordenarPor.getPropriedade());
+        List<Map<String, Object>> documentos = equipamentoRepository.buscarPaginaAposCursorProjetada(ordenarPor,
+                cursorAtual != null ? ordenarPor.converterValor(cursorAtual.valor()) : null,
+                cursorAtual != null ? cursorAtual.id() : null,
+                tamanhoPagina + 1,
+                projecao);
+        boolean temMais = documentos.size() > tamanhoPagina;
+        List<Map<String, Object>> pagina = temMais ? documentos.subList(0, tamanhoPagina) : documentos;
+
+        String proximoCursor = null;
+        if (temMais) {
+            Map<String, Object> ultimo = pagina.get(pagina.size() - 1);
+            proximoCursor = new CursorPaginacao(ordenarPor.getParametro(), (String) ultimo.get("id"), ordenarPor.extrairValor(ultimo)).codificar();
+        }
+        return new PaginaCursorDTO<>(montarParciais(pagina, campos), proximoCursor, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EquipamentoParcialDTO> buscarEquipamentoParcialPorId(String id, Set<CampoEquipamento> campos) {
+        Objects.requireNonNull(id, "ID do equipamento não pode ser nulo.");
+        return equipamentoRepository.buscarProjetadoPor("id", id, camposDoDocumento(campos))
+                .map(documento -> montarParciais(List.of(documento), campos).get(0));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EquipamentoParcialDTO> buscarEquipamentoParcialPorNumeroDeSerie(String numeroDeSerie, Set<CampoEquipamento> campos) {
+        Objects.requireNonNull(numeroDeSerie, "Número de série do equipamento não pode ser nulo.");
+        return equipamentoRepository.buscarProjetadoPor("numeroDeSerie", numeroDeSerie.trim(), camposDoDocumento(campos))
+                .map(documento -> montarParciais(List.of(documento), campos).get(0));
+    }
+
+    // Projeção no Mongo: os campos pedidos que estão no documento, mais a versão (usada no ETag)
+    private static Set<String> camposDoDocumento(Set<CampoEquipamento> campos) {
+        Set<String> projecao = campos.stream()
+                .filter(CampoEquipamento::isDoDocumento)
+                .map(CampoEquipamento::getParametro)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        projecao.add(CampoEquipamento.VERSAO.getParametro());
+        return projecao;
+    }
+
+    // Monta cada item só com os campos pedidos; o histórico recente, se pedido, vem de uma única agregação $in
+    private List<EquipamentoParcialDTO> montarParciais(List<Map<String, Object>> documentos, Set<CampoEquipamento> campos) {
+        Map<String, List<LogAlteracao>> historicos = campos.contains(CampoEquipamento.LOGS)
+                ? historicoRepository.listarEntradasRecentesPorEquipamentos(documentos.stream()
+                        .map(documento -> (String) documento.get("id"))
+                        .collect(Collectors.toList()), limiteHistoricoEmbutido)
+                : Map.of();
+        List<EquipamentoParcialDTO> parciais = new ArrayList<>(documentos.size());
+        for (Map<String, Object> documento : documentos) {
+            Map<String, Object> valores = new LinkedHashMap<>();
+            for (CampoEquipamento campo : campos) {
+                valores.put(campo.getParametro(), campo == CampoEquipamento.LOGS
+                        ? historicos.getOrDefault((String) documento.get("id"), List.of()).stream().map(this::converterParaLogDTO).toList()
+                        : documento.get(campo.getParametro()));
+            }
+            Object versao = documento.get(CampoEquipamento.VERSAO.getParametro());
+            parciais.add(new EquipamentoParcialDTO(valores, versao instanceof Number numero ? numero.longValue() : null));
+        }
+        return parciais;
+    }
+
+    // Valida que o cursor foi gerado para a mesma ordenação; nulo quando é a primeira página
+    private static CursorPaginacao decodificarCursor(String cursor, OrdenacaoEquipamento ordenarPor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        CursorPaginacao cursorDecodificado = CursorPaginacao.decodificar(cursor);
+        if (!ordenarPor.getParametro().equals(cursorDecodificado.ordenacao())) {
+            throw new IllegalArgumentException("Cursor gerado para a ordenação '" + cursorDecodificado.ordenacao()
+                    + "' não pode ser usado com a ordenação '" + ordenarPor.getParametro() + "'.");
+        }
+        return cursorDecodificado;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<EquipamentoResumoDTO> buscarEquipamentos(String termos, String modo, String cursor, Integer limite) {
+        if (!StringUtils.hasText(termos)) {
+            throw new IllegalArgumentException("Informe o termo da busca.");
+        }
+        ModoBuscaEquipamento modoBusca = ModoBuscaEquipamento.fromParametro(modo);
+        int tamanhoPagina = normalizarLimite(limite);
+
+        String idCursor = null;
+        String valorCursor = null;
+        if (StringUtils.hasText(cursor)) {
+            CursorPaginacao cursorDecodificado = CursorPaginacao.decodificar(cursor);
+            if (!modoBusca.getParametro().equals(cursorDecodificado.ordenacao())) {
+                throw new IllegalArgumentException("Cursor gerado para o modo de busca '" + cursorDecodificado.ordenacao()
+                        + "' não pode ser usado com o modo '" + modoBusca.getParametro() + "'.");
+            }
+            idCursor = cursorDecodificado.id();
+            valorCursor = cursorDecodificado.valor();
+        }
+
+        // Um item a mais apenas para saber se existe próxima página
+        List<EquipamentoResumoDTO> itens;
+        String proximoCursor = null;
+        if (modoBusca == ModoBuscaEquipamento.TEXTO) {
+            List<EquipamentoPontuado> encontrados = equipamentoRepository.buscarPorTexto(
+                    termos.trim(), idCursor != null ? converterPontuacaoCursor(valorCursor) : null, idCursor, tamanhoPagina + 1);
+            List<EquipamentoPontuado> pagina = encontrados.size() > tamanhoPagina ? encontrados.subList(0, tamanhoPagina) : encontrados;
+            if (encontrados.size() > tamanhoPagina) {
+                EquipamentoPontuado ultimo = pagina.get(pagina.size() - 1);
+                proximoCursor = new CursorPaginacao(modoBusca.getParametro(), ultimo.equipamento().getId(),
+                        Double.toString(ultimo.pontuacao())).codificar();
+            }
+            itens = pagina.stream()
+                    .map(encontrado -> converterParaResumoDTO(encontrado.equipamento()))
+                    .collect(Collectors.toList());
+        } else {
+            List<Equipamento> encontrados = equipamentoRepository.buscarPorTrechoDoNome(termos.trim(), idCursor, tamanhoPagina + 1);
+            List<Equipamento> pagina = encontrados.size() > tamanhoPagina ? encontrados.subList(0, tamanhoPagina) : encontrados;
+            if (encontrados.size() > tamanhoPagina) {
+                proximoCursor = new CursorPaginacao(modoBusca.getParametro(), pagina.get(pagina.size() - 1).getId(), null).codificar();
+            }
+            itens = pagina.stream()
+                    .map(this::converterParaResumoDTO)
+                    .collect(Collectors.toList());
+        }
+        return new PaginaCursorDTO<>(itens, proximoCursor, null);
+    }
+
+    @Override
+    public List<SugestaoEquipamentoDTO> sugerirEquipamentos(String prefixo, Integer limite) {
+        int maxSugestoes = indiceAutocomplete.getMaxSugestoes();
+        if (limite != null && limite < 1) {
+            throw new IllegalArgumentException("O limite de sugestões deve ser maior que zero.");
+        }
+        if (!StringUtils.hasText(prefixo)) {
+            return List.of();
+        }
+        return indiceAutocomplete.sugerir(prefixo, limite != null ? Math.min(limite, maxSugestoes) : maxSugestoes);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<EquipamentoRespostaDTO> listarTodosEquipamentos() {
-        return equipamentoRepository.findAll().stream()
-                .map(this::converterParaRespostaDTO)
+    public ResultadoConsultaEmLoteDTO consultarEmLote(ConsultaEmLoteDTO consulta) {
+        List<String> ids = normalizarChaves(consulta.ids());
+        List<String> numerosDeSerie = normalizarChaves(consulta.numerosDeSerie());
+        if (ids.isEmpty() && numerosDeSerie.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um id ou número de série.");
+        }
+        if (ids.size() + numerosDeSerie.size() > limiteMaximoLote) {
+            throw new IllegalArgumentException("A consulta em lote aceita no máximo " + limiteMaximoLote + " chaves.");
+        }
+
+        Map<String, EquipamentoResumoDTO> porId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            equipamentoRepository.buscarPorIds(new LinkedHashSet<>(ids))
+                    .forEach(equipamento -> porId.put(equipamento.getId(), converterParaResumoDTO(equipamento)));
+        }
+
+        // Números de série: primeiro o índice em memória; só os ausentes vão ao Mongo, em uma única consulta
+        Map<String, EquipamentoResumoDTO> porNumeroDeSerie = new HashMap<>();
+        List<String> ausentesDoIndice = new ArrayList<>();
+        for (String numeroDeSerie : new LinkedHashSet<>(numerosDeSerie)) {
+            indiceNumeroDeSerie.buscar(numeroDeSerie).ifPresentOrElse(
+                    resumo -> porNumeroDeSerie.put(numeroDeSerie, resumo),
+                    () -> ausentesDoIndice.add(numeroDeSerie));
+        }
+        if (!ausentesDoIndice.isEmpty()) {
+            long geracao = indiceNumeroDeSerie.geracaoRemocoes();
+            for (Equipamento equipamento : equipamentoRepository.buscarPorNumerosDeSerie(ausentesDoIndice)) {
+                EquipamentoResumoDTO resumo = converterParaResumoDTO(equipamento);
+                porNumeroDeSerie.put(equipamento.getNumeroDeSerie(), resumo);
+                indiceNumeroDeSerie.registrar(resumo, geracao);
+            }
+        }
+
+        logger.debug("Consulta em lote: {} ids, {} números de série ({} consultados no Mongo)",
+                ids.size(), numerosDeSerie.size(), ausentesDoIndice.size());
+        return new ResultadoConsultaEmLoteDTO(
+                itensNaOrdem(ids, porId),
+                itensNaOrdem(numerosDeSerie, porNumeroDeSerie));
+    }
+
+    // Mesma normalização da busca por número de série avulsa; a ordem e as repetições do pedido são mantidas
+    private static List<String> normalizarChaves(Collection<String> chaves) {
+        if (chaves == null) {
+            return List.of();
+        }
+        return chaves.stream().map(String::trim).collect(Collectors.toList());
+    }
+
+    private static List<ItemConsultaEmLoteDTO> itensNaOrdem(List<String> chaves, Map<String, EquipamentoResumoDTO> encontrados) {
+        return chaves.stream()
+                .map(chave -> ItemConsultaEmLoteDTO.de(chave, encontrados.get(chave)))
                 .collect(Collectors.toList());
     }
 
+    private static double converterPontuacaoCursor(String valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+        try {
+            return Double.parseDouble(valor);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.", ex);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<LogAlteracaoDTO> listarHistorico(String equipamentoId, String cursor, Integer limite)
+            throws RecursoNaoEncontradoException {
+        Objects.requireNonNull(equipamentoId, "ID do equipamento não pode ser nulo.");
+        int tamanhoPagina = limite != null ? normalizarLimite(limite) : limitePadraoHistorico;
+
+        // Cursor: dataHora, bucket e índice da última entrada entregue (o bucket e o índice vão juntos no id)
+        LocalDateTime dataHoraCursor = null;
+        String bucketCursor = null;
+        int indiceCursor = 0;
+        if (StringUtils.hasText(cursor)) {
+            CursorPaginacao cursorDecodificado = CursorPaginacao.decodificar(cursor);
+            String[] posicao = cursorDecodificado.id().split(SEPARADOR_POSICAO_HISTORICO, 2);
+            if (!ORDENACAO_CURSOR_HISTORICO.equals(cursorDecodificado.ordenacao()) || cursorDecodificado.valor() == null
+                    || posicao.length != 2) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+            try {
+                dataHoraCursor = LocalDateTime.parse(cursorDecodificado.valor());
+                indiceCursor = Integer.parseInt(posicao[1]);
+            } catch (DateTimeParseException | NumberFormatException ex) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.", ex);
+            }
+            bucketCursor = posicao[0];
+        }
+
+        // Paginação por entrada, não por bucket: buckets abertos por registros concorrentes podem se sobrepor no tempo.
+        // Uma entrada a mais só para saber se há próxima página.
+        List<EntradaHistorico> entradas = historicoRepository.listarEntradasAnteriores(
+                equipamentoId, dataHoraCursor, bucketCursor, indiceCursor, tamanhoPagina + 1);
+
+        if (entradas.isEmpty() && bucketCursor == null && !equipamentoRepository.existsById(equipamentoId)) {
+            throw new RecursoNaoEncontradoException("Equipamento com ID " + equipamentoId + " não encontrado.");
+        }
+
+        boolean temMais = entradas.size() > tamanhoPagina;
+        List<EntradaHistorico> pagina = temMais ? entradas.subList(0, tamanhoPagina) : entradas;
+        String proximoCursor = null;
+        if (temMais) {
+            EntradaHistorico ultima = pagina.get(pagina.size() - 1);
+            proximoCursor = new CursorPaginacao(ORDENACAO_CURSOR_HISTORICO,
+                    ultima.bucketId() + SEPARADOR_POSICAO_HISTORICO + ultima.indice(),
+                    ultima.log().getDataHora().toString()).codificar();
+        }
+        List<LogAlteracaoDTO> itens = pagina.stream()
+                .map(entrada -> converterParaLogDTO(entrada.log()))
+                .collect(Collectors.toList());
+        return new PaginaCursorDTO<>(itens, proximoCursor, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AlteracoesEquipamentosDTO listarAlteracoes(String since, Integer limite) {
+        int tamanhoPagina = normalizarLimite(limite);
+        LocalDateTime agora = LocalDateTime.now();
+
+        LocalDateTime inicio = null;
+        if (StringUtils.hasText(since)) {
+            try {
+                inicio = LocalDateTime.parse(since.trim());
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Parâmetro 'since' inválido: use o valor de 'sincronizadoAte' da resposta anterior.", ex);
+            }
+            // As marcas de remoção expiram: a partir daí não há como saber o que foi apagado desde 'since'
+            if (inicio.isBefore(agora.minus(EquipamentoRemovido.RETENCAO))) {
+                throw new IllegalArgumentException("Parâmetro 'since' anterior à retenção das remoções ("
+                        + EquipamentoRemovido.RETENCAO.toDays() + " dias): refaça a sincronização completa, sem 'since'.");
+            }
+        }
+
+        // Escritas em andamento ou gravadas com o relógio de outra réplica levemente atrasado podem ficar visíveis com
+        // data anterior à leitura. Só é entregue o que é anterior ao horizonte; o restante fica para a próxima chamada.
+        LocalDateTime horizonte = agora.minus(margemAlteracoes);
+        if (inicio != null && !inicio.isBefore(horizonte)) {
+            return new AlteracoesEquipamentosDTO(List.of(), List.of(), inicio, false);
+        }
+
+        // Um item a mais de cada lado: basta para achar o primeiro que não cabe na página
+        List<Equipamento> alterados = equipamentoRepository.buscarAlteradosEntre(inicio, horizonte, tamanhoPagina + 1);
+        List<EquipamentoRemovido> removidos = buscarRemovidosEntre(inicio, horizonte, tamanhoPagina + 1);
+
+        LocalDateTime sincronizadoAte = horizonte;
+        boolean temMais = alterados.size() + removidos.size() > tamanhoPagina;
+        if (temMais) {
+            // A página termina antes da data do primeiro item que não coube; a próxima chamada começa nela
+            LocalDateTime corte = Stream.concat(
+                            alterados.stream().map(Equipamento::getDataUltimaModificacao),
+                            removidos.stream().map(EquipamentoRemovido::getDataRemocao))
+                    .sorted()
+                    .skip(tamanhoPagina)
+                    .findFirst()
+                    .orElseThrow();
+            alterados = alterados.stream().filter(equipamento -> equipamento.getDataUltimaModificacao().isBefore(corte)).toList();
+            removidos = removidos.stream().filter(removido -> removido.getDataRemocao().isBefore(corte)).toList();
+            sincronizadoAte = corte;
+            if (alterados.isEmpty() && removidos.isEmpty()) {
+                // Mais itens com a mesma data do que cabem na página: entrega todos eles (o Mongo guarda milissegundos)
+                sincronizadoAte = corte.plus(1, ChronoUnit.MILLIS);
+                alterados = equipamentoRepository.buscarAlteradosEntre(corte, sincronizadoAte, 0);
+                removidos = buscarRemovidosEntre(inicio != null ? corte : null, sincronizadoAte, 0);
+            }
+        }
+
+        return new AlteracoesEquipamentosDTO(
+                alterados.stream().map(this::converterParaResumoDTO).collect(Collectors.toList()),
+                removidos.stream().map(EquipamentoRemovidoDTO::de).collect(Collectors.toList()),
+                sincronizadoAte,
+                temMais);
+    }
+
+    // Sem 'inicio' o cliente ainda não tem cópia local: não há o que apagar
+    private List<EquipamentoRemovido> buscarRemovidosEntre(LocalDateTime inicio, LocalDateTime fim, int limite) {
+        if (inicio == null) {
+            return List.of();
+        }
+        Pageable pagina = limite > 0 ? PageRequest.of(0, limite, ORDEM_REMOCOES) : Pageable.unpaged();
+        return removidoRepository.buscarRemovidosEntre(inicio, fim, pagina);
+    }
+
+    private int normalizarLimite(Integer limite) {
+        if (limite == null) {
+            return limitePadraoPagina;
+        }
+        if (limite < 1) {
+            throw new IllegalArgumentException("O limite da página deve ser maior que zero.");
+        }
+        return Math.min(limite, limiteMaximoPagina);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarEquipamentos(FormatoExportacao formato, OutputStream saida) {
+        Objects.requireNonNull(formato, "Formato de exportação não pode ser nulo.");
+        Objects.requireNonNull(saida, "Saída da exportação não pode ser nula.");
+        logger.info("Iniciando exportação de equipamentos em {}", formato.getParametro());
+
+        long exportados = 0;
+        // Fechar o Stream encerra o cursor no servidor, inclusive quando o cliente desconecta no meio da escrita
+        try (Stream<Equipamento> equipamentos = equipamentoRepository.streamEquipamentos();
+             Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER_EXPORTACAO)) {
+            Iterator<Equipamento> iterator = equipamentos.iterator();
+            exportados = formato == FormatoExportacao.CSV
+                    ? escreverCsv(iterator, writer)
+                    : escreverNdjson(iterator, writer);
+            writer.flush();
+            logger.info("Exportação de equipamentos concluída: {} documentos", exportados);
+        } catch (IOException ex) {
+            // Normalmente o cliente encerrou a conexão; o cursor já foi fechado pelo try-with-resources
+            logger.warn("Exportação de equipamentos interrompida: {}", ex.getMessage());
+        }
+    }
+
+    private long escreverNdjson(Iterator<Equipamento> equipamentos, Writer writer) throws IOException {
+        // Sem histórico: buscá-lo exigiria uma consulta extra por documento exportado
+        ObjectWriter objectWriter = objectMapper.writerFor(EquipamentoResumoDTO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        long total = 0;
+        try (SequenceWriter sequenceWriter = objectWriter.writeValues(writer)) {
+            while (equipamentos.hasNext()) {
+                sequenceWriter.write(converterParaResumoDTO(equipamentos.next()));
+                if (++total % DOCUMENTOS_POR_FLUSH == 0) {
+                    sequenceWriter.flush();
+                }
+            }
+        }
+        if (total > 0) {
+            writer.write('\n');
+        }
+        return total;
+    }
+
+    private long escreverCsv(Iterator<Equipamento> equipamentos, Writer writer) throws IOException {
+        writer.write("id,nome,numeroDeSerie,descricaoDetalhada,dataInclusaoNoSistema,dataUltimaModificacao,criadoPorUsuario,modificadoPorUsuario\n");
+        long total = 0;
+        while (equipamentos.hasNext()) {
+            Equipamento equipamento = equipamentos.next();
+            writer.write(campoCsv(equipamento.getId()));
+            writer.write(',');
+            writer.write(campoCsv(equipamento.getNome()));
+            writer.write(',');
+            writer.write(campoCsv(equipamento.getNumeroDeSerie()));
+            writer.write(',');
+            writer.write(campoCsv(equipamento.getDescricaoDetalhada()));
+            writer.write(',');
+            writer.write(campoCsv(equipamento.getDataInclusaoNoSistema()));
+            writer.write(',');
+            writer.write(campoCsv(equipamento.getDataUltimaModificacao()));
+            writer.write(',');
+            writer.write(campoCsv(equipamento.getCriadoPorUsuario()));
+            writer.write(',');
+            writer.write(campoCsv(equipamento.getModificadoPorUsuario()));
+            writer.write('\n');
+            if (++total % DOCUMENTOS_POR_FLUSH == 0) {
+                writer.flush();
+            }
+        }
+        return total;
+    }
+
+    // Escapa conforme RFC 4180: aspas duplicadas e campo entre aspas quando há vírgula, aspas ou quebra de linha
+    private static String campoCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
     @Override
     @Transactional
     public EquipamentoRespostaDTO atualizarEquipamento(String id, EquipamentoAtualizacaoDTO dto)
             throws RecursoNaoEncontradoException, RegraDeNegocioException {
         Objects.requireNonNull(id, "ID do equipamento não pode ser nulo.");
         Objects.requireNonNull(dto, "DTO de atualização não pode ser nulo.");
+        // Sem a versão base a última escrita venceria em silêncio, sobrescrevendo alterações que o cliente não viu
+        if (dto.versao() == null) {
+            throw new IllegalArgumentException("A versão sobre a qual a edição foi feita é obrigatória.");
+        }
         logger.info("Tentativa de atualizar equipamento ID: {}", id);
 
-        Equipamento equipamento = equipamentoRepository.findById(id)
-                .orElseThrow(() -> new RecursoNaoEncontradoException("Equipamento com ID " + id + " não encontrado."));
-
         String usuarioLogado = getUsuarioAutenticadoEmail();
-        boolean modificado = false;
+        Map<String, Object> campos = new LinkedHashMap<>();
 
         // Atualizar nome
         if (dto.nome() != null) { // Se o campo nome foi fornecido no DTO
             if (!StringUtils.hasText(dto.nome().trim())) { // Validação adicional se o DTO permitir strings vazias mas a regra de negócio não
                 throw new IllegalArgumentException("O nome, se fornecido para atualização, não pode ser vazio.");
             }
-            if (!Objects.equals(equipamento.getNome(), dto.nome().trim())) {
-                equipamento.alterarNome(dto.nome(), usuarioLogado); // A entidade faz trim()
-                modificado = true;
-            }
+            campos.put("nome", dto.nome().trim());
         }
 
         // Atualizar descrição detalhada
-        // Permite que a descrição seja definida como nula ou vazia se explicitamente passada no DTO
+        // Permite que a descrição seja definida como vazia se explicitamente passada no DTO
         if (dto.descricaoDetalhada() != null) {
-            if (!Objects.equals(equipamento.getDescricaoDetalhada(), dto.descricaoDetalhada().trim())) {
-                equipamento.alterarDescricaoDetalhada(dto.descricaoDetalhada(), usuarioLogado); // A entidade faz trim() se não nulo
-                modificado = true;
+            campos.put("descricaoDetalhada", dto.descricaoDetalhada().trim());
+        }
+
+        // Um único findAndModify grava só os campos enviados; nada é gravado se todos já tinham esses valores.
+        // Se outra escrita concorrente impedir a gravação sem conflitar com esta edição, tenta novamente.
+        LocalDateTime agora = LocalDateTime.now();
+        for (int tentativa = 1; ; tentativa++) {
+            Optional<Equipamento> atualizado = campos.isEmpty()
+                    ? Optional.empty()
+                    : equipamentoRepository.atualizarSeDiferente(id, dto.versao(), campos, agora, usuarioLogado);
+            if (atualizado.isPresent()) {
+                return concluirAtualizacao(atualizado.get(), usuarioLogado);
+            }
+
+            // Nada foi gravado: equipamento inexistente, nenhuma diferença, conflito de versão ou corrida com outra escrita
+            Equipamento atual = equipamentoRepository.findById(id)
+                    .orElseThrow(() -> new RecursoNaoEncontradoException("Equipamento com ID " + id + " não encontrado."));
+            List<String> camposDiferentes = camposDiferentes(atual, campos);
+            if (camposDiferentes.isEmpty()) {
+                logger.info("Nenhuma alteração aplicável detectada para o equipamento ID: {}. Nenhuma atualização realizada.", id);
+                return converterComHistorico(atual); // Retorna o estado atual se nada mudou
+            }
+            List<String> conflitos = camposDiferentes.stream()
+                    .filter(campo -> atual.getVersaoDoCampo(campo) > dto.versao())
+                    .collect(Collectors.toList());
+            if (!conflitos.isEmpty()) {
+                logger.warn("Conflito de versão ao atualizar equipamento ID: {} (versão base {}, atual {}, campos {})",
+                        id, dto.versao(), atual.getVersao(), conflitos);
+                throw new ConflitoDeVersaoException("O equipamento foi alterado por outro usuário após a versão " + dto.versao()
+                        + " (campos: " + String.join(", ", conflitos) + ").", converterComHistorico(atual));
             }
+            if (tentativa >= maxTentativasAtualizacao) {
+                logger.warn("Atualização do equipamento ID: {} desistiu após {} tentativas concorrentes", id, tentativa);
+                throw new ConflitoDeVersaoException("O equipamento está sendo alterado concorrentemente. Tente novamente.",
+                        converterComHistorico(atual));
+            }
+            logger.debug("Escrita concorrente no equipamento ID: {} sem conflito; nova tentativa ({})", id, tentativa + 1);
         }
-        if (modificado) {
-            // @LastModifiedBy e @LastModifiedDate serão atualizados automaticamente pela auditoria.
-            Equipamento equipamentoAtualizado = equipamentoRepository.save(equipamento);
-            logger.info("Equipamento ID: {} atualizado por {}", id, usuarioLogado);
-            return converterParaRespostaDTO(equipamentoAtualizado);
-        } else {
-            logger.info("Nenhuma alteração aplicável detectada para o equipamento ID: {}. Nenhuma atualização realizada.", id);
-            return converterParaRespostaDTO(equipamento); // Retorna o estado atual se nada mudou
+    }
+
+    // O documento devolvido já é o gravado, com as entradas desta alteração em historicoPendente (gravadas na mesma
+    // escrita). Copiá-las para historico_equipamentos e retirá-las do documento são escritas separadas: se a
+    // aplicação cair entre elas, as entradas continuam no documento e são copiadas na próxima alteração do
+    // equipamento (as já copiadas podem se repetir, como na MigracaoLogsEmbutidos), mas nenhuma se perde.
+    private EquipamentoRespostaDTO concluirAtualizacao(Equipamento atualizado, String usuarioLogado) {
+        List<LogAlteracao> pendentes = atualizado.getHistoricoPendente();
+        if (!pendentes.isEmpty()) {
+            historicoRepository.registrar(atualizado.getId(), pendentes);
+            equipamentoRepository.descartarHistoricoPendente(atualizado.getId(), pendentes);
         }
+        logger.info("Equipamento ID: {} atualizado por {} (versão {})", atualizado.getId(), usuarioLogado, atualizado.getVersao());
+        eventPublisher.publishEvent(EquipamentoAlteradoEvent.atualizado(converterParaResumoDTO(atualizado)));
+        return converterComHistorico(atualizado);
+    }
+
+    private static List<String> camposDiferentes(Equipamento equipamento, Map<String, Object> campos) {
+        return campos.entrySet().stream()
+                .filter(campo -> !Objects.equals(valorAtual(equipamento, campo.getKey()), campo.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static Object valorAtual(Equipamento equipamento, String campo) {
+        return switch (campo) {
+            case "nome" -> equipamento.getNome();
+            case "descricaoDetalhada" -> equipamento.getDescricaoDetalhada();
+            default -> throw new IllegalArgumentException("Campo não editável: " + campo);
+        };
     }
 
     @Override
@@ -175,14 +862,15 @@ public class EquipamentoAppServiceImpl implements EquipamentoAppService {
         String usuarioLogado = getUsuarioAutenticadoEmail();
         logger.info("Tentativa de deletar equipamento ID: {} por usuário {}", id, usuarioLogado);
 
-        if (!equipamentoRepository.existsById(id)) {
-            throw new RecursoNaoEncontradoException("Equipamento com ID " + id + " não encontrado para deleção.");
-        }
-
-        // Log ANTES da deleção (este log não ficará no documento do equipamento se for hard delete)
-        logger.info("Equipamento ID: {} está sendo deletado por {}", id, usuarioLogado);
+        // Remove e devolve o documento em uma única operação: o número de série é necessário para atualizar o índice
+        Equipamento removido = equipamentoRepository.removerPorId(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Equipamento com ID " + id + " não encontrado para deleção."));
 
-        equipamentoRepository.deleteById(id);
+        // Sem a marca, os clientes que sincronizam por /changes nunca saberiam da remoção
+        removidoRepository.save(new EquipamentoRemovido(id, removido.getNumeroDeSerie(), LocalDateTime.now(), usuarioLogado));
+        // O histórico do equipamento é removido junto no hard delete
+        historicoRepository.deleteByEquipamentoId(id);
+        eventPublisher.publishEvent(EquipamentoAlteradoEvent.removido(id, removido.getNumeroDeSerie()));
         logger.info("Equipamento ID: {} deletado com sucesso por {}", id, usuarioLogado);
     }
 }
\ No newline at end of file
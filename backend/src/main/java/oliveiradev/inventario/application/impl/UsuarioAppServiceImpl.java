@@ -2,6 +2,7 @@ package oliveiradev.inventario.application.impl;
 
 import oliveiradev.inventario.application.dto.usuario.UsuarioCriacaoDTO;
 import oliveiradev.inventario.application.dto.usuario.UsuarioRespostaDTO;
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
 import oliveiradev.inventario.application.exception.EmailJaCadastradoException;
 import oliveiradev.inventario.application.exception.RecursoNaoEncontradoException;
 import oliveiradev.inventario.application.service.UsuarioAppService;
@@ -9,6 +10,7 @@ import oliveiradev.inventario.domain.model.enums.NivelUsuario;
 import oliveiradev.inventario.domain.model.usuarios.Usuario;
 import oliveiradev.inventario.domain.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,11 +25,14 @@ import java.util.stream.Collectors;
 public class UsuarioAppServiceImpl implements UsuarioAppService {
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UsuarioAppServiceImpl(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder) {
+    public UsuarioAppServiceImpl(UsuarioRepository usuarioRepository, PasswordEncoder passwordEncoder,
+                                 ApplicationEventPublisher eventPublisher) {
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -109,6 +114,9 @@ public class UsuarioAppServiceImpl implements UsuarioAppService {
         usuario.definirNiveis(novosNiveis);
 
         Usuario usuarioAtualizado = usuarioRepository.save(usuario);
+        // Invalida nesta réplica a versão dos níveis em cache, para os tokens antigos deixarem de valer logo
+        eventPublisher.publishEvent(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.ATUALIZADO,
+                usuarioAtualizado.getId(), usuarioAtualizado.getEmail()));
         return converterParaRespostaDTO(usuarioAtualizado);
     }
 
@@ -1,13 +1,25 @@
 package oliveiradev.inventario.application.service;
 
+import oliveiradev.inventario.application.dto.comum.PaginaCursorDTO;
+import oliveiradev.inventario.application.dto.equipamento.AlteracoesEquipamentosDTO;
+import oliveiradev.inventario.application.dto.equipamento.CampoEquipamento;
+import oliveiradev.inventario.application.dto.equipamento.ConsultaEmLoteDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoAtualizacaoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoCriacaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoParcialDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.FormatoExportacao;
+import oliveiradev.inventario.application.dto.equipamento.LogAlteracaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.ResultadoConsultaEmLoteDTO;
+import oliveiradev.inventario.application.dto.equipamento.SugestaoEquipamentoDTO;
 import oliveiradev.inventario.application.exception.RecursoNaoEncontradoException;
 import oliveiradev.inventario.application.exception.RegraDeNegocioException;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface EquipamentoAppService {
     EquipamentoRespostaDTO criarEquipamento(EquipamentoCriacaoDTO equipamentoCriacaoDTO) throws RegraDeNegocioException;
@@ -16,7 +28,41 @@ public interface EquipamentoAppService {
 
     Optional<EquipamentoRespostaDTO> buscarEquipamentoPorNumeroDeSerie(String numeroDeSerie);
 
-    List<EquipamentoRespostaDTO> listarTodosEquipamentos();
+    // Resumo sem histórico, respondido pelo índice em memória quando habilitado (leitura de código de barras)
+    Optional<EquipamentoResumoDTO> buscarResumoPorNumeroDeSerie(String numeroDeSerie);
+
+    PaginaCursorDTO<EquipamentoResumoDTO> listarEquipamentos(String cursor, Integer limite, String ordenacao);
+
+    PaginaCursorDTO<EquipamentoRespostaDTO> listarEquipamentosCompletos(String cursor, Integer limite, String ordenacao);
+
+    // ?fields=: apenas os campos pedidos, projetados no Mongo (sem passar pelos caches, que guardam o equipamento inteiro)
+    PaginaCursorDTO<EquipamentoParcialDTO> listarEquipamentosParciais(String cursor, Integer limite, String ordenacao,
+                                                                     Set<CampoEquipamento> campos);
+
+    Optional<EquipamentoParcialDTO> buscarEquipamentoParcialPorId(String id, Set<CampoEquipamento> campos);
+
+    Optional<EquipamentoParcialDTO> buscarEquipamentoParcialPorNumeroDeSerie(String numeroDeSerie, Set<CampoEquipamento> campos);
+
+    // Muda a cada alteração na coleção; vazia quando o ETag da listagem está desabilitado
+    Optional<String> versaoDaListagem();
+
+    // Sincronização incremental: criados/atualizados e removidos desde 'since' (vazio: carga completa, sem removidos)
+    AlteracoesEquipamentosDTO listarAlteracoes(String since, Integer limite);
+
+    // Modo "texto" (padrão): índice de texto em nome e descrição, por relevância. Modo "regex": trecho do nome.
+    PaginaCursorDTO<EquipamentoResumoDTO> buscarEquipamentos(String termos, String modo, String cursor, Integer limite);
+
+    // Resolve muitas chaves de uma vez (uma consulta $in por tipo de chave); resultados na ordem do pedido
+    ResultadoConsultaEmLoteDTO consultarEmLote(ConsultaEmLoteDTO consulta);
+
+    // Sugestões por prefixo do nome, servidas da memória (sem consulta ao Mongo)
+    List<SugestaoEquipamentoDTO> sugerirEquipamentos(String prefixo, Integer limite);
+
+    // Histórico do mais recente para o mais antigo, 'limite' entradas por página. A visão completa embute só as últimas.
+    PaginaCursorDTO<LogAlteracaoDTO> listarHistorico(String equipamentoId, String cursor, Integer limite)
+            throws RecursoNaoEncontradoException;
+
+    void exportarEquipamentos(FormatoExportacao formato, OutputStream saida);
 
     EquipamentoRespostaDTO atualizarEquipamento(String id, EquipamentoAtualizacaoDTO equipamentoAtualizacaoDTO)
             throws RecursoNaoEncontradoException, RegraDeNegocioException;
@@ -5,26 +5,41 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
-@Document(collection = "equipamentos")
+@Document(collection = "equipamentos", language = "portuguese") // Idioma padrão do índice de texto (stemming, stop words)
+@CompoundIndexes({ // Suportam a paginação por cursor (ordenação + desempate por _id)
+        @CompoundIndex(name = "nome_id", def = "{'nome': 1, '_id': 1}"),
+        @CompoundIndex(name = "dataInclusao_id", def = "{'dataInclusaoNoSistema': 1, '_id': 1}"),
+        @CompoundIndex(name = "dataModificacao_id", def = "{'dataUltimaModificacao': 1, '_id': 1}")
+})
 public class Equipamento {
     @Id
     private String id;
 
     @Indexed
+    @TextIndexed(weight = 3) // Termo no nome pesa mais que na descrição
     private String nome;
 
     @Indexed(unique = true) // Número de série DEVE ser único
     private String numeroDeSerie;
 
+    @TextIndexed
     private String descricaoDetalhada;
 
     // Campos de Auditoria Básica
@@ -40,8 +55,23 @@ public class Equipamento {
     @LastModifiedBy
     private String modificadoPorUsuario; // Email do usuário que modificou pela última vez
 
+    // Controle de concorrência otimista: incrementada a cada alteração gravada
+    @Version
+    private Long versao;
+
+    // Versão em que cada campo editável foi alterado pela última vez; permite aceitar edições concorrentes
+    // em campos diferentes e recusar apenas as que sobrescreveriam uma alteração que o cliente não viu
+    private Map<String, Long> versoesCampos;
+
+    // Entradas geradas nesta operação e ainda não gravadas. O histórico persistido fica em
+    // historico_equipamentos (ver HistoricoEquipamento), fora do documento do equipamento.
+    @Transient
     private List<LogAlteracao> logs;
 
+    // Entradas gravadas no próprio documento, na mesma escrita da alteração que as gerou (ver
+    // EquipamentoRepositoryCustom.atualizarSeDiferente), e ainda não copiadas para historico_equipamentos
+    private List<LogAlteracao> historicoPendente;
+
     public Equipamento() {
         this.logs = new ArrayList<>();
     }
@@ -107,8 +137,48 @@ public class Equipamento {
         return modificadoPorUsuario;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    // Documentos gravados antes do controle por campo não têm o mapa: tratados como versão 0
+    public long getVersaoDoCampo(String campo) {
+        if (this.versoesCampos == null) {
+            return 0L;
+        }
+        return this.versoesCampos.getOrDefault(campo, 0L);
+    }
+
     public List<LogAlteracao> getLogs() {
-        return Collections.unmodifiableList(new ArrayList<>(this.logs != null ? this.logs : Collections.emptyList()));
+        return this.logs != null ? Collections.unmodifiableList(this.logs) : Collections.emptyList();
+    }
+
+    public List<LogAlteracao> getHistoricoPendente() {
+        return this.historicoPendente != null ? Collections.unmodifiableList(this.historicoPendente) : Collections.emptyList();
+    }
+
+    // Devolve as entradas pendentes e as descarta, para que não sejam gravadas duas vezes no histórico
+    public List<LogAlteracao> retirarLogsPendentes() {
+        if (this.logs == null || this.logs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<LogAlteracao> pendentes = List.copyOf(this.logs);
+        this.logs.clear();
+        return pendentes;
+    }
+
+    // Usado quando a alteração é gravada por update parcial, sem passar pela auditoria do save().
+    // Espelha o que o banco fez: nova versão e versão por campo dos campos efetivamente alterados.
+    public void registrarModificacao(String usuarioQueAlterou, LocalDateTime dataHora, Collection<String> camposAlterados) {
+        this.modificadoPorUsuario = Objects.requireNonNull(usuarioQueAlterou, "Usuário que alterou não pode ser nulo.");
+        this.dataUltimaModificacao = Objects.requireNonNull(dataHora, "Data/Hora da modificação não pode ser nula.");
+        this.versao = (this.versao != null ? this.versao : 0L) + 1;
+        if (this.versoesCampos == null) {
+            this.versoesCampos = new HashMap<>();
+        }
+        for (String campo : camposAlterados) {
+            this.versoesCampos.put(campo, this.versao);
+        }
     }
 
     public void alterarNome(String novoNome, String usuarioQueAlterou) {
@@ -191,7 +261,8 @@ public class Equipamento {
                 ", dataUltimaModificacao=" + dataUltimaModificacao +
                 ", criadoPorUsuario='" + criadoPorUsuario + '\'' +
                 ", modificadoPorUsuario='" + modificadoPorUsuario + '\'' +
-                ", logs=" + (logs != null ? logs.size() + " entradas" : "nenhuma entrada") +
+                ", versao=" + versao +
+                ", logsPendentes=" + (logs != null ? logs.size() + " entradas" : "nenhuma entrada") +
                 '}';
     }
 }
\ No newline at end of file
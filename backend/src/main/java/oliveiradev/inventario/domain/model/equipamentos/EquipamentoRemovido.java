@@ -0,0 +1,75 @@
+package oliveiradev.inventario.domain.model.equipamentos;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Marca (tombstone) de um equipamento removido: o hard delete não deixa rastro na coleção de equipamentos, e os
+// clientes que sincronizam por GET /api/equipamentos/changes precisam saber o que apagar da cópia local.
+@Document(collection = "equipamentos_removidos")
+public class EquipamentoRemovido {
+    // Depois disso o índice TTL apaga a marca; deve acompanhar o expireAfter de dataRemocao
+    public static final Duration RETENCAO = Duration.ofDays(90);
+
+    @Id
+    private String id; // Mesmo id do equipamento removido
+
+    private String numeroDeSerie;
+
+    @Indexed(name = "dataRemocao_ttl", expireAfter = "90d") // Também atende a consulta por intervalo da sincronização
+    private LocalDateTime dataRemocao;
+
+    private String removidoPorUsuario;
+
+    public EquipamentoRemovido() {
+    }
+
+    public EquipamentoRemovido(String id, String numeroDeSerie, LocalDateTime dataRemocao, String removidoPorUsuario) {
+        this.id = Objects.requireNonNull(id, "ID do equipamento removido não pode ser nulo.");
+        this.numeroDeSerie = numeroDeSerie;
+        this.dataRemocao = Objects.requireNonNull(dataRemocao, "Data da remoção não pode ser nula.");
+        this.removidoPorUsuario = removidoPorUsuario;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getNumeroDeSerie() {
+        return numeroDeSerie;
+    }
+
+    public LocalDateTime getDataRemocao() {
+        return dataRemocao;
+    }
+
+    public String getRemovidoPorUsuario() {
+        return removidoPorUsuario;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EquipamentoRemovido that = (EquipamentoRemovido) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "EquipamentoRemovido{" +
+                "id='" + id + '\'' +
+                ", numeroDeSerie='" + numeroDeSerie + '\'' +
+                ", dataRemocao=" + dataRemocao +
+                '}';
+    }
+}
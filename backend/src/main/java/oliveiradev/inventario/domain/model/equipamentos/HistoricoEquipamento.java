@@ -0,0 +1,88 @@
+package oliveiradev.inventario.domain.model.equipamentos;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+// Bucket do histórico de alterações: agrupa até TAMANHO_MAXIMO entradas de um equipamento em um único documento.
+// Novas entradas são anexadas com $push no bucket aberto; quando ele enche, um novo é criado (upsert).
+@Document(collection = "historico_equipamentos")
+@CompoundIndexes({
+        @CompoundIndex(name = "equipamento_inicio", def = "{'equipamentoId': 1, 'inicio': -1, '_id': -1}"), // Leitura paginada
+        @CompoundIndex(name = "equipamento_quantidade", def = "{'equipamentoId': 1, 'quantidade': 1}") // Localiza o bucket aberto
+})
+public class HistoricoEquipamento {
+    public static final int TAMANHO_MAXIMO = 100;
+
+    @Id
+    private String id;
+
+    private String equipamentoId;
+
+    private LocalDateTime inicio; // dataHora da entrada mais antiga do bucket
+
+    private LocalDateTime fim; // dataHora da entrada mais recente do bucket
+
+    private int quantidade;
+
+    private List<LogAlteracao> logs;
+
+    public HistoricoEquipamento() {
+        this.logs = new ArrayList<>();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getEquipamentoId() {
+        return equipamentoId;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public LocalDateTime getFim() {
+        return fim;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public List<LogAlteracao> getLogs() {
+        return this.logs != null ? Collections.unmodifiableList(this.logs) : Collections.emptyList();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        HistoricoEquipamento that = (HistoricoEquipamento) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return "HistoricoEquipamento{" +
+                "id='" + id + '\'' +
+                ", equipamentoId='" + equipamentoId + '\'' +
+                ", inicio=" + inicio +
+                ", fim=" + fim +
+                ", quantidade=" + quantidade +
+                '}';
+    }
+}
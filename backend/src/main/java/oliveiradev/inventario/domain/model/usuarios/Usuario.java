@@ -27,6 +27,9 @@ public class Usuario {
 
     private Set<NivelUsuario> niveis;
 
+    // Incrementada a cada alteração dos níveis; os tokens JWT levam a versão com que foram emitidos
+    private long versaoNiveis;
+
     @CreatedDate
     private LocalDateTime dataCriacao;
 
@@ -76,6 +79,10 @@ public class Usuario {
         return Collections.unmodifiableSet(new HashSet<>(this.niveis));
     }
 
+    public long getVersaoNiveis() {
+        return versaoNiveis;
+    }
+
     public LocalDateTime getDataCriacao() {
         return dataCriacao;
     }
@@ -116,16 +123,20 @@ public class Usuario {
             throw new IllegalStateException("Usuário MASTER não pode ter outros níveis adicionados.");
         }
         this.niveis.add(nivel);
+        this.versaoNiveis++;
     }
 
     public void removerNivel(NivelUsuario nivel) {
         Objects.requireNonNull(nivel, "Nível a ser removido não pode ser nulo.");
-        this.niveis.remove(nivel);
+        if (this.niveis.remove(nivel)) {
+            this.versaoNiveis++;
+        }
     }
 
     public void definirNiveis(Set<NivelUsuario> novosNiveis) {
         Objects.requireNonNull(novosNiveis, "O conjunto de níveis não pode ser nulo.");
         this.niveis.clear();
+        this.versaoNiveis++;
         for (NivelUsuario nivel : novosNiveis) {
             adicionarNivel(nivel); // Reutiliza a lógica de adicionarNivel com suas invariantes
         }
@@ -162,6 +173,7 @@ public class Usuario {
                 ", nome='" + nome + '\'' +
                 ", email='" + email + '\'' +
                 ", niveis=" + niveis +
+                ", versaoNiveis=" + versaoNiveis +
                 ", dataCriacao=" + dataCriacao +
                 ", dataModificacao=" + dataModificacao +
                 '}';
@@ -0,0 +1,8 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+
+// Entrada do histórico com a sua posição (bucket + índice no array logs), que desempata entradas de mesma dataHora
+// na paginação: as entradas só são anexadas aos buckets, então a posição de cada uma nunca muda
+public record EntradaHistorico(LogAlteracao log, String bucketId, int indice) {
+}
@@ -0,0 +1,7 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+
+// Resultado da busca textual: o equipamento e a relevância calculada pelo Mongo ($meta: "textScore")
+public record EquipamentoPontuado(Equipamento equipamento, double pontuacao) {
+}
@@ -0,0 +1,18 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.EquipamentoRemovido;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EquipamentoRemovidoRepository extends MongoRepository<EquipamentoRemovido, String> {
+    // Remoções com dataRemocao em [inicio, fim), pelo índice de dataRemocao; ordem e limite vêm do Pageable
+    @Query("{ 'dataRemocao': { '$gte': ?0, '$lt': ?1 } }")
+    List<EquipamentoRemovido> buscarRemovidosEntre(LocalDateTime inicio, LocalDateTime fim, Pageable pagina);
+}
@@ -10,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EquipamentoRepository extends MongoRepository<Equipamento, String> {
+public interface EquipamentoRepository extends MongoRepository<Equipamento, String>, EquipamentoRepositoryCustom {
     Optional<Equipamento> findByNumeroDeSerie(String numeroDeSerie);
 
     List<Equipamento> findByNomeContainingIgnoreCase(String nome);
@@ -0,0 +1,59 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Consultas que o Spring Data não deriva pelo nome do método; implementadas em EquipamentoRepositoryCustomImpl
+public interface EquipamentoRepositoryCustom {
+    // Paginação por keyset: retorna até 'limite' equipamentos posicionados após o cursor (valor + id)
+    List<Equipamento> buscarPaginaAposCursor(OrdenacaoEquipamento ordenacao, Object valorCursor, String idCursor, int limite);
+
+    // Mesma página, projetada: o Mongo devolve só 'campos' (e o id), lidos como documento, sem mapear para Equipamento.
+    // Cada item vem com os nomes das propriedades (id em vez de _id) e datas como LocalDateTime.
+    List<Map<String, Object>> buscarPaginaAposCursorProjetada(OrdenacaoEquipamento ordenacao, Object valorCursor, String idCursor,
+                                                              int limite, Collection<String> campos);
+
+    // Um equipamento pela propriedade (id ou número de série), com a mesma projeção
+    Optional<Map<String, Object>> buscarProjetadoPor(String propriedade, Object valor, Collection<String> campos);
+
+    // Busca no índice de texto (nome e descrição), da maior para a menor relevância, com desempate por _id.
+    // Paginação por keyset sobre (pontuação, id): a página seguinte começa após o último item da anterior.
+    List<EquipamentoPontuado> buscarPorTexto(String termos, Double pontuacaoCursor, String idCursor, int limite);
+
+    // Trecho do nome sem diferenciar maiúsculas (regex não ancorada: não usa índice), em ordem de _id
+    List<Equipamento> buscarPorTrechoDoNome(String trecho, String idCursor, int limite);
+
+    // Uma única consulta $in por _id (sem ordem definida); ids inexistentes são simplesmente omitidos
+    List<Equipamento> buscarPorIds(Collection<String> ids);
+
+    // Uma única consulta $in pelo índice único de número de série (sem ordem definida)
+    List<Equipamento> buscarPorNumerosDeSerie(Collection<String> numerosDeSerie);
+
+    // Alterados com dataUltimaModificacao em [inicio, fim), em ordem (dataUltimaModificacao, _id) pelo índice
+    // dataModificacao_id. 'inicio' nulo: desde o começo. 'limite' 0: sem limite.
+    List<Equipamento> buscarAlteradosEntre(LocalDateTime inicio, LocalDateTime fim, int limite);
+
+    // findAndModify único: aplica $set nos campos (e na auditoria de modificação) somente se algum deles difere do valor
+    // gravado, incrementando a versão. Com 'versaoBase', também exige que nenhum dos campos tenha sido alterado para
+    // outro valor depois dessa versão. Na mesma escrita, acrescenta a historicoPendente uma entrada por campo alterado,
+    // descrita com o valor anterior. Devolve o documento JÁ ALTERADO; vazio se nada foi gravado.
+    Optional<Equipamento> atualizarSeDiferente(String id, Long versaoBase, Map<String, Object> campos,
+                                               LocalDateTime dataModificacao, String usuario);
+
+    // Retira de historicoPendente só as entradas informadas (já copiadas para o histórico); as acrescentadas por
+    // uma alteração concorrente depois da leitura continuam no documento
+    void descartarHistoricoPendente(String id, Collection<LogAlteracao> entradas);
+
+    // findAndRemove: remove e devolve o documento removido (vazio se não existia), em uma única ida ao banco
+    Optional<Equipamento> removerPorId(String id);
+
+    // Percorre a coleção inteira por um cursor do servidor, em ordem de _id. O chamador DEVE fechar o Stream.
+    Stream<Equipamento> streamEquipamentos();
+}
@@ -0,0 +1,302 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// O Spring Data localiza esta classe pelo sufixo "Impl" e a combina com EquipamentoRepository
+public class EquipamentoRepositoryCustomImpl implements EquipamentoRepositoryCustom {
+    private static final int TAMANHO_LOTE_CURSOR = 500;
+    // Documentos anteriores à coleção historico_equipamentos ainda podem carregar o array embutido
+    private static final String CAMPO_LOGS_LEGADO = "logs";
+    private static final String CAMPO_HISTORICO_PENDENTE = "historicoPendente";
+    private static final String CAMPO_VERSAO = "versao";
+    private static final String CAMPO_VERSOES = "versoesCampos";
+    private static final String CAMPO_PONTUACAO = "pontuacaoBusca";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public EquipamentoRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Equipamento> buscarPaginaAposCursor(OrdenacaoEquipamento ordenacao, Object valorCursor, String idCursor, int limite) {
+        Query query = consultaPaginaAposCursor(ordenacao, valorCursor, idCursor, limite);
+        query.fields().exclude(CAMPO_LOGS_LEGADO);
+        return mongoTemplate.find(query, Equipamento.class);
+    }
+
+    @Override
+    public List<Map<String, Object>> buscarPaginaAposCursorProjetada(OrdenacaoEquipamento ordenacao, Object valorCursor,
+                                                                     String idCursor, int limite, Collection<String> campos) {
+        Query query = consultaPaginaAposCursor(ordenacao, valorCursor, idCursor, limite);
+        campos.forEach(campo -> query.fields().include(campo));
+        // Equipamento só para mapear os nomes da consulta (id -> _id); o resultado fica como Document
+        return mongoTemplate.query(Equipamento.class).as(Document.class).matching(query).all().stream()
+                .map(EquipamentoRepositoryCustomImpl::converterProjecao)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Map<String, Object>> buscarProjetadoPor(String propriedade, Object valor, Collection<String> campos) {
+        Query query = new Query(Criteria.where(propriedade).is(valor));
+        campos.forEach(campo -> query.fields().include(campo));
+        return mongoTemplate.query(Equipamento.class).as(Document.class).matching(query).first()
+                .map(EquipamentoRepositoryCustomImpl::converterProjecao);
+    }
+
+    // Mesmas conversões do mapeamento da entidade: _id como texto em "id" e datas como LocalDateTime
+    private static Map<String, Object> converterProjecao(Document documento) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        documento.forEach((chave, valor) -> {
+            if ("_id".equals(chave)) {
+                campos.put("id", valor != null ? valor.toString() : null);
+            } else if (valor instanceof Date data) {
+                campos.put(chave, LocalDateTime.ofInstant(data.toInstant(), ZoneId.systemDefault()));
+            } else {
+                campos.put(chave, valor);
+            }
+        });
+        return campos;
+    }
+
+    private static Query consultaPaginaAposCursor(OrdenacaoEquipamento ordenacao, Object valorCursor, String idCursor, int limite) {
+        String campo = ordenacao.getPropriedade();
+        Query query = new Query();
+
+        if (idCursor != null) {
+            if (ordenacao == OrdenacaoEquipamento.ID) {
+                query.addCriteria(Criteria.where("id").gt(idCursor));
+            } else if (ordenacao.isUnica()) {
+                query.addCriteria(Criteria.where(campo).gt(valorCursor));
+            } else {
+                // (campo > valor) OR (campo == valor AND _id > id): mantém a ordem total mesmo com valores repetidos
+                query.addCriteria(new Criteria().orOperator(
+                        Criteria.where(campo).gt(valorCursor),
+                        new Criteria().andOperator(
+                                Criteria.where(campo).is(valorCursor),
+                                Criteria.where("id").gt(idCursor))));
+            }
+        }
+
+        Sort sort = ordenacao.isUnica()
+                ? Sort.by(Sort.Direction.ASC, campo)
+                : Sort.by(Sort.Direction.ASC, campo).and(Sort.by(Sort.Direction.ASC, "id"));
+        return query.with(sort).limit(limite);
+    }
+
+    @Override
+    public List<EquipamentoPontuado> buscarPorTexto(String termos, Double pontuacaoCursor, String idCursor, int limite) {
+        List<AggregationOperation> etapas = new ArrayList<>();
+        etapas.add(Aggregation.match(TextCriteria.forDefaultLanguage().matching(termos)));
+        // A relevância precisa virar campo para poder ser filtrada pelo cursor (só $meta não aceita comparação)
+        etapas.add(contexto -> new Document("$addFields", new Document(CAMPO_PONTUACAO, new Document("$meta", "textScore"))));
+        if (idCursor != null) {
+            Object id = ObjectId.isValid(idCursor) ? new ObjectId(idCursor) : idCursor;
+            etapas.add(contexto -> new Document("$match", new Document("$or", List.of(
+                    new Document(CAMPO_PONTUACAO, new Document("$lt", pontuacaoCursor)),
+                    new Document(CAMPO_PONTUACAO, pontuacaoCursor).append("_id", new Document("$gt", id))))));
+        }
+        etapas.add(contexto -> new Document("$sort", new Document(CAMPO_PONTUACAO, -1).append("_id", 1)));
+        etapas.add(Aggregation.limit(limite));
+        etapas.add(Aggregation.project().andExclude(CAMPO_LOGS_LEGADO));
+
+        String colecao = mongoTemplate.getCollectionName(Equipamento.class);
+        return mongoTemplate.aggregate(Aggregation.newAggregation(etapas), colecao, Document.class)
+                .getMappedResults().stream()
+                .map(documento -> new EquipamentoPontuado(
+                        mongoTemplate.getConverter().read(Equipamento.class, documento),
+                        documento.get(CAMPO_PONTUACAO, Number.class).doubleValue()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Equipamento> buscarPorTrechoDoNome(String trecho, String idCursor, int limite) {
+        Query query = new Query(Criteria.where("nome").regex(Pattern.quote(trecho), "i"));
+        if (idCursor != null) {
+            query.addCriteria(Criteria.where("id").gt(idCursor));
+        }
+        query.with(Sort.by(Sort.Direction.ASC, "id")).limit(limite);
+        query.fields().exclude(CAMPO_LOGS_LEGADO);
+        return mongoTemplate.find(query, Equipamento.class);
+    }
+
+    @Override
+    public List<Equipamento> buscarPorIds(Collection<String> ids) {
+        return buscarPorCampoEm("id", ids);
+    }
+
+    @Override
+    public List<Equipamento> buscarPorNumerosDeSerie(Collection<String> numerosDeSerie) {
+        return buscarPorCampoEm("numeroDeSerie", numerosDeSerie);
+    }
+
+    private List<Equipamento> buscarPorCampoEm(String campo, Collection<String> valores) {
+        Query query = new Query(Criteria.where(campo).in(valores));
+        query.fields().exclude(CAMPO_LOGS_LEGADO);
+        return mongoTemplate.find(query, Equipamento.class);
+    }
+
+    @Override
+    public List<Equipamento> buscarAlteradosEntre(LocalDateTime inicio, LocalDateTime fim, int limite) {
+        Criteria intervalo = Criteria.where("dataUltimaModificacao").lt(fim);
+        if (inicio != null) {
+            intervalo = intervalo.gte(inicio);
+        }
+        Query query = new Query(intervalo)
+                .with(Sort.by(Sort.Direction.ASC, "dataUltimaModificacao").and(Sort.by(Sort.Direction.ASC, "id")))
+                .limit(limite);
+        query.fields().exclude(CAMPO_LOGS_LEGADO);
+        return mongoTemplate.find(query, Equipamento.class);
+    }
+
+    @Override
+    public Optional<Equipamento> atualizarSeDiferente(String id, Long versaoBase, Map<String, Object> campos,
+                                                      LocalDateTime dataModificacao, String usuario) {
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum campo informado para atualização.");
+        }
+
+        List<Criteria> condicoes = new ArrayList<>();
+        condicoes.add(new Criteria().orOperator(campos.entrySet().stream()
+                .map(campo -> Criteria.where(campo.getKey()).ne(campo.getValue()))
+                .toArray(Criteria[]::new)));
+        if (versaoBase != null) {
+            // Cada campo: não mudou desde a versão base, ou já está com o valor pedido
+            campos.forEach((campo, valor) -> condicoes.add(new Criteria().orOperator(
+                    Criteria.where(CAMPO_VERSOES + "." + campo).lte(versaoBase),
+                    Criteria.where(CAMPO_VERSOES + "." + campo).exists(false),
+                    Criteria.where(campo).is(valor))));
+        }
+        Query query = new Query(Criteria.where("id").is(id).andOperator(condicoes));
+        query.fields().exclude(CAMPO_LOGS_LEGADO);
+
+        // Update em pipeline: todas as expressões do $set enxergam o documento anterior, então a versão de cada
+        // campo só avança se o valor realmente mudou. Valores do cliente vão como $literal (um nome iniciado
+        // por '$' não pode ser interpretado como referência a campo).
+        AggregationExpression novaVersao = ArithmeticOperators.Add
+                .valueOf(ConditionalOperators.ifNull(CAMPO_VERSAO).then(0L))
+                .add(1L);
+        Date data = Date.from(dataModificacao.atZone(ZoneId.systemDefault()).toInstant());
+        SetOperation set = SetOperation.set(CAMPO_VERSAO).toValue(novaVersao)
+                .and().set("dataUltimaModificacao").toValue(literal(data))
+                .and().set("modificadoPorUsuario").toValue(literal(usuario))
+                .and().set(CAMPO_HISTORICO_PENDENTE).toValue(historicoPendente(campos, data, usuario));
+        for (Map.Entry<String, Object> campo : campos.entrySet()) {
+            String caminhoVersao = CAMPO_VERSOES + "." + campo.getKey();
+            set = set.and().set(campo.getKey()).toValue(literal(campo.getValue()))
+                    .and().set(caminhoVersao).toValue(ConditionalOperators
+                            .when(ComparisonOperators.valueOf(campo.getKey()).notEqualTo(literal(campo.getValue())))
+                            .then(novaVersao)
+                            .otherwiseValueOf(caminhoVersao));
+        }
+
+        // As entradas do histórico já foram descritas com a imagem anterior dentro do próprio $set, então basta o
+        // documento gravado: a alteração e o seu histórico são uma única escrita atômica
+        Equipamento atualizado = mongoTemplate.findAndModify(query, AggregationUpdate.update().set(set),
+                FindAndModifyOptions.options().returnNew(true), Equipamento.class);
+        return Optional.ofNullable(atualizado);
+    }
+
+    // historicoPendente + uma entrada por campo cujo valor gravado difere do novo. Mantém o que já estava pendente:
+    // entradas de uma alteração anterior que não chegaram ao histórico são copiadas junto com as desta.
+    private static AggregationExpression historicoPendente(Map<String, Object> campos, Date dataHora, String usuario) {
+        List<Object> partes = new ArrayList<>();
+        partes.add(new Document("$ifNull", List.of("$" + CAMPO_HISTORICO_PENDENTE, List.of())));
+        campos.forEach((campo, valor) -> partes.add(new Document("$cond", List.of(
+                new Document("$ne", List.of("$" + campo, new Document("$literal", valor))),
+                List.of(new Document("dataHora", dataHora)
+                        .append("usuarioResponsavel", new Document("$literal", usuario))
+                        .append("descricao", descricaoAlteracao(campo, valor))),
+                List.of()))));
+        Document expressao = new Document("$concatArrays", partes);
+        return contexto -> expressao;
+    }
+
+    // Os mesmos textos de Equipamento.alterarNome e alterarDescricaoDetalhada, montados no banco com o valor anterior
+    private static Object descricaoAlteracao(String campo, Object valor) {
+        return switch (campo) {
+            case "nome" -> new Document("$concat", List.of("Nome alterado de '",
+                    new Document("$ifNull", List.of("$nome", "null")), "' para '",
+                    new Document("$literal", valor), "'."));
+            case "descricaoDetalhada" -> {
+                Document semDescricaoAnterior = new Document("$eq",
+                        Arrays.asList(new Document("$ifNull", Arrays.asList("$descricaoDetalhada", null)), null));
+                boolean removendo = valor.toString().isEmpty();
+                yield new Document("$cond", List.of(semDescricaoAnterior,
+                        removendo ? "Descrição detalhada alterada." : "Descrição detalhada definida.",
+                        removendo ? "Descrição detalhada removida." : "Descrição detalhada alterada."));
+            }
+            default -> throw new IllegalArgumentException("Campo sem descrição de histórico: " + campo);
+        };
+    }
+
+    @Override
+    public void descartarHistoricoPendente(String id, Collection<LogAlteracao> entradas) {
+        if (entradas.isEmpty()) {
+            return;
+        }
+        List<Document> porEntrada = entradas.stream()
+                .map(entrada -> new Document("dataHora", Date.from(entrada.getDataHora().atZone(ZoneId.systemDefault()).toInstant()))
+                        .append("usuarioResponsavel", entrada.getUsuarioResponsavel())
+                        .append("descricao", entrada.getDescricao()))
+                .collect(Collectors.toList());
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(id)),
+                new Update().pull(CAMPO_HISTORICO_PENDENTE, new Document("$or", porEntrada)), Equipamento.class);
+    }
+
+    private static AggregationExpression literal(Object valor) {
+        return LiteralOperators.valueOf(valor).asLiteral();
+    }
+
+    @Override
+    public Optional<Equipamento> removerPorId(String id) {
+        Query query = new Query(Criteria.where("id").is(id));
+        query.fields().exclude(CAMPO_LOGS_LEGADO);
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, Equipamento.class));
+    }
+
+    @Override
+    public Stream<Equipamento> streamEquipamentos() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id"));
+        query.fields().exclude(CAMPO_LOGS_LEGADO);
+        // O driver busca lotes sob demanda; apenas um lote fica em memória por vez
+        query.cursorBatchSize(TAMANHO_LOTE_CURSOR);
+        return mongoTemplate.stream(query, Equipamento.class);
+    }
+}
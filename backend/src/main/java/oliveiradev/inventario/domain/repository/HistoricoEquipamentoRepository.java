@@ -0,0 +1,11 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.HistoricoEquipamento;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HistoricoEquipamentoRepository extends MongoRepository<HistoricoEquipamento, String>, HistoricoEquipamentoRepositoryCustom {
+    void deleteByEquipamentoId(String equipamentoId);
+}
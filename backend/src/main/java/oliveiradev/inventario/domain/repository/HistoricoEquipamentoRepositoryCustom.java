@@ -0,0 +1,26 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface HistoricoEquipamentoRepositoryCustom {
+    // Anexa as entradas ao bucket aberto do equipamento com um único upsert ($push/$inc), sem ler o histórico
+    void registrar(String equipamentoId, List<LogAlteracao> entradas);
+
+    // As 'limite' entradas mais recentes do equipamento, em ordem cronológica. A seleção é feita no banco: os buckets
+    // não são trazidos inteiros, então o custo da resposta não cresce com o histórico.
+    List<LogAlteracao> listarEntradasRecentes(String equipamentoId, int limite);
+
+    // O mesmo para vários equipamentos com uma única agregação $in, agrupado por equipamentoId
+    Map<String, List<LogAlteracao>> listarEntradasRecentesPorEquipamentos(Collection<String> equipamentoIds, int limite);
+
+    // Até 'limite' entradas da mais recente para a mais antiga, em ordem (dataHora, bucket, índice) decrescente,
+    // posicionadas antes da entrada do cursor (bucketCursor nulo: desde a mais recente). A ordem é a de cada entrada,
+    // não a dos buckets, que podem se sobrepor no tempo quando abertos por registros concorrentes.
+    List<EntradaHistorico> listarEntradasAnteriores(String equipamentoId, LocalDateTime dataHoraCursor, String bucketCursor,
+                                                    int indiceCursor, int limite);
+}
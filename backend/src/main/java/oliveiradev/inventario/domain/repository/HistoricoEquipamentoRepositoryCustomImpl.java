@@ -0,0 +1,129 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.HistoricoEquipamento;
+import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class HistoricoEquipamentoRepositoryCustomImpl implements HistoricoEquipamentoRepositoryCustom {
+    private static final String CAMPO_LOGS = "logs";
+    private static final String CAMPO_INDICE = "indice"; // Posição da entrada no array logs do bucket ($unwind)
+    // Da entrada mais recente para a mais antiga; bucket e posição desempatam as de mesma dataHora
+    private static final Sort ORDEM_ENTRADAS = Sort.by(Sort.Direction.DESC, CAMPO_LOGS + ".dataHora", "_id", CAMPO_INDICE);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public HistoricoEquipamentoRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void registrar(String equipamentoId, List<LogAlteracao> entradas) {
+        if (entradas == null || entradas.isEmpty()) {
+            return;
+        }
+        int quantidade = entradas.size();
+        LocalDateTime inicio = entradas.stream().map(LogAlteracao::getDataHora).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime fim = entradas.stream().map(LogAlteracao::getDataHora).max(Comparator.naturalOrder()).orElseThrow();
+
+        // Só casa com um bucket que ainda comporta todas as entradas; caso contrário o upsert abre um novo
+        Query bucketAberto = new Query(Criteria.where("equipamentoId").is(equipamentoId)
+                .and("quantidade").lte(HistoricoEquipamento.TAMANHO_MAXIMO - quantidade));
+        Update update = new Update()
+                .push(CAMPO_LOGS).each(entradas.toArray())
+                .inc("quantidade", quantidade)
+                .min("inicio", inicio)
+                .max("fim", fim);
+        mongoTemplate.upsert(bucketAberto, update, HistoricoEquipamento.class);
+    }
+
+    @Override
+    public List<LogAlteracao> listarEntradasRecentes(String equipamentoId, int limite) {
+        List<LogAlteracao> entradas = listarEntradasAnteriores(equipamentoId, null, null, 0, limite).stream()
+                .map(EntradaHistorico::log)
+                .collect(Collectors.toCollection(ArrayList::new));
+        Collections.reverse(entradas);
+        return entradas;
+    }
+
+    @Override
+    public Map<String, List<LogAlteracao>> listarEntradasRecentesPorEquipamentos(Collection<String> equipamentoIds, int limite) {
+        if (equipamentoIds == null || equipamentoIds.isEmpty()) {
+            return Map.of();
+        }
+        // O $push depois do $sort acumula da mais recente para a mais antiga; o $slice fica só com as 'limite' primeiras
+        Aggregation agregacao = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("equipamentoId").in(equipamentoIds)),
+                Aggregation.unwind(CAMPO_LOGS, CAMPO_INDICE),
+                Aggregation.sort(ORDEM_ENTRADAS),
+                Aggregation.group("equipamentoId").push(CAMPO_LOGS).as(CAMPO_LOGS),
+                Aggregation.project().and(CAMPO_LOGS).slice(limite).as(CAMPO_LOGS));
+
+        Map<String, List<LogAlteracao>> resultado = new HashMap<>();
+        for (Document documento : mongoTemplate.aggregate(agregacao, HistoricoEquipamento.class, Document.class)) {
+            List<LogAlteracao> entradas = documento.getList(CAMPO_LOGS, Document.class).stream()
+                    .map(this::lerEntrada)
+                    .collect(Collectors.toCollection(ArrayList::new));
+            Collections.reverse(entradas);
+            resultado.put(documento.getString("_id"), entradas);
+        }
+        return resultado;
+    }
+
+    @Override
+    public List<EntradaHistorico> listarEntradasAnteriores(String equipamentoId, LocalDateTime dataHoraCursor, String bucketCursor,
+                                                           int indiceCursor, int limite) {
+        Criteria doEquipamento = Criteria.where("equipamentoId").is(equipamentoId);
+        List<AggregationOperation> etapas = new ArrayList<>();
+        if (bucketCursor == null) {
+            etapas.add(Aggregation.match(doEquipamento));
+            etapas.add(Aggregation.unwind(CAMPO_LOGS, CAMPO_INDICE));
+        } else {
+            ObjectId idCursor = new ObjectId(bucketCursor); // IllegalArgumentException se o cursor foi adulterado
+            // Um bucket cuja entrada mais antiga é posterior à do cursor não tem nada antes dela
+            etapas.add(Aggregation.match(doEquipamento.and("inicio").lte(dataHoraCursor)));
+            etapas.add(Aggregation.unwind(CAMPO_LOGS, CAMPO_INDICE));
+            etapas.add(Aggregation.match(new Criteria().orOperator(
+                    Criteria.where(CAMPO_LOGS + ".dataHora").lt(dataHoraCursor),
+                    Criteria.where(CAMPO_LOGS + ".dataHora").is(dataHoraCursor).and("_id").lt(idCursor),
+                    Criteria.where(CAMPO_LOGS + ".dataHora").is(dataHoraCursor).and("_id").is(idCursor)
+                            .and(CAMPO_INDICE).lt(indiceCursor))));
+        }
+        // Ordenação sem índice (as entradas estão dentro dos buckets), mas com $limit logo depois: o servidor só
+        // guarda as 'limite' primeiras enquanto ordena, e só elas trafegam
+        etapas.add(Aggregation.sort(ORDEM_ENTRADAS));
+        etapas.add(Aggregation.limit(limite));
+
+        return mongoTemplate.aggregate(Aggregation.newAggregation(etapas), HistoricoEquipamento.class, Document.class)
+                .getMappedResults().stream()
+                .map(documento -> new EntradaHistorico(
+                        lerEntrada(documento.get(CAMPO_LOGS, Document.class)),
+                        documento.getObjectId("_id").toHexString(),
+                        documento.get(CAMPO_INDICE, Number.class).intValue()))
+                .collect(Collectors.toList());
+    }
+
+    private LogAlteracao lerEntrada(Document documento) {
+        return mongoTemplate.getConverter().read(LogAlteracao.class, documento);
+    }
+}
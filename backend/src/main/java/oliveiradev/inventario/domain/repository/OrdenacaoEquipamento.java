@@ -0,0 +1,82 @@
+package oliveiradev.inventario.domain.repository;
+
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.function.Function;
+
+// Chaves de ordenação aceitas na paginação por cursor. Cada uma possui índice próprio (ver Equipamento).
+public enum OrdenacaoEquipamento {
+    ID("id", "id", true, Equipamento::getId),
+    NOME("nome", "nome", false, Equipamento::getNome),
+    NUMERO_DE_SERIE("numeroDeSerie", "numeroDeSerie", true, Equipamento::getNumeroDeSerie),
+    DATA_INCLUSAO("dataInclusao", "dataInclusaoNoSistema", false, e -> formatar(e.getDataInclusaoNoSistema())),
+    DATA_MODIFICACAO("dataModificacao", "dataUltimaModificacao", false, e -> formatar(e.getDataUltimaModificacao()));
+
+    private final String parametro;   // Nome aceito na query string (?sort=)
+    private final String propriedade; // Propriedade mapeada no documento
+    private final boolean unica;      // Se verdadeiro, dispensa o desempate por _id
+    private final Function<Equipamento, String> extratorValor;
+
+    OrdenacaoEquipamento(String parametro, String propriedade, boolean unica, Function<Equipamento, String> extratorValor) {
+        this.parametro = parametro;
+        this.propriedade = propriedade;
+        this.unica = unica;
+        this.extratorValor = extratorValor;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public String getPropriedade() {
+        return propriedade;
+    }
+
+    public boolean isUnica() {
+        return unica;
+    }
+
+    public String extrairValor(Equipamento equipamento) {
+        return extratorValor.apply(equipamento);
+    }
+
+    // Mesmo valor para um documento projetado (ver buscarPaginaAposCursorProjetada), que tem a propriedade como chave
+    public String extrairValor(Map<String, Object> documento) {
+        Object valor = documento.get(propriedade);
+        return valor != null ? valor.toString() : null;
+    }
+
+    // Converte o valor textual guardado no cursor para o tipo usado na consulta
+    public Object converterValor(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        if (this == DATA_INCLUSAO || this == DATA_MODIFICACAO) {
+            try {
+                return LocalDateTime.parse(valor);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.", ex);
+            }
+        }
+        return valor;
+    }
+
+    public static OrdenacaoEquipamento fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return ID;
+        }
+        for (OrdenacaoEquipamento ordenacao : values()) {
+            if (ordenacao.parametro.equalsIgnoreCase(parametro.trim())) {
+                return ordenacao;
+            }
+        }
+        throw new IllegalArgumentException("Ordenação desconhecida: " + parametro);
+    }
+
+    private static String formatar(LocalDateTime dataHora) {
+        return dataHora != null ? dataHora.toString() : null;
+    }
+}
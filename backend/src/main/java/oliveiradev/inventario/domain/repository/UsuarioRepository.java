@@ -2,6 +2,7 @@ package oliveiradev.inventario.domain.repository;
 
 import oliveiradev.inventario.domain.model.usuarios.Usuario;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +10,8 @@ import java.util.Optional;
 @Repository
 public interface UsuarioRepository extends MongoRepository<Usuario, String> {
     Optional<Usuario> findByEmail(String email);
+
+    // Só o _id e a versão dos níveis: verificação dos tokens JWT sem trazer senha e demais campos
+    @Query(value = "{ 'email': ?0 }", fields = "{ 'versaoNiveis': 1 }")
+    Optional<Usuario> buscarVersaoNiveisPorEmail(String email);
 }
@@ -0,0 +1,66 @@
+package oliveiradev.inventario.infra.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.stereotype.Component;
+
+// Cria os índices declarados nas entidades (@Indexed, @CompoundIndex, @TextIndexed) na subida, depois de criados os
+// beans e antes de o servidor web aceitar requisições. A criação de equipamentos depende só do índice unique de
+// numeroDeSerie (não há consulta prévia), então a aplicação não sobe sem ele: uma falha (por exemplo, números de série
+// duplicados gravados antes de o índice existir) interrompe a subida. ensureIndex é idempotente; com os índices já
+// criados, custa uma ida ao Mongo por índice.
+// No lugar do spring.data.mongodb.auto-index-creation, que conecta ao Mongo a cada entidade mapeada; testes que sobem
+// o contexto sem Mongo desligam a criação com app.mongo.indices.criar-na-subida=false.
+@Component
+public class CriacaoIndicesMongo implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(CriacaoIndicesMongo.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean criarNaSubida;
+
+    @Autowired
+    public CriacaoIndicesMongo(MongoTemplate mongoTemplate,
+                               @Value("${app.mongo.indices.criar-na-subida:true}") boolean criarNaSubida) {
+        this.mongoTemplate = mongoTemplate;
+        this.criarNaSubida = criarNaSubida;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!criarNaSubida) {
+            logger.warn("Criação dos índices do Mongo na subida desligada; a unicidade de numeroDeSerie depende de o índice já existir");
+            return;
+        }
+        try {
+            criarIndices();
+        } catch (RuntimeException ex) {
+            throw new IllegalStateException("Não foi possível criar os índices do Mongo. Se o índice unique de numeroDeSerie "
+                    + "falhou, remova os números de série duplicados antes de subir a aplicação.", ex);
+        }
+    }
+
+    public void criarIndices() {
+        MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+                mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        for (MongoPersistentEntity<?> entidade : mappingContext.getPersistentEntities()) {
+            if (!entidade.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            IndexOperations indices = mongoTemplate.indexOps(entidade.getType());
+            resolver.resolveIndexFor(entidade.getTypeInformation()).forEach(indices::ensureIndex);
+            logger.debug("Índices garantidos para a coleção {}", entidade.getCollection());
+        }
+    }
+}
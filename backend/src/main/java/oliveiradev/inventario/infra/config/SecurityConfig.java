@@ -1,9 +1,13 @@
 package oliveiradev.inventario.infra.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
 import oliveiradev.inventario.infra.security.jwt.JwtAuthFilter;
+import oliveiradev.inventario.infra.security.service.PasswordEncoderLimitado;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -29,6 +33,12 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("USUARIO_MASTER")
+                        // @PreAuthorize não é aplicado (sem @EnableMethodSecurity); estas rotas exigem o token aqui
+                        .requestMatchers(HttpMethod.GET, "/api/equipamentos/autocomplete").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/api/equipamentos/batch-lookup").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/api/equipamentos/stream").authenticated()
                         .anyRequest().permitAll()
                 )
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
@@ -38,9 +48,12 @@ public class SecurityConfig {
                 .build();
     }
 
+    // BCrypt em pool próprio e limitado: rajadas de login/cadastro recebem 503 em vez de esgotar os workers do Tomcat
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.autenticacao.hash.threads:4}") int threads,
+                                           @Value("${app.autenticacao.hash.capacidade-fila:16}") int capacidadeFila,
+                                           MeterRegistry meterRegistry) {
+        return new PasswordEncoderLimitado(new BCryptPasswordEncoder(), threads, capacidadeFila, meterRegistry);
     }
 
     @Bean
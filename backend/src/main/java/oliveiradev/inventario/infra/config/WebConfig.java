@@ -0,0 +1,19 @@
+package oliveiradev.inventario.infra.config;
+
+import oliveiradev.inventario.application.cache.CacheJsonEquipamentos;
+import oliveiradev.inventario.infra.web.ConversorJsonComCache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class WebConfig {
+    // Substitui o conversor JSON criado pelo Spring Boot, usando o mesmo ObjectMapper configurado por ele
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   CacheJsonEquipamentos cacheJson) {
+        return new ConversorJsonComCache(objectMapper, cacheJson);
+    }
+}
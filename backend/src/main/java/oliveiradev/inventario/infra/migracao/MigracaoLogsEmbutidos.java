@@ -0,0 +1,70 @@
+package oliveiradev.inventario.infra.migracao;
+
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.model.equipamentos.HistoricoEquipamento;
+import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+import oliveiradev.inventario.domain.repository.HistoricoEquipamentoRepository;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Migração única: move o array 'logs' embutido nos equipamentos antigos para historico_equipamentos.
+// O array só é removido ($unset) depois que suas entradas foram gravadas; uma interrupção entre as duas
+// etapas pode duplicar, na próxima execução, as entradas daquele único equipamento.
+@Component
+@ConditionalOnProperty(name = "app.equipamentos.historico.migrar-logs-embutidos", havingValue = "true")
+public class MigracaoLogsEmbutidos implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(MigracaoLogsEmbutidos.class);
+    private static final String CAMPO_LOGS = "logs";
+
+    private final MongoTemplate mongoTemplate;
+    private final HistoricoEquipamentoRepository historicoRepository;
+
+    @Autowired
+    public MigracaoLogsEmbutidos(MongoTemplate mongoTemplate, HistoricoEquipamentoRepository historicoRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.historicoRepository = historicoRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String colecao = mongoTemplate.getCollectionName(Equipamento.class);
+        Query comLogsEmbutidos = new Query(Criteria.where(CAMPO_LOGS).exists(true));
+        comLogsEmbutidos.fields().include("_id").include(CAMPO_LOGS);
+
+        long migrados = 0;
+        try (Stream<Document> documentos = mongoTemplate.stream(comLogsEmbutidos, Document.class, colecao)) {
+            for (Document documento : (Iterable<Document>) documentos::iterator) {
+                Object id = documento.get("_id");
+                List<LogAlteracao> entradas = new ArrayList<>();
+                for (Object log : documento.getList(CAMPO_LOGS, Object.class, List.of())) {
+                    if (log instanceof Document logDocumento) {
+                        entradas.add(mongoTemplate.getConverter().read(LogAlteracao.class, logDocumento));
+                    }
+                }
+                // Registrar em blocos do tamanho de um bucket mantém os buckets cheios
+                for (int inicio = 0; inicio < entradas.size(); inicio += HistoricoEquipamento.TAMANHO_MAXIMO) {
+                    int fim = Math.min(inicio + HistoricoEquipamento.TAMANHO_MAXIMO, entradas.size());
+                    historicoRepository.registrar(id.toString(), entradas.subList(inicio, fim));
+                }
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), new Update().unset(CAMPO_LOGS), colecao);
+                migrados++;
+            }
+        }
+        logger.info("Migração de logs embutidos concluída: {} equipamentos migrados", migrados);
+    }
+}
@@ -0,0 +1,180 @@
+package oliveiradev.inventario.infra.security.jwt;
+
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
+import oliveiradev.inventario.domain.model.usuarios.Usuario;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Tokens já verificados, pelo SHA-256 do token (o token em si não fica em memória). Um cliente reusa o mesmo token
+// por até app.jwt.expiration-ms; a partir da segunda requisição a assinatura HS512 e o JSON não são analisados de novo.
+// Cada entrada expira no exp do token, então um token vencido nunca sai daqui. Só a verificação é guardada: a versão
+// dos níveis (modo claims) e o usuário (modo banco) continuam sendo conferidos a cada requisição, e uma alteração do
+// usuário descarta os tokens dele, que voltam a passar pela verificação completa. Para isso as chaves são indexadas
+// por usuário (e-mail -> digests): a alteração de um usuário visita só os tokens dele, não o cache inteiro.
+// Estatísticas em /actuator/metrics com a tag cache=jwt.tokens.
+@Component
+public class CacheTokensVerificados {
+    private final JwtTokenProvider tokenProvider;
+    private final boolean habilitado;
+    private final Clock clock;
+    private final Cache<String, TokenVerificado> tokens;
+    // Conjuntos alterados só dentro de compute/computeIfPresent do mapa, que serializa as operações de cada usuário.
+    // Um digest a mais (token que já saiu do cache) é inofensivo; um a menos deixaria um token sem invalidação.
+    private final ConcurrentMap<String, Set<String>> chavesPorUsuario = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CacheTokensVerificados(JwtTokenProvider tokenProvider,
+                                  @Value("${app.jwt.cache.habilitado:true}") boolean habilitado,
+                                  @Value("${app.jwt.cache.tamanho-maximo:100000}") long tamanhoMaximo,
+                                  MeterRegistry meterRegistry) {
+        this(tokenProvider, habilitado, tamanhoMaximo, meterRegistry, Clock.systemUTC());
+    }
+
+    CacheTokensVerificados(JwtTokenProvider tokenProvider, boolean habilitado, long tamanhoMaximo,
+                           MeterRegistry meterRegistry, Clock clock) {
+        this.tokenProvider = tokenProvider;
+        this.habilitado = habilitado;
+        this.clock = clock;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new AteExpirar())
+                .removalListener((String chave, TokenVerificado token, RemovalCause causa) -> desindexar(chave, token))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tokens, "jwt.tokens");
+    }
+
+    // Nulo quando o token é inválido ou expirou (o motivo é registrado pelo JwtTokenProvider). Inválidos não são
+    // guardados, para tokens forjados não ocuparem o cache.
+    public TokenVerificado verificar(String token) {
+        if (!habilitado) {
+            return verificarAssinatura(token);
+        }
+        String chave = digest(token);
+        TokenVerificado verificado = tokens.getIfPresent(chave);
+        if (verificado != null && verificado.expiracao().isAfter(clock.instant())) {
+            return verificado;
+        }
+        verificado = verificarAssinatura(token);
+        if (verificado != null) {
+            indexar(chave, verificado);
+        }
+        return verificado;
+    }
+
+    // A entrada e o índice são gravados juntos, sob o compute do usuário
+    private void indexar(String chave, TokenVerificado verificado) {
+        chavesPorUsuario.compute(chaveUsuario(verificado.username()), (usuario, chaves) -> {
+            Set<String> atualizadas = chaves != null ? chaves : new HashSet<>();
+            tokens.put(chave, verificado);
+            atualizadas.add(chave);
+            return atualizadas;
+        });
+    }
+
+    // Chamado pelo Caffeine em outra thread quando a entrada sai (expiração, tamanho, invalidação ou substituição).
+    // Se o mesmo token já foi guardado de novo, a chave continua indexada.
+    private void desindexar(String chave, TokenVerificado token) {
+        if (chave == null || token == null) {
+            return;
+        }
+        chavesPorUsuario.computeIfPresent(chaveUsuario(token.username()), (usuario, chaves) -> {
+            if (!tokens.asMap().containsKey(chave)) {
+                chaves.remove(chave);
+            }
+            return chaves.isEmpty() ? null : chaves;
+        });
+    }
+
+    private static String chaveUsuario(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private TokenVerificado verificarAssinatura(String token) {
+        ValidacaoToken validacao = tokenProvider.validar(token);
+        if (!validacao.isValido()) {
+            return null;
+        }
+        Claims claims = validacao.claims();
+        // O parser recusa tokens expirados, mas aceita os sem exp: esses não entram no cache
+        Instant expiracao = claims.getExpiration() != null ? claims.getExpiration().toInstant() : clock.instant();
+        return new TokenVerificado(claims.getSubject(), tokenProvider.getAuthorities(claims),
+                tokenProvider.getVersaoNiveis(claims), expiracao);
+    }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 indisponível", ex); // Obrigatório em toda JVM
+        }
+    }
+
+    @EventListener
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        if (evento.email() != null) {
+            Set<String> chaves = chavesPorUsuario.remove(chaveUsuario(evento.email()));
+            if (chaves != null) {
+                tokens.invalidateAll(chaves);
+            }
+        } else {
+            // Remoção vinda do change stream sem pré-imagem: o e-mail não é conhecido
+            invalidarTudo();
+        }
+    }
+
+    @EventListener
+    public void aoPerderSincronizacao(SincronizacaoPerdidaEvent evento) {
+        if (evento.entidade() == Usuario.class) {
+            invalidarTudo();
+        }
+    }
+
+    // Índice antes do cache: um token guardado entre os dois fica com um digest a mais no índice, nunca a menos
+    private void invalidarTudo() {
+        chavesPorUsuario.clear();
+        tokens.invalidateAll();
+    }
+
+    // Cada entrada vive até o exp do seu token; leituras não prolongam
+    private class AteExpirar implements Expiry<String, TokenVerificado> {
+        @Override
+        public long expireAfterCreate(String chave, TokenVerificado token, long agora) {
+            return Math.max(0, Duration.between(clock.instant(), token.expiracao()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, TokenVerificado token, long agora, long duracaoAtual) {
+            return expireAfterCreate(chave, token, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, TokenVerificado token, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
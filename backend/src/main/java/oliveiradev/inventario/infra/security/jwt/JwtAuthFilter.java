@@ -1,6 +1,7 @@
 package oliveiradev.inventario.infra.security.jwt;
 
 import oliveiradev.inventario.infra.security.service.CustomUserDetailsService;
+import oliveiradev.inventario.infra.security.service.VersoesNiveisUsuarios;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,8 +12,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -25,13 +28,35 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-    private final JwtTokenProvider tokenProvider;
+    private final CacheTokensVerificados tokensVerificados;
     private final CustomUserDetailsService customUserDetailsService;
+    private final VersoesNiveisUsuarios versoesNiveis;
+    private final ModoAutenticacao modo;
+
+    // BANCO: carrega o usuário do Mongo a cada requisição. CLAIMS: usa os níveis do token já verificado, consultando
+    // só a versão dos níveis (em cache por poucos segundos); se ela mudou, aquela requisição segue pelo banco.
+    public enum ModoAutenticacao {
+        BANCO,
+        CLAIMS;
+
+        public static ModoAutenticacao fromParametro(String parametro) {
+            for (ModoAutenticacao modo : values()) {
+                if (modo.name().equalsIgnoreCase(parametro.trim())) {
+                    return modo;
+                }
+            }
+            throw new IllegalArgumentException("Modo de autenticação JWT desconhecido: " + parametro);
+        }
+    }
 
     @Autowired
-    public JwtAuthFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService customUserDetailsService) {
-        this.tokenProvider = tokenProvider;
+    public JwtAuthFilter(CacheTokensVerificados tokensVerificados, CustomUserDetailsService customUserDetailsService,
+                         VersoesNiveisUsuarios versoesNiveis,
+                         @Value("${app.jwt.autenticacao.modo:banco}") String modo) {
+        this.tokensVerificados = tokensVerificados;
         this.customUserDetailsService = customUserDetailsService;
+        this.versoesNiveis = versoesNiveis;
+        this.modo = ModoAutenticacao.fromParametro(modo);
     }
 
     @Override
@@ -41,7 +66,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                path.startsWith("/v3/api-docs") ||
                path.startsWith("/swagger-ui") ||
                path.startsWith("/api/teste/") ||
-               path.startsWith("/api/equipamentos/") ||
                path.startsWith("/api/usuarios/");
     }
 
@@ -53,11 +77,16 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             String jwt = getJwtFromRequest(request);
             logger.debug("doFilterInternal - JWT extraído: {}", jwt);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
+            // Assinatura, expiração e claims verificadas uma vez por token; as requisições seguintes usam o cache
+            TokenVerificado token = StringUtils.hasText(jwt) ? tokensVerificados.verificar(jwt) : null;
+            if (token != null) {
+                String username = token.username();
                 logger.info("doFilterInternal - Username (email) do JWT: {}", username);
 
-                UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = modo == ModoAutenticacao.CLAIMS ? detalhesDoToken(token) : null;
+                if (userDetails == null) {
+                    userDetails = customUserDetailsService.loadUserByUsername(username);
+                }
                 if (userDetails != null) {
                     logger.info("doFilterInternal - UserDetails carregado para {}: Authorities: {}", username, userDetails.getAuthorities()); // LOG
 
@@ -84,6 +113,17 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Nulo quando as claims não bastam: token emitido sem a versão dos níveis, níveis alterados depois da emissão
+    // ou usuário removido. Nesses casos a requisição é autenticada pelo banco, que tem os níveis atuais.
+    private UserDetails detalhesDoToken(TokenVerificado token) {
+        Long versaoDoToken = token.versaoNiveis();
+        if (versaoDoToken == null || versoesNiveis.versaoAtual(token.username()).filter(versaoDoToken::equals).isEmpty()) {
+            logger.debug("detalhesDoToken - Versão dos níveis do token de {} não é a atual; autenticando pelo banco", token.username());
+            return null;
+        }
+        return new User(token.username(), "", token.authorities());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
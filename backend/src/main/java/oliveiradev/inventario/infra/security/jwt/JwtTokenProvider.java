@@ -1,5 +1,7 @@
 package oliveiradev.inventario.infra.security.jwt;
 
+import oliveiradev.inventario.infra.security.service.UsuarioAutenticado;
+
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
@@ -9,18 +11,22 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
+import java.util.List;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
     private static final String AUTHORITIES_KEY = "roles";
+    private static final String VERSAO_NIVEIS_KEY = "nv";
 
     @Value("${app.jwt.secret}")
     private String jwtSecretString;
@@ -29,71 +35,78 @@ public class JwtTokenProvider {
     private long jwtExpirationMs;
 
     private Key key;
+    private JwtParser parser; // Imutável e thread-safe: montado uma vez e compartilhado por todas as requisições
 
     @PostConstruct
     public void init() {
         byte[] keyBytes = Base64.getDecoder().decode(jwtSecretString);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return buildToken(userPrincipal.getUsername(), userPrincipal.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(",")));
+        return generateToken((UserDetails) authentication.getPrincipal());
     }
 
     public String generateToken(UserDetails userDetails) {
+        // Sem a versão dos níveis (UserDetails que não veio do banco), o token é sempre autenticado pelo banco
+        Long versaoNiveis = userDetails instanceof UsuarioAutenticado usuario ? usuario.getVersaoNiveis() : null;
         return buildToken(userDetails.getUsername(), userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(",")));
+                .collect(Collectors.joining(",")), versaoNiveis);
     }
 
-    private String buildToken(String username, String authorities) {
+    private String buildToken(String username, String authorities, Long versaoNiveis) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
                 .claim(AUTHORITIES_KEY, authorities)
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS512)
-                .compact();
+                .setExpiration(expiryDate);
+        if (versaoNiveis != null) {
+            builder.claim(VERSAO_NIVEIS_KEY, versaoNiveis);
+        }
+        return builder.signWith(key, SignatureAlgorithm.HS512).compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        String authorities = claims.get(AUTHORITIES_KEY, String.class);
+        if (authorities == null || authorities.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(authorities.split(","))
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
     }
 
-    public Claims getAllClaimsFromJWT(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Nulo nos tokens emitidos sem a versão dos níveis
+    public Long getVersaoNiveis(Claims claims) {
+        Object versao = claims.get(VERSAO_NIVEIS_KEY);
+        return versao instanceof Number numero ? numero.longValue() : null;
     }
 
-    public boolean validateToken(String authToken) {
+    // Verifica a assinatura e a expiração uma única vez e devolve as claims já lidas, para quem chama não
+    // precisar analisar o token de novo
+    public ValidacaoToken validar(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(authToken);
-            return true;
+            return ValidacaoToken.valido(parser.parseClaimsJws(authToken).getBody());
         } catch (SignatureException ex) {
             logger.error("Assinatura JWT inválida: {}", ex.getMessage());
+            return ValidacaoToken.invalido(ValidacaoToken.Falha.ASSINATURA_INVALIDA);
         } catch (MalformedJwtException ex) {
             logger.error("Token JWT malformado: {}", ex.getMessage());
+            return ValidacaoToken.invalido(ValidacaoToken.Falha.MALFORMADO);
         } catch (ExpiredJwtException ex) {
             logger.error("Token JWT expirado: {}", ex.getMessage());
+            return ValidacaoToken.invalido(ValidacaoToken.Falha.EXPIRADO);
         } catch (UnsupportedJwtException ex) {
             logger.error("Token JWT não suportado: {}", ex.getMessage());
+            return ValidacaoToken.invalido(ValidacaoToken.Falha.NAO_SUPORTADO);
         } catch (IllegalArgumentException ex) {
             logger.error("Claims JWT vazias: {}", ex.getMessage());
+            return ValidacaoToken.invalido(ValidacaoToken.Falha.VAZIO);
         }
-        return false;
     }
 }
\ No newline at end of file
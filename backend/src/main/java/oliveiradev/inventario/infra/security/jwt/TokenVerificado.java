@@ -0,0 +1,19 @@
+package oliveiradev.inventario.infra.security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+// Token com assinatura e expiração já verificadas, com as claims usadas na autenticação já convertidas.
+// É o que o CacheTokensVerificados guarda, para as requisições seguintes com o mesmo token não o analisarem de novo.
+public record TokenVerificado(
+        String username,
+        List<GrantedAuthority> authorities,
+        Long versaoNiveis, // Nulo nos tokens emitidos sem a versão dos níveis
+        Instant expiracao) {
+
+    public TokenVerificado {
+        authorities = List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,27 @@
+package oliveiradev.inventario.infra.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+// Resultado de JwtTokenProvider.validar: as claims do token válido, ou o motivo da recusa
+public record ValidacaoToken(Claims claims, Falha falha) {
+
+    public enum Falha {
+        ASSINATURA_INVALIDA,
+        MALFORMADO,
+        EXPIRADO,
+        NAO_SUPORTADO,
+        VAZIO
+    }
+
+    public static ValidacaoToken valido(Claims claims) {
+        return new ValidacaoToken(claims, null);
+    }
+
+    public static ValidacaoToken invalido(Falha falha) {
+        return new ValidacaoToken(null, falha);
+    }
+
+    public boolean isValido() {
+        return falha == null;
+    }
+}
@@ -1,8 +1,17 @@
 package oliveiradev.inventario.infra.security.service;
 
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
 import oliveiradev.inventario.domain.model.usuarios.Usuario;
 import oliveiradev.inventario.domain.repository.UsuarioRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,16 +20,39 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
+import java.time.Duration;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+// Usuários carregados ficam em um cache local (e-mail normalizado -> dados de autenticação), limitado por quantidade
+// e por tempo. UsuarioAlteradoEvent descarta a entrada quando os níveis mudam (atualizarNiveisUsuario) e, com change
+// streams, a cada escrita de qualquer réplica; sem eles, a expiração limita por quanto tempo outra réplica serve
+// níveis antigos. Estatísticas em /actuator/metrics com a tag cache=usuarios.detalhes.
 @Service("customUserDetailsService")
 public class CustomUserDetailsService implements UserDetailsService {
     private final UsuarioRepository usuarioRepository;
+    private final boolean cacheHabilitado;
+    private final Cache<String, DadosAutenticacao> cache;
+
+    // Guardado no lugar do UserDetails: o ProviderManager apaga a senha do principal depois do login
+    // (eraseCredentials), então cada chamada recebe uma instância nova
+    private record DadosAutenticacao(String email, String senha, Set<GrantedAuthority> authorities, long versaoNiveis) {
+    }
 
     @Autowired
-    public CustomUserDetailsService(UsuarioRepository usuarioRepository) {
+    public CustomUserDetailsService(UsuarioRepository usuarioRepository,
+                                    @Value("${app.usuarios.cache.habilitado:true}") boolean cacheHabilitado,
+                                    @Value("${app.usuarios.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                                    @Value("${app.usuarios.cache.expiracao:5m}") Duration expiracao,
+                                    MeterRegistry meterRegistry) {
         this.usuarioRepository = usuarioRepository;
+        this.cacheHabilitado = cacheHabilitado;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(expiracao)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "usuarios.detalhes");
     }
 
     @Override
@@ -28,24 +60,50 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         String emailNormalizado = email.trim().toLowerCase();
 
-        Usuario usuario = usuarioRepository.findByEmail(emailNormalizado)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException("Usuário não encontrado com o email: " + emailNormalizado)
-                );
+        // Inexistentes não são guardados: um cadastro novo não espera a expiração
+        DadosAutenticacao dados = cacheHabilitado
+                ? cache.get(emailNormalizado, this::carregar)
+                : carregar(emailNormalizado);
+        if (dados == null) {
+            throw new UsernameNotFoundException("Usuário não encontrado com o email: " + emailNormalizado);
+        }
+
+        return new UsuarioAutenticado(
+                dados.email(),
+                dados.senha(),
+                dados.authorities(),
+                dados.versaoNiveis()
+        );
+    }
+
+    private DadosAutenticacao carregar(String emailNormalizado) {
+        Usuario usuario = usuarioRepository.findByEmail(emailNormalizado).orElse(null);
+        if (usuario == null) {
+            return null;
+        }
 
         // Opção B: Adicionando o prefixo "ROLE_" ao nome do enum
-        Collection<? extends GrantedAuthority> authorities = usuario.getNiveis().stream()
+        Set<GrantedAuthority> authorities = usuario.getNiveis().stream()
                 .map(nivel -> new SimpleGrantedAuthority("ROLE_" + nivel.name()))
-                .collect(Collectors.toSet());
-
-        return new org.springframework.security.core.userdetails.User(
-                usuario.getEmail(),
-                usuario.getSenha(),
-                true,
-                true,
-                true,
-                true,
-                authorities
-        );
+                .collect(Collectors.toUnmodifiableSet());
+
+        return new DadosAutenticacao(usuario.getEmail(), usuario.getSenha(), authorities, usuario.getVersaoNiveis());
+    }
+
+    @EventListener
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        if (evento.email() != null) {
+            cache.invalidate(evento.email());
+        } else {
+            // Remoção vinda do change stream sem pré-imagem: o e-mail não é conhecido
+            cache.invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void aoPerderSincronizacao(SincronizacaoPerdidaEvent evento) {
+        if (evento.entidade() == Usuario.class) {
+            cache.invalidateAll();
+        }
     }
-}
\ No newline at end of file
+}
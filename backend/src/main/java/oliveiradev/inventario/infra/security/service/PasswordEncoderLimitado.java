@@ -0,0 +1,120 @@
+package oliveiradev.inventario.infra.security.service;
+
+import oliveiradev.inventario.application.exception.ServicoSobrecarregadoException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Controle de admissão do hash de senhas (BCrypt, dezenas a centenas de ms de CPU por chamada): encode e matches
+// rodam em um pool próprio com fila limitada. Quem chama (login pelo DaoAuthenticationProvider, cadastro pelo
+// UsuarioAppServiceImpl) espera o resultado, mas no máximo threads + fila requisições ficam presas em hash;
+// as demais recebem 503 na hora, em vez de ocupar os workers do Tomcat que atendem a API de equipamentos.
+// Métricas: auth.senha.fila, auth.senha.ativas, auth.senha.espera, auth.senha.duracao e auth.senha.rejeitadas.
+public class PasswordEncoderLimitado implements PasswordEncoder, AutoCloseable {
+    private static final Duration TENTAR_NOVAMENTE_EM = Duration.ofSeconds(1);
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final Timer espera;
+    private final Timer duracaoEncode;
+    private final Timer duracaoMatches;
+    private final Counter rejeitadas;
+
+    public PasswordEncoderLimitado(PasswordEncoder delegado, int threads, int capacidadeFila, MeterRegistry meterRegistry) {
+        if (threads < 1 || capacidadeFila < 0) {
+            throw new IllegalArgumentException("Pool de hash de senhas exige ao menos 1 thread e fila não negativa.");
+        }
+        this.delegado = delegado;
+        // Fila de capacidade 0: SynchronousQueue, só aceita quando há thread livre
+        BlockingQueue<Runnable> fila = capacidadeFila > 0
+                ? new ArrayBlockingQueue<>(capacidadeFila)
+                : new SynchronousQueue<>();
+        // Threads de plataforma: o trabalho é só CPU, threads virtuais não acrescentam nada
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, fila,
+                Thread.ofPlatform().name("hash-senha-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.senha.fila", executor, e -> e.getQueue().size())
+                .description("Hashes de senha aguardando uma thread do pool")
+                .register(meterRegistry);
+        Gauge.builder("auth.senha.ativas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads do pool calculando hashes de senha")
+                .register(meterRegistry);
+        this.espera = Timer.builder("auth.senha.espera")
+                .description("Tempo na fila até uma thread do pool começar o hash")
+                .register(meterRegistry);
+        this.duracaoEncode = Timer.builder("auth.senha.duracao")
+                .description("Tempo de cálculo de cada hash de senha")
+                .tag("operacao", "encode")
+                .register(meterRegistry);
+        this.duracaoMatches = Timer.builder("auth.senha.duracao")
+                .description("Tempo de cálculo de cada hash de senha")
+                .tag("operacao", "matches")
+                .register(meterRegistry);
+        this.rejeitadas = Counter.builder("auth.senha.rejeitadas")
+                .description("Hashes recusados com 503 por pool e fila cheios")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence senha) {
+        return executar(duracaoEncode, () -> delegado.encode(senha));
+    }
+
+    @Override
+    public boolean matches(CharSequence senha, String senhaCodificada) {
+        return executar(duracaoMatches, () -> delegado.matches(senha, senhaCodificada));
+    }
+
+    // Só compara o prefixo do hash; não passa pelo pool
+    @Override
+    public boolean upgradeEncoding(String senhaCodificada) {
+        return delegado.upgradeEncoding(senhaCodificada);
+    }
+
+    private <T> T executar(Timer duracao, Callable<T> hash) {
+        long enfileirado = System.nanoTime();
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(() -> {
+                espera.record(System.nanoTime() - enfileirado, TimeUnit.NANOSECONDS);
+                return duracao.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejeitadas.increment();
+            throw new ServicoSobrecarregadoException("Muitas autenticações em andamento; tente novamente em instantes.",
+                    TENTAR_NOVAMENTE_EM);
+        }
+        try {
+            return resultado.get();
+        } catch (InterruptedException ex) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException("Falha ao calcular o hash da senha.", ex.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,21 @@
+package oliveiradev.inventario.infra.security.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+// UserDetails carregado do banco, com a versão dos níveis do usuário: o JwtTokenProvider a grava no token para que
+// a autenticação pelas claims perceba quando os níveis mudaram depois da emissão
+public class UsuarioAutenticado extends User {
+    private final long versaoNiveis;
+
+    public UsuarioAutenticado(String email, String senha, Collection<? extends GrantedAuthority> authorities, long versaoNiveis) {
+        super(email, senha, true, true, true, true, authorities);
+        this.versaoNiveis = versaoNiveis;
+    }
+
+    public long getVersaoNiveis() {
+        return versaoNiveis;
+    }
+}
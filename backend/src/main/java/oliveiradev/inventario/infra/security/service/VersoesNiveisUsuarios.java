@@ -0,0 +1,66 @@
+package oliveiradev.inventario.infra.security.service;
+
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
+import oliveiradev.inventario.domain.model.usuarios.Usuario;
+import oliveiradev.inventario.domain.repository.UsuarioRepository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Versão atual dos níveis de cada usuário (e-mail -> versão), para a autenticação pelas claims do JWT.
+// Guardada por pouco tempo: é esse prazo que limita quanto um token emitido antes de atualizarNiveisUsuario
+// continua valendo com os níveis antigos. UsuarioAlteradoEvent invalida a entrada antes disso; com change streams,
+// também nas demais réplicas.
+@Component
+public class VersoesNiveisUsuarios {
+    private final UsuarioRepository usuarioRepository;
+    private final Cache<String, Long> versoes;
+
+    @Autowired
+    public VersoesNiveisUsuarios(UsuarioRepository usuarioRepository,
+                                 @Value("${app.jwt.autenticacao.verificacao-niveis:30s}") Duration validade,
+                                 @Value("${app.jwt.autenticacao.tamanho-maximo:100000}") long tamanhoMaximo,
+                                 MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.versoes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(validade)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, versoes, "usuarios.versaoNiveis");
+    }
+
+    // Vazio quando o usuário não existe (não é guardado: a próxima requisição consulta de novo)
+    public Optional<Long> versaoAtual(String email) {
+        return Optional.ofNullable(versoes.get(email, chave -> usuarioRepository.buscarVersaoNiveisPorEmail(chave)
+                .map(Usuario::getVersaoNiveis)
+                .orElse(null)));
+    }
+
+    @EventListener
+    public void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+        if (evento.email() != null) {
+            versoes.invalidate(evento.email());
+        } else {
+            // Remoção vinda do change stream sem pré-imagem: o e-mail não é conhecido
+            versoes.invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void aoPerderSincronizacao(SincronizacaoPerdidaEvent evento) {
+        if (evento.entidade() == Usuario.class) {
+            versoes.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package oliveiradev.inventario.infra.sincronizacao;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.model.usuarios.Usuario;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Acompanha os change streams de equipamentos e usuários e republica cada escrita, de qualquer réplica, como
+// evento local: assim os caches e índices em memória de todas as réplicas são invalidados logo após a escrita.
+// Exige replica set (ou cluster shardado); desligado por padrão (app.sincronizacao.change-streams.habilitado).
+// Os tokens de retomada ficam em change_stream_tokens: ao reiniciar, a leitura continua de onde parou. Se o token
+// já saiu do oplog, publica SincronizacaoPerdidaEvent para que os dados em memória sejam descartados.
+@Component
+@ConditionalOnProperty(name = "app.sincronizacao.change-streams.habilitado", havingValue = "true")
+public class OuvinteChangeStreams implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(OuvinteChangeStreams.class);
+
+    static final String COLECAO_TOKENS = "change_stream_tokens";
+
+    // Códigos do servidor para um token que não pode mais ser retomado
+    private static final int CODIGO_HISTORICO_PERDIDO = 286; // ChangeStreamHistoryLost
+    private static final int CODIGO_ERRO_FATAL = 280; // ChangeStreamFatalError
+
+    // Tempo máximo de cada espera no servidor; também limita quanto stop() espera pelas threads
+    private static final long ESPERA_MAXIMA_MS = 1000;
+    private static final Duration PAUSA_INICIAL = Duration.ofMillis(500);
+    private static final Duration PAUSA_MAXIMA = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration intervaloGravacaoToken;
+    private final boolean habilitarPreImagens;
+
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean executando;
+
+    @Autowired
+    public OuvinteChangeStreams(MongoTemplate mongoTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${app.sincronizacao.change-streams.intervalo-gravacao-token:1s}") Duration intervaloGravacaoToken,
+                                @Value("${app.sincronizacao.change-streams.pre-imagens:true}") boolean habilitarPreImagens) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.intervaloGravacaoToken = intervaloGravacaoToken;
+        this.habilitarPreImagens = habilitarPreImagens;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (executando) {
+            return;
+        }
+        executando = true;
+        String equipamentos = mongoTemplate.getCollectionName(Equipamento.class);
+        String usuarios = mongoTemplate.getCollectionName(Usuario.class);
+        if (habilitarPreImagens) {
+            habilitarPreImagens(equipamentos);
+            habilitarPreImagens(usuarios);
+        }
+        threads.add(Thread.ofVirtual().name("change-stream-" + equipamentos)
+                .start(() -> acompanhar(equipamentos, Equipamento.class, this::processarEquipamento)));
+        threads.add(Thread.ofVirtual().name("change-stream-" + usuarios)
+                .start(() -> acompanhar(usuarios, Usuario.class, this::processarUsuario)));
+        logger.info("Change streams iniciados para {} e {}", equipamentos, usuarios);
+    }
+
+    @Override
+    public synchronized void stop() {
+        executando = false;
+        for (Thread thread : threads) {
+            try {
+                thread.join(Duration.ofMillis(ESPERA_MAXIMA_MS * 3));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        threads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    // Sem pré-imagem, uma remoção só traz o _id; o número de série (ou e-mail) removido fica desconhecido.
+    // Requer MongoDB 6.0+ e permissão de collMod; sem elas os consumidores lidam com o valor nulo.
+    private void habilitarPreImagens(String colecao) {
+        try {
+            mongoTemplate.executeCommand(new Document("collMod", colecao)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (RuntimeException ex) {
+            logger.warn("Não foi possível habilitar pré-imagens em {}: {}", colecao, ex.getMessage());
+        }
+    }
+
+    private void acompanhar(String colecao, Class<?> entidade, Consumer<ChangeStreamDocument<Document>> processar) {
+        BsonDocument token = null;
+        boolean tokenLido = false;
+        Duration pausa = PAUSA_INICIAL;
+        while (executando) {
+            try {
+                if (!tokenLido) {
+                    token = lerToken(colecao);
+                    tokenLido = true;
+                }
+                token = lerAte(colecao, entidade, token, processar);
+                pausa = PAUSA_INICIAL;
+            } catch (MongoException ex) {
+                if (ex.getCode() == CODIGO_HISTORICO_PERDIDO || ex.getCode() == CODIGO_ERRO_FATAL) {
+                    logger.warn("Change stream de {} não pode ser retomado ({}); recomeçando do ponto atual", colecao, ex.getMessage());
+                    token = null;
+                    apagarToken(colecao);
+                    eventPublisher.publishEvent(new SincronizacaoPerdidaEvent(entidade));
+                    continue;
+                }
+                if (!executando) {
+                    break;
+                }
+                logger.warn("Change stream de {} interrompido; nova tentativa em {} ms: {}", colecao, pausa.toMillis(), ex.getMessage());
+                try {
+                    Thread.sleep(pausa);
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                pausa = pausa.multipliedBy(2).compareTo(PAUSA_MAXIMA) > 0 ? PAUSA_MAXIMA : pausa.multipliedBy(2);
+            }
+        }
+    }
+
+    // Lê até stop() ou até o stream ser invalidado; devolve o token a partir do qual continuar
+    private BsonDocument lerAte(String colecao, Class<?> entidade, BsonDocument token,
+                                Consumer<ChangeStreamDocument<Document>> processar) {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(colecao).watch()
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(ESPERA_MAXIMA_MS, TimeUnit.MILLISECONDS);
+        if (token != null) {
+            stream = stream.resumeAfter(token);
+        }
+        BsonDocument gravado = token;
+        long ultimaGravacao = System.nanoTime();
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            while (executando) {
+                ChangeStreamDocument<Document> mudanca = cursor.tryNext();
+                if (mudanca != null) {
+                    if (mudanca.getOperationType() == OperationType.INVALIDATE) {
+                        // Coleção removida ou renomeada: o token do invalidate não serve para resumeAfter
+                        apagarToken(colecao);
+                        eventPublisher.publishEvent(new SincronizacaoPerdidaEvent(entidade));
+                        return null;
+                    }
+                    try {
+                        processar.accept(mudanca);
+                    } catch (RuntimeException ex) {
+                        logger.error("Falha ao processar alteração em {}: {}", colecao, mudanca.getDocumentKey(), ex);
+                    }
+                }
+                // Sem alterações, o token pós-lote ainda avança: gravá-lo evita que um token parado saia do oplog
+                BsonDocument atual = cursor.getResumeToken();
+                if (atual != null) {
+                    token = atual;
+                }
+                if (token != null && !token.equals(gravado)
+                        && System.nanoTime() - ultimaGravacao >= intervaloGravacaoToken.toNanos()) {
+                    gravarToken(colecao, token);
+                    gravado = token;
+                    ultimaGravacao = System.nanoTime();
+                }
+            }
+        }
+        if (token != null && !token.equals(gravado)) {
+            gravarToken(colecao, token);
+        }
+        return token;
+    }
+
+    private void processarEquipamento(ChangeStreamDocument<Document> mudanca) {
+        switch (mudanca.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document documento = mudanca.getFullDocument();
+                if (documento == null) {
+                    return; // Removido antes da consulta do documento; o DELETE vem em seguida no stream
+                }
+                EquipamentoResumoDTO resumo = EquipamentoResumoDTO.de(mongoTemplate.getConverter().read(Equipamento.class, documento));
+                EquipamentoAlteradoEvent evento = switch (mudanca.getOperationType()) {
+                    case INSERT -> EquipamentoAlteradoEvent.criado(resumo);
+                    default -> EquipamentoAlteradoEvent.atualizado(resumo);
+                };
+                eventPublisher.publishEvent(evento.vindoDoChangeStream());
+            }
+            case DELETE -> {
+                Document anterior = mudanca.getFullDocumentBeforeChange();
+                String numeroDeSerie = anterior != null ? anterior.getString("numeroDeSerie") : null;
+                eventPublisher.publishEvent(
+                        EquipamentoAlteradoEvent.removido(id(mudanca.getDocumentKey()), numeroDeSerie).vindoDoChangeStream());
+            }
+            default -> {
+                // DROP, RENAME e DROP_DATABASE são sempre seguidos de INVALIDATE, tratado em lerAte
+            }
+        }
+    }
+
+    private void processarUsuario(ChangeStreamDocument<Document> mudanca) {
+        switch (mudanca.getOperationType()) {
+            case INSERT, UPDATE, REPLACE -> {
+                Document documento = mudanca.getFullDocument();
+                if (documento == null) {
+                    return;
+                }
+                UsuarioAlteradoEvent.TipoAlteracao tipo = mudanca.getOperationType() == OperationType.INSERT
+                        ? UsuarioAlteradoEvent.TipoAlteracao.CRIADO
+                        : UsuarioAlteradoEvent.TipoAlteracao.ATUALIZADO;
+                eventPublisher.publishEvent(new UsuarioAlteradoEvent(tipo, id(mudanca.getDocumentKey()), documento.getString("email")));
+            }
+            case DELETE -> {
+                Document anterior = mudanca.getFullDocumentBeforeChange();
+                eventPublisher.publishEvent(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.REMOVIDO,
+                        id(mudanca.getDocumentKey()), anterior != null ? anterior.getString("email") : null));
+            }
+            default -> {
+            }
+        }
+    }
+
+    // _id gerado pelo Mongo é ObjectId, mapeado para String hexadecimal nas entidades
+    private static String id(BsonDocument chave) {
+        BsonValue id = chave.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private MongoCollection<BsonDocument> colecaoTokens() {
+        return mongoTemplate.getDb().getCollection(COLECAO_TOKENS, BsonDocument.class);
+    }
+
+    private BsonDocument lerToken(String colecao) {
+        BsonDocument registro = colecaoTokens().find(Filters.eq("_id", colecao)).first();
+        return registro != null ? registro.getDocument("token") : null;
+    }
+
+    private void gravarToken(String colecao, BsonDocument token) {
+        try {
+            colecaoTokens().replaceOne(Filters.eq("_id", colecao),
+                    new BsonDocument("_id", new BsonString(colecao))
+                            .append("token", token)
+                            .append("atualizadoEm", new BsonDateTime(System.currentTimeMillis())),
+                    new ReplaceOptions().upsert(true));
+        } catch (MongoException ex) {
+            // Na pior das hipóteses a retomada repete alterações já vistas; os consumidores são idempotentes
+            logger.warn("Não foi possível gravar o token de {}: {}", colecao, ex.getMessage());
+        }
+    }
+
+    private void apagarToken(String colecao) {
+        try {
+            colecaoTokens().deleteOne(Filters.eq("_id", colecao));
+        } catch (MongoException ex) {
+            logger.warn("Não foi possível apagar o token de {}: {}", colecao, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package oliveiradev.inventario.infra.web;
+
+import java.util.Locale;
+import java.util.Set;
+
+// Codificações aceitas em Accept-Encoding, na ordem de preferência usada para desempatar: zstd comprime mais
+// com menos CPU que gzip, que fica para os clientes sem suporte a zstd.
+public enum CodificacaoConteudo {
+    ZSTD("zstd"),
+    GZIP("gzip");
+
+    private final String token;
+
+    CodificacaoConteudo(String token) {
+        this.token = token;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    // Maior qvalue entre as disponíveis; q=0 exclui a codificação e "*" vale para as não citadas.
+    // Nulo quando nenhuma é aceita: a resposta segue sem compressão.
+    public static CodificacaoConteudo negociar(String acceptEncoding, Set<CodificacaoConteudo> disponiveis) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double[] qualidades = new double[values().length];
+        boolean[] citadas = new boolean[values().length];
+        double curinga = 0;
+        for (String item : acceptEncoding.split(",")) {
+            String[] partes = item.split(";");
+            String nome = partes[0].trim().toLowerCase(Locale.ROOT);
+            double qualidade = qualidade(partes);
+            if ("*".equals(nome)) {
+                curinga = qualidade;
+                continue;
+            }
+            for (CodificacaoConteudo codificacao : values()) {
+                if (codificacao.token.equals(nome) || (codificacao == GZIP && "x-gzip".equals(nome))) {
+                    qualidades[codificacao.ordinal()] = qualidade;
+                    citadas[codificacao.ordinal()] = true;
+                }
+            }
+        }
+        CodificacaoConteudo escolhida = null;
+        double melhor = 0;
+        for (CodificacaoConteudo codificacao : values()) {
+            double qualidade = citadas[codificacao.ordinal()] ? qualidades[codificacao.ordinal()] : curinga;
+            if (disponiveis.contains(codificacao) && qualidade > melhor) {
+                escolhida = codificacao;
+                melhor = qualidade;
+            }
+        }
+        return escolhida;
+    }
+
+    private static double qualidade(String[] partes) {
+        for (int i = 1; i < partes.length; i++) {
+            String parametro = partes[i].trim();
+            if (parametro.length() > 2 && (parametro.startsWith("q=") || parametro.startsWith("Q="))) {
+                try {
+                    return Double.parseDouble(parametro.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,68 @@
+package oliveiradev.inventario.infra.web;
+
+import oliveiradev.inventario.application.cache.CacheJsonEquipamentos;
+import oliveiradev.inventario.application.dto.comum.PaginaCursorDTO;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Conversor JSON padrão do Spring MVC, que escreve equipamentos (sozinhos ou em páginas) a partir dos bytes do
+// CacheJsonEquipamentos. As páginas são montadas pelo próprio Jackson com os itens como valores brutos, então o
+// resultado é idêntico ao da serialização comum. Qualquer outro objeto segue o caminho normal.
+public class ConversorJsonComCache extends MappingJackson2HttpMessageConverter {
+    private final CacheJsonEquipamentos cacheJson;
+
+    public ConversorJsonComCache(ObjectMapper objectMapper, CacheJsonEquipamentos cacheJson) {
+        super(objectMapper);
+        this.cacheJson = cacheJson;
+    }
+
+    @Override
+    protected void writeInternal(Object objeto, Type tipo, HttpOutputMessage saida) throws IOException {
+        // Com indentação, um fragmento não teria o recuo do nível em que é inserido
+        if (!cacheJson.isHabilitado() || !emUtf8(saida) || getObjectMapper().isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+            super.writeInternal(objeto, tipo, saida);
+            return;
+        }
+        if (cacheJson.suporta(objeto)) {
+            saida.getBody().write(fragmento(objeto));
+            return;
+        }
+        if (objeto instanceof PaginaCursorDTO<?> pagina && pagina.itens() != null && !pagina.itens().isEmpty()
+                && pagina.itens().stream().allMatch(cacheJson::suporta)) {
+            List<RawValue> itens = pagina.itens().stream()
+                    .map(item -> new RawValue(new FragmentoJson(fragmento(item))))
+                    .toList();
+            super.writeInternal(new PaginaCursorDTO<>(itens, pagina.proximoCursor(), pagina.proximaPagina()), null, saida);
+            return;
+        }
+        super.writeInternal(objeto, tipo, saida);
+    }
+
+    private byte[] fragmento(Object dto) {
+        return cacheJson.obter(dto, item -> {
+            try {
+                return getObjectMapper().writeValueAsBytes(item);
+            } catch (JsonProcessingException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static boolean emUtf8(HttpOutputMessage saida) {
+        MediaType tipoConteudo = saida.getHeaders().getContentType();
+        return tipoConteudo == null || tipoConteudo.getCharset() == null
+                || StandardCharsets.UTF_8.equals(tipoConteudo.getCharset());
+    }
+}
@@ -0,0 +1,549 @@
+package oliveiradev.inventario.infra.web;
+
+import com.github.luben.zstd.RecyclingBufferPool;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+// Comprime com gzip ou zstd, conforme o Accept-Encoding, as respostas das rotas de equipamentos (listagens, histórico,
+// exportação): o JSON repete os mesmos e-mails e descrições e cai para cerca de um décimo do tamanho.
+// Os primeiros bytes ficam retidos até o tamanho mínimo: respostas menores seguem sem compressão, e só então os
+// cabeçalhos são decididos. A partir daí a compressão é em fluxo, então a exportação continua sem buffer total.
+// Tipos fora da lista (como text/event-stream de /stream) nunca são comprimidos: um flush antes do mínimo já os libera.
+@Component
+public class FiltroCompressaoRespostas extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(FiltroCompressaoRespostas.class);
+
+    private static final int TAMANHO_BUFFER_COMPRESSOR = 8 * 1024;
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final boolean habilitado;
+    private final int tamanhoMinimo;
+    private final List<String> caminhos;
+    private final List<MediaType> tiposComprimiveis;
+    private final int nivelGzip;
+    private final int nivelZstd;
+    private final Set<CodificacaoConteudo> disponiveis = EnumSet.of(CodificacaoConteudo.GZIP);
+    private final BlockingQueue<Deflater> deflaters; // Reaproveitados entre respostas; o excedente é encerrado
+    private final Map<CodificacaoConteudo, Medidores> medidores = new EnumMap<>(CodificacaoConteudo.class);
+    private final boolean cpuPorThread;
+
+    @Autowired
+    public FiltroCompressaoRespostas(@Value("${app.compressao.habilitado:true}") boolean habilitado,
+                                     @Value("${app.compressao.tamanho-minimo:2KB}") DataSize tamanhoMinimo,
+                                     @Value("${app.compressao.caminhos:/api/equipamentos}") List<String> caminhos,
+                                     @Value("${app.compressao.tipos:application/json,application/*+json,application/x-ndjson,text/csv}") List<String> tipos,
+                                     @Value("${app.compressao.gzip.nivel:6}") int nivelGzip,
+                                     @Value("${app.compressao.gzip.pool:64}") int tamanhoPool,
+                                     @Value("${app.compressao.zstd.habilitado:true}") boolean zstdHabilitado,
+                                     @Value("${app.compressao.zstd.nivel:3}") int nivelZstd,
+                                     MeterRegistry meterRegistry) {
+        this.habilitado = habilitado;
+        this.tamanhoMinimo = (int) Math.min(tamanhoMinimo.toBytes(), Integer.MAX_VALUE);
+        this.caminhos = List.copyOf(caminhos);
+        this.tiposComprimiveis = tipos.stream().map(MediaType::parseMediaType).toList();
+        this.nivelGzip = nivelGzip;
+        this.nivelZstd = nivelZstd;
+        this.deflaters = new ArrayBlockingQueue<>(Math.max(1, tamanhoPool));
+        if (zstdHabilitado && zstdCarregado()) {
+            disponiveis.add(CodificacaoConteudo.ZSTD);
+        }
+        this.cpuPorThread = THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+        for (CodificacaoConteudo codificacao : CodificacaoConteudo.values()) {
+            medidores.put(codificacao, new Medidores(codificacao, meterRegistry));
+        }
+    }
+
+    // zstd-jni traz a biblioteca nativa por plataforma; numa sem ela, segue apenas com gzip
+    private static boolean zstdCarregado() {
+        try {
+            Native.load();
+            return true;
+        } catch (LinkageError | RuntimeException ex) {
+            logger.warn("zstd indisponível nesta plataforma; respostas serão comprimidas apenas com gzip: {}", ex.toString());
+            return false;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!habilitado || "HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        return caminhos.stream().noneMatch(caminho::startsWith);
+    }
+
+    // Respostas assíncronas (SseEmitter, Callable) são concluídas no despacho ASYNC, que reencontra o mesmo wrapper
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RespostaComprimivel existente = WebUtils.getNativeResponse(response, RespostaComprimivel.class);
+        if (existente != null) {
+            executar(request, existente, filterChain);
+            return;
+        }
+        // O corpo varia com o Accept-Encoding mesmo quando esta resposta sai sem compressão
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        CodificacaoConteudo codificacao = CodificacaoConteudo.negociar(request.getHeader(HttpHeaders.ACCEPT_ENCODING), disponiveis);
+        if (codificacao == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        executar(request, new RespostaComprimivel(response, codificacao), filterChain);
+    }
+
+    private void executar(HttpServletRequest request, RespostaComprimivel resposta, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, resposta);
+        } catch (IOException | ServletException | RuntimeException ex) {
+            resposta.liberar();
+            throw ex;
+        }
+        if (!isAsyncStarted(request)) {
+            resposta.concluir();
+        }
+    }
+
+    private Deflater obterDeflater() {
+        Deflater deflater = deflaters.poll();
+        return deflater != null ? deflater : new Deflater(nivelGzip, true);
+    }
+
+    private void devolverDeflater(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    // Tempo de CPU da thread (inclui a entrega ao socket feita dentro do compressor); -1 se a JVM não o mede
+    private long cpuAtual() {
+        return cpuPorThread ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private boolean comprimivel(String tipoConteudo) {
+        if (tipoConteudo == null) {
+            return false;
+        }
+        try {
+            MediaType tipo = MediaType.parseMediaType(tipoConteudo);
+            return tiposComprimiveis.stream().anyMatch(aceito -> aceito.includes(tipo));
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    private record Medidores(Counter bytesOriginais, Counter bytesComprimidos, DistributionSummary razao, Timer cpu) {
+        Medidores(CodificacaoConteudo codificacao, MeterRegistry meterRegistry) {
+            this(Counter.builder("http.compressao.bytes")
+                            .description("Bytes das respostas comprimidas, antes e depois da compressão")
+                            .tags("codificacao", codificacao.getToken(), "etapa", "original")
+                            .register(meterRegistry),
+                    Counter.builder("http.compressao.bytes")
+                            .description("Bytes das respostas comprimidas, antes e depois da compressão")
+                            .tags("codificacao", codificacao.getToken(), "etapa", "comprimido")
+                            .register(meterRegistry),
+                    DistributionSummary.builder("http.compressao.razao")
+                            .description("Tamanho original / tamanho comprimido de cada resposta")
+                            .tags("codificacao", codificacao.getToken())
+                            .register(meterRegistry),
+                    Timer.builder("http.compressao.cpu")
+                            .description("Tempo de CPU gasto comprimindo cada resposta")
+                            .tags("codificacao", codificacao.getToken())
+                            .register(meterRegistry));
+        }
+    }
+
+    private enum Estado { PENDENTE, DIRETO, COMPRIMINDO }
+
+    private final class RespostaComprimivel extends HttpServletResponseWrapper {
+        private final HttpServletResponse original;
+        private final CodificacaoConteudo codificacao;
+        private final SaidaResposta saida = new SaidaResposta();
+        private PrintWriter writer;
+        private long tamanhoDeclarado = -1; // Content-Length informado pela aplicação, repassado só sem compressão
+
+        RespostaComprimivel(HttpServletResponse original, CodificacaoConteudo codificacao) {
+            super(original);
+            this.original = original;
+            this.codificacao = codificacao;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() já foi chamado para esta resposta");
+            }
+            return saida;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(saida, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int tamanho) {
+            setContentLengthLong(tamanho);
+        }
+
+        @Override
+        public void setContentLengthLong(long tamanho) {
+            switch (saida.estado) {
+                case PENDENTE -> tamanhoDeclarado = tamanho;
+                case DIRETO -> super.setContentLengthLong(tamanho);
+                case COMPRIMINDO -> { } // O tamanho comprimido não é conhecido de antemão
+            }
+        }
+
+        @Override
+        public void setHeader(String nome, String valor) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(nome)) {
+                setContentLengthLong(valor != null ? Long.parseLong(valor.trim()) : -1);
+                return;
+            }
+            super.setHeader(nome, valor);
+        }
+
+        @Override
+        public void addHeader(String nome, String valor) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(nome)) {
+                setContentLengthLong(Long.parseLong(valor.trim()));
+                return;
+            }
+            super.addHeader(nome, valor);
+        }
+
+        @Override
+        public void setIntHeader(String nome, int valor) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(nome)) {
+                setContentLengthLong(valor);
+                return;
+            }
+            super.setIntHeader(nome, valor);
+        }
+
+        @Override
+        public void addIntHeader(String nome, int valor) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(nome)) {
+                setContentLengthLong(valor);
+                return;
+            }
+            super.addIntHeader(nome, valor);
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            saida.flush();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            saida.descartarPendentes();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            saida.descartarPendentes();
+            tamanhoDeclarado = -1;
+            original.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        void concluir() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            saida.concluir();
+        }
+
+        void liberar() {
+            saida.liberar();
+        }
+
+        private boolean elegivel() {
+            int status = original.getStatus();
+            return !original.isCommitted()
+                    && status >= 200 && status != HttpServletResponse.SC_NO_CONTENT
+                    && status != HttpServletResponse.SC_PARTIAL_CONTENT && status != HttpServletResponse.SC_NOT_MODIFIED
+                    && original.getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && comprimivel(original.getContentType());
+        }
+
+        private final class SaidaResposta extends ServletOutputStream {
+            private Estado estado = Estado.PENDENTE;
+            private ByteArrayOutputStream pendentes = new ByteArrayOutputStream(Math.min(tamanhoMinimo, 1024));
+            private OutputStream destino;
+            private SaidaContada contada;
+            private Deflater deflater;
+            private long bytesOriginais;
+            private long cpuNanos;
+            private boolean concluida;
+
+            @Override
+            public void write(int valor) throws IOException {
+                write(new byte[] {(byte) valor}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] dados, int inicio, int tamanho) throws IOException {
+                if (concluida) {
+                    throw new IOException("A resposta já foi concluída");
+                }
+                if (estado == Estado.PENDENTE) {
+                    if (pendentes.size() + tamanho < tamanhoMinimo) {
+                        pendentes.write(dados, inicio, tamanho);
+                        return;
+                    }
+                    decidir(false);
+                }
+                escrever(dados, inicio, tamanho);
+            }
+
+            // Antes do mínimo, o flush só é repassado se o tipo nunca será comprimido (eventos SSE, por exemplo)
+            @Override
+            public void flush() throws IOException {
+                if (concluida) {
+                    return;
+                }
+                if (estado == Estado.PENDENTE) {
+                    if (comprimivel(original.getContentType())) {
+                        return;
+                    }
+                    decidir(false);
+                }
+                if (estado == Estado.COMPRIMINDO) {
+                    long inicio = cpuAtual();
+                    destino.flush();
+                    contarCpu(inicio);
+                } else {
+                    destino.flush();
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (concluida) {
+                    return;
+                }
+                concluir();
+                original.getOutputStream().close();
+            }
+
+            @Override
+            public boolean isReady() {
+                try {
+                    return original.getOutputStream().isReady();
+                } catch (IOException ex) {
+                    return false;
+                }
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                try {
+                    original.getOutputStream().setWriteListener(listener);
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+
+            private void decidir(boolean concluindo) throws IOException {
+                byte[] retidos = pendentes.toByteArray();
+                pendentes = null;
+                if (!concluindo && elegivel()) {
+                    iniciarCompressao();
+                    escrever(retidos, 0, retidos.length);
+                    return;
+                }
+                estado = Estado.DIRETO;
+                if (tamanhoDeclarado >= 0) {
+                    original.setContentLengthLong(tamanhoDeclarado);
+                } else if (concluindo && retidos.length > 0) {
+                    original.setContentLength(retidos.length);
+                }
+                destino = original.getOutputStream();
+                destino.write(retidos);
+            }
+
+            private void iniciarCompressao() throws IOException {
+                estado = Estado.COMPRIMINDO;
+                original.setHeader(HttpHeaders.CONTENT_ENCODING, codificacao.getToken());
+                // Um ETag forte promete bytes idênticos, o que deixa de valer com o corpo comprimido. O fraco continua
+                // casando com o If-None-Match (comparação fraca no GET), então o 304 segue funcionando.
+                String etag = original.getHeader(HttpHeaders.ETAG);
+                if (etag != null && etag.startsWith("\"")) {
+                    original.setHeader(HttpHeaders.ETAG, "W/" + etag);
+                }
+                contada = new SaidaContada(original.getOutputStream());
+                long inicio = cpuAtual();
+                if (codificacao == CodificacaoConteudo.GZIP) {
+                    deflater = obterDeflater();
+                    destino = new SaidaGzip(contada, deflater, TAMANHO_BUFFER_COMPRESSOR);
+                } else {
+                    ZstdOutputStream zstd = new ZstdOutputStream(contada, RecyclingBufferPool.INSTANCE);
+                    zstd.setLevel(nivelZstd);
+                    destino = zstd;
+                }
+                contarCpu(inicio);
+            }
+
+            private void escrever(byte[] dados, int inicio, int tamanho) throws IOException {
+                if (estado != Estado.COMPRIMINDO) {
+                    destino.write(dados, inicio, tamanho);
+                    return;
+                }
+                long inicioCpu = cpuAtual();
+                destino.write(dados, inicio, tamanho);
+                contarCpu(inicioCpu);
+                bytesOriginais += tamanho;
+            }
+
+            private void contarCpu(long inicio) {
+                long fim = cpuAtual();
+                if (inicio < 0 || fim < 0 || cpuNanos < 0) {
+                    cpuNanos = -1;
+                } else {
+                    cpuNanos += fim - inicio;
+                }
+            }
+
+            void concluir() throws IOException {
+                if (concluida) {
+                    return;
+                }
+                if (estado == Estado.PENDENTE) {
+                    decidir(true);
+                }
+                concluida = true;
+                if (estado != Estado.COMPRIMINDO) {
+                    return;
+                }
+                try {
+                    long inicio = cpuAtual();
+                    // SaidaGzip.finish() grava o trailer; no zstd, close() fecha o frame (a SaidaContada não fecha a resposta)
+                    if (destino instanceof SaidaGzip gzip) {
+                        gzip.finish();
+                    } else {
+                        destino.close();
+                    }
+                    contarCpu(inicio);
+                } finally {
+                    liberar();
+                }
+                Medidores medidor = medidores.get(codificacao);
+                medidor.bytesOriginais().increment(bytesOriginais);
+                medidor.bytesComprimidos().increment(contada.getQuantidade());
+                if (contada.getQuantidade() > 0) {
+                    medidor.razao().record((double) bytesOriginais / contada.getQuantidade());
+                }
+                if (cpuNanos >= 0) {
+                    medidor.cpu().record(cpuNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            // Devolve o Deflater ao pool também quando a escrita falha (cliente desconectado, por exemplo)
+            void liberar() {
+                if (deflater != null) {
+                    devolverDeflater(deflater);
+                    deflater = null;
+                }
+            }
+
+            void descartarPendentes() {
+                if (estado == Estado.PENDENTE) {
+                    pendentes.reset();
+                }
+            }
+        }
+    }
+
+    // Conta os bytes comprimidos entregues à resposta; close() não a fecha, para que o frame zstd possa ser encerrado
+    private static final class SaidaContada extends OutputStream {
+        private final OutputStream saida;
+        private long quantidade;
+
+        SaidaContada(OutputStream saida) {
+            this.saida = saida;
+        }
+
+        @Override
+        public void write(int valor) throws IOException {
+            saida.write(valor);
+            quantidade++;
+        }
+
+        @Override
+        public void write(byte[] dados, int inicio, int tamanho) throws IOException {
+            saida.write(dados, inicio, tamanho);
+            quantidade += tamanho;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            saida.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            saida.flush();
+        }
+
+        long getQuantidade() {
+            return quantidade;
+        }
+    }
+}
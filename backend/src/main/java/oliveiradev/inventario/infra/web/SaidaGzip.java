@@ -0,0 +1,49 @@
+package oliveiradev.inventario.infra.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+// Formato gzip (RFC 1952) sobre um Deflater recebido pronto, para que ele venha de um pool: o GZIPOutputStream
+// cria e destrói um Deflater nativo (com suas centenas de KB de estado) a cada resposta.
+// Não encerra o Deflater; quem o forneceu deve chamar reset() e devolvê-lo ao pool depois de finish().
+class SaidaGzip extends DeflaterOutputStream {
+    private static final byte[] CABECALHO = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final CRC32 crc = new CRC32();
+    private long tamanhoOriginal;
+    private boolean finalizada;
+
+    // O Deflater deve ter sido criado com nowrap=true (deflate puro, sem o envelope zlib)
+    SaidaGzip(OutputStream saida, Deflater deflater, int tamanhoBuffer) throws IOException {
+        super(saida, deflater, tamanhoBuffer, true);
+        saida.write(CABECALHO);
+    }
+
+    @Override
+    public void write(byte[] dados, int inicio, int tamanho) throws IOException {
+        super.write(dados, inicio, tamanho);
+        crc.update(dados, inicio, tamanho);
+        tamanhoOriginal += tamanho;
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (finalizada) {
+            return;
+        }
+        finalizada = true;
+        super.finish();
+        escreverInteiro((int) crc.getValue());
+        escreverInteiro((int) tamanhoOriginal); // ISIZE: tamanho original módulo 2^32
+    }
+
+    private void escreverInteiro(int valor) throws IOException {
+        out.write(valor & 0xff);
+        out.write((valor >>> 8) & 0xff);
+        out.write((valor >>> 16) & 0xff);
+        out.write((valor >>> 24) & 0xff);
+    }
+}
@@ -0,0 +1,308 @@
+package oliveiradev.inventario.infra.web;
+
+import oliveiradev.inventario.application.dto.equipamento.EventoEquipamentoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent.TipoAlteracao;
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.application.exception.ServicoSobrecarregadoException;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Envia por Server-Sent Events (GET /api/equipamentos/stream) as alterações de equipamentos assim que são gravadas,
+// para que os painéis deixem de consultar a listagem periodicamente.
+// Cada conexão é um SseEmitter (servlet assíncrono): ociosa, não ocupa thread. Os envios rodam em virtual threads,
+// uma por cliente e só enquanto há eventos na fila dele; quem publica o evento apenas enfileira.
+// A fila de cada cliente é limitada: um cliente lento que a enche é desconectado, em vez de acumular memória, e ao
+// reconectar recupera o que perdeu por GET /api/equipamentos/changes.
+@Component
+public class TransmissorEventosEquipamentos implements SmartLifecycle {
+    private static final Logger logger = LoggerFactory.getLogger(TransmissorEventosEquipamentos.class);
+
+    static final String EVENTO_CONECTADO = "conectado";
+    static final String EVENTO_RESINCRONIZAR = "resincronizar";
+    private static final Mensagem HEARTBEAT = new Mensagem(null, null, null);
+    private static final Duration TENTAR_NOVAMENTE_EM = Duration.ofSeconds(30);
+
+    private final ObjectMapper objectMapper;
+    private final boolean changeStreamsHabilitado;
+    private final int capacidadeFila;
+    private final int maxClientes;
+    private final Duration timeout;
+    private final Duration intervaloHeartbeat;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ExecutorService envios = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter desconectadosPorLentidao;
+    private volatile Thread heartbeat;
+    private volatile boolean executando;
+
+    @Autowired
+    public TransmissorEventosEquipamentos(ObjectMapper objectMapper,
+                                          @Value("${app.sincronizacao.change-streams.habilitado:false}") boolean changeStreamsHabilitado,
+                                          @Value("${app.equipamentos.eventos.capacidade-fila:256}") int capacidadeFila,
+                                          @Value("${app.equipamentos.eventos.max-clientes:10000}") int maxClientes,
+                                          @Value("${app.equipamentos.eventos.timeout:30m}") Duration timeout,
+                                          @Value("${app.equipamentos.eventos.heartbeat:30s}") Duration intervaloHeartbeat,
+                                          MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.changeStreamsHabilitado = changeStreamsHabilitado;
+        this.capacidadeFila = capacidadeFila;
+        this.maxClientes = maxClientes;
+        this.timeout = timeout;
+        this.intervaloHeartbeat = intervaloHeartbeat;
+        Gauge.builder("equipamentos.eventos.clientes", assinantes, Set::size)
+                .description("Conexões abertas em GET /api/equipamentos/stream")
+                .register(meterRegistry);
+        this.desconectadosPorLentidao = Counter.builder("equipamentos.eventos.desconectados")
+                .tag("motivo", "lentidao")
+                .description("Clientes desconectados por não consumirem os eventos no ritmo em que são publicados")
+                .register(meterRegistry);
+    }
+
+    // 'tipos': lista separada por vírgulas (criado, atualizado, removido); 'ids': apenas esses equipamentos.
+    // Vazios não filtram.
+    public SseEmitter conectar(String tipos, Collection<String> ids) {
+        Filtro filtro = Filtro.de(tipos, ids);
+        if (assinantes.size() >= maxClientes) {
+            throw new ServicoSobrecarregadoException("Limite de conexões de eventos atingido; tente novamente mais tarde.",
+                    TENTAR_NOVAMENTE_EM);
+        }
+        SseEmitter emitter = novoEmissor(timeout.toMillis());
+        Assinante assinante = new Assinante(emitter, filtro, new ArrayBlockingQueue<>(capacidadeFila));
+        // Timeout e erro também terminam em onCompletion
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+        assinantes.add(assinante);
+        // Primeiro evento: os cabeçalhos saem na hora e o cliente sabe que já está recebendo
+        enfileirar(assinante, new Mensagem(null, EVENTO_CONECTADO, "{}"));
+        return emitter;
+    }
+
+    SseEmitter novoEmissor(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    int getClientesConectados() {
+        return assinantes.size();
+    }
+
+    @EventListener
+    public void aoAlterarEquipamento(EquipamentoAlteradoEvent evento) {
+        // Com change streams, toda escrita (inclusive as desta réplica) volta pelo stream: repassar só essas evita duplicatas
+        EquipamentoAlteradoEvent.Origem origemRepassada = changeStreamsHabilitado
+                ? EquipamentoAlteradoEvent.Origem.CHANGE_STREAM
+                : EquipamentoAlteradoEvent.Origem.LOCAL;
+        if (evento.origem() != origemRepassada || assinantes.isEmpty()) {
+            return;
+        }
+        // Serializado uma única vez, qualquer que seja o número de clientes
+        Mensagem mensagem = new Mensagem(Long.toString(sequencia.incrementAndGet()),
+                evento.tipo().name().toLowerCase(Locale.ROOT), serializar(EventoEquipamentoDTO.de(evento)));
+        for (Assinante assinante : assinantes) {
+            if (assinante.filtro().aceita(evento)) {
+                enfileirar(assinante, mensagem);
+            }
+        }
+    }
+
+    // Eventos podem ter se perdido: os clientes precisam recarregar o que exibem
+    @EventListener
+    public void aoPerderSincronizacao(SincronizacaoPerdidaEvent evento) {
+        if (evento.entidade() != Equipamento.class) {
+            return;
+        }
+        Mensagem mensagem = new Mensagem(Long.toString(sequencia.incrementAndGet()), EVENTO_RESINCRONIZAR, "{}");
+        assinantes.forEach(assinante -> enfileirar(assinante, mensagem));
+    }
+
+    private String serializar(EventoEquipamentoDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Falha ao serializar evento do equipamento " + evento.id(), ex);
+        }
+    }
+
+    private void enfileirar(Assinante assinante, Mensagem mensagem) {
+        if (!assinante.fila().offer(mensagem)) {
+            desconectarPorLentidao(assinante);
+            return;
+        }
+        if (assinante.enviando().compareAndSet(false, true)) {
+            executar(() -> drenar(assinante));
+        }
+    }
+
+    // Quem publica nunca espera pelo cliente: complete() aguarda o envio em andamento, por isso roda em outra thread
+    private void desconectarPorLentidao(Assinante assinante) {
+        if (assinantes.remove(assinante)) {
+            desconectadosPorLentidao.increment();
+            logger.debug("Cliente de eventos desconectado por lentidão ({} eventos na fila)", capacidadeFila);
+            assinante.fila().clear();
+            executar(assinante.emitter()::complete);
+        }
+    }
+
+    private void drenar(Assinante assinante) {
+        while (true) {
+            Mensagem mensagem;
+            while ((mensagem = assinante.fila().poll()) != null) {
+                if (!assinantes.contains(assinante)) {
+                    return;
+                }
+                try {
+                    assinante.emitter().send(mensagem.paraEvento());
+                } catch (IOException | IllegalStateException ex) {
+                    // Cliente desconectado: o container notifica o emitter, que é finalizado por onError/onCompletion
+                    assinantes.remove(assinante);
+                    logger.debug("Falha ao enviar evento; cliente removido: {}", ex.getMessage());
+                    return;
+                }
+            }
+            assinante.enviando().set(false);
+            // Um evento pode ter entrado entre o último poll e o set(false); se outro envio já o pegou, este termina
+            if (assinante.fila().isEmpty() || !assinante.enviando().compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void executar(Runnable tarefa) {
+        try {
+            envios.execute(tarefa);
+        } catch (RejectedExecutionException ex) {
+            logger.debug("Envio de evento descartado: transmissor encerrado");
+        }
+    }
+
+    // Comentários periódicos nas conexões ociosas: mantêm proxies abertos e revelam clientes que já sumiram
+    private void enviarHeartbeats() {
+        while (executando) {
+            try {
+                Thread.sleep(intervaloHeartbeat);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (Assinante assinante : assinantes) {
+                if (assinante.fila().isEmpty()) {
+                    enfileirar(assinante, HEARTBEAT);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        heartbeat = Thread.ofVirtual().name("heartbeat-eventos-equipamentos").start(this::enviarHeartbeats);
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        if (heartbeat != null) {
+            heartbeat.interrupt();
+        }
+        for (Assinante assinante : assinantes) {
+            assinantes.remove(assinante);
+            executar(assinante.emitter()::complete);
+        }
+        envios.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    private record Assinante(SseEmitter emitter, Filtro filtro, BlockingQueue<Mensagem> fila, AtomicBoolean enviando) {
+        Assinante(SseEmitter emitter, Filtro filtro, BlockingQueue<Mensagem> fila) {
+            this(emitter, filtro, fila, new AtomicBoolean());
+        }
+
+        // Identidade da conexão: o record não deve comparar filas e filtros
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    // Nome nulo: comentário de heartbeat
+    private record Mensagem(String id, String nome, String dados) {
+        SseEmitter.SseEventBuilder paraEvento() {
+            if (nome == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder evento = SseEmitter.event().name(nome).data(dados);
+            return id != null ? evento.id(id) : evento;
+        }
+    }
+
+    private record Filtro(Set<TipoAlteracao> tipos, Set<String> ids) {
+        static Filtro de(String tipos, Collection<String> ids) {
+            Set<TipoAlteracao> tiposAceitos = EnumSet.allOf(TipoAlteracao.class);
+            if (StringUtils.hasText(tipos)) {
+                tiposAceitos = Arrays.stream(tipos.split(","))
+                        .map(String::trim)
+                        .filter(StringUtils::hasText)
+                        .map(Filtro::converterTipo)
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(TipoAlteracao.class)));
+            }
+            Set<String> idsAceitos = ids == null ? Set.of() : ids.stream()
+                    .filter(StringUtils::hasText)
+                    .map(String::trim)
+                    .collect(Collectors.toUnmodifiableSet());
+            return new Filtro(tiposAceitos, idsAceitos);
+        }
+
+        private static TipoAlteracao converterTipo(String tipo) {
+            try {
+                return TipoAlteracao.valueOf(tipo.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Tipo de evento inválido: '" + tipo + "'. Use criado, atualizado ou removido.", ex);
+            }
+        }
+
+        boolean aceita(EquipamentoAlteradoEvent evento) {
+            return tipos.contains(evento.tipo()) && (ids.isEmpty() || ids.contains(evento.id()));
+        }
+    }
+}
@@ -1,19 +1,46 @@
 package oliveiradev.inventario.interfaces.controller;
 
+import oliveiradev.inventario.application.dto.comum.PaginaCursorDTO;
+import oliveiradev.inventario.application.dto.equipamento.AlteracoesEquipamentosDTO;
+import oliveiradev.inventario.application.dto.equipamento.CampoEquipamento;
+import oliveiradev.inventario.application.dto.equipamento.ConsultaEmLoteDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoAtualizacaoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoCriacaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoParcialDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.FormatoExportacao;
+import oliveiradev.inventario.application.dto.equipamento.LogAlteracaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.ResultadoConsultaEmLoteDTO;
+import oliveiradev.inventario.application.dto.equipamento.SugestaoEquipamentoDTO;
+import oliveiradev.inventario.application.dto.equipamento.VisaoEquipamento;
 import oliveiradev.inventario.application.service.EquipamentoAppService;
+import oliveiradev.inventario.infra.web.TransmissorEventosEquipamentos;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,12 +48,17 @@ import java.util.Optional;
 @RequestMapping("/api/equipamentos")
 public class EquipamentoController {
     private static final Logger logger = LoggerFactory.getLogger(EquipamentoController.class);
+    // O navegador guarda a resposta mas revalida a cada uso, enviando If-None-Match com o ETag
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
 
     private final EquipamentoAppService equipamentoAppService;
+    private final TransmissorEventosEquipamentos transmissorEventos;
 
     @Autowired
-    public EquipamentoController(EquipamentoAppService equipamentoAppService) {
+    public EquipamentoController(EquipamentoAppService equipamentoAppService,
+                                 TransmissorEventosEquipamentos transmissorEventos) {
         this.equipamentoAppService = equipamentoAppService;
+        this.transmissorEventos = transmissorEventos;
     }
 
     @PostMapping
@@ -40,32 +72,146 @@ public class EquipamentoController {
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<EquipamentoRespostaDTO>> listarTodosEquipamentos() {
-        logger.info("Requisição para listar todos os equipamentos");
-        List<EquipamentoRespostaDTO> equipamentos = equipamentoAppService.listarTodosEquipamentos();
-        return ResponseEntity.ok(equipamentos);
+    public ResponseEntity<? extends PaginaCursorDTO<?>> listarEquipamentos(
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "visao", required = false) String visao,
+            @RequestParam(name = "fields", required = false) String fields,
+            WebRequest webRequest) {
+        logger.info("Requisição para listar equipamentos (after={}, limit={}, sort={}, visao={}, fields={})", after, limit, sort, visao, fields);
+        // ETag pela versão da coleção, lida antes da consulta: um If-None-Match igual é respondido com 304 sem ir ao Mongo
+        String etag = equipamentoAppService.versaoDaListagem().map(versao -> "\"" + versao + "\"").orElse(null);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        // ?fields= tem precedência sobre ?visao=: só os campos pedidos ("logs" inclui o histórico)
+        if (StringUtils.hasText(fields)) {
+            return responderPagina(equipamentoAppService.listarEquipamentosParciais(after, limit, sort,
+                    CampoEquipamento.listaDoParametro(fields)), etag);
+        }
+        // Por padrão devolve o resumo (sem logs); ?visao=completa embute as últimas entradas do histórico
+        // (app.equipamentos.historico.limite-embutido), e o histórico inteiro é paginado em /{id}/historico
+        if (VisaoEquipamento.fromParametro(visao) == VisaoEquipamento.COMPLETA) {
+            return responderPagina(equipamentoAppService.listarEquipamentosCompletos(after, limit, sort), etag);
+        }
+        return responderPagina(equipamentoAppService.listarEquipamentos(after, limit, sort), etag);
+    }
+
+    // Sincronização dos clientes offline: o custo depende do número de alterações desde 'since', não do tamanho do catálogo
+    @GetMapping("/changes")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<AlteracoesEquipamentosDTO> listarAlteracoes(
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        logger.info("Requisição de alterações de equipamentos (since={}, limit={})", since, limit);
+        return ResponseEntity.ok(equipamentoAppService.listarAlteracoes(since, limit));
+    }
+
+    // Painéis: recebem cada criação, atualização e remoção assim que gravada, em vez de consultar a listagem
+    @GetMapping("/stream")
+    @PreAuthorize("isAuthenticated()")
+    public SseEmitter acompanharAlteracoes(
+            @RequestParam(name = "tipos", required = false) String tipos,
+            @RequestParam(name = "ids", required = false) List<String> ids) {
+        logger.info("Nova conexão de eventos de equipamentos (tipos={}, ids={})", tipos, ids);
+        return transmissorEventos.conectar(tipos, ids);
+    }
+
+    // Busca por relevância no índice de texto; ?modo=regex usa a busca antiga por trecho do nome
+    @GetMapping("/busca")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaginaCursorDTO<EquipamentoResumoDTO>> buscarEquipamentos(
+            @RequestParam(name = "q") String q,
+            @RequestParam(name = "modo", required = false) String modo,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        logger.info("Requisição para buscar equipamentos (q={}, modo={}, after={}, limit={})", q, modo, after, limit);
+        return responderPagina(equipamentoAppService.buscarEquipamentos(q, modo, after, limit));
+    }
+
+    // Chamado a cada tecla na caixa de busca: respondido da memória, sem ida ao Mongo
+    @GetMapping("/autocomplete")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<SugestaoEquipamentoDTO>> sugerirEquipamentos(
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        logger.debug("Requisição de autocomplete (q={}, limit={})", q, limit);
+        return ResponseEntity.ok(equipamentoAppService.sugerirEquipamentos(q, limit));
+    }
+
+    // Leitura em lote (ex.: um palete inteiro no recebimento): POST apenas para levar a lista no corpo, não altera nada
+    @PostMapping("/batch-lookup")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ResultadoConsultaEmLoteDTO> consultarEmLote(@Valid @RequestBody ConsultaEmLoteDTO consulta) {
+        logger.info("Requisição de consulta em lote ({} ids, {} números de série)",
+                consulta.ids() != null ? consulta.ids().size() : 0,
+                consulta.numerosDeSerie() != null ? consulta.numerosDeSerie().size() : 0);
+        return ResponseEntity.ok(equipamentoAppService.consultarEmLote(consulta));
+    }
+
+    // Escreve direto na resposta enquanto lê o cursor do Mongo: o uso de heap não depende do tamanho da coleção
+    @GetMapping("/export")
+    @PreAuthorize("isAuthenticated()")
+    public void exportarEquipamentos(@RequestParam(name = "format", required = false) String format,
+                                     HttpServletResponse response) throws IOException {
+        FormatoExportacao formato = FormatoExportacao.fromParametro(format);
+        logger.info("Requisição para exportar equipamentos no formato {}", formato.getParametro());
+
+        response.setContentType(formato.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"equipamentos." + formato.getExtensao() + "\"");
+        equipamentoAppService.exportarEquipamentos(formato, response.getOutputStream());
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<EquipamentoRespostaDTO> buscarEquipamentoPorId(@PathVariable String id) {
-        logger.info("Requisição para buscar equipamento por ID: {}", id);
-        Optional<EquipamentoRespostaDTO> dtoOptional = equipamentoAppService.buscarEquipamentoPorId(id);
-        return dtoOptional
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> buscarEquipamentoPorId(
+            @PathVariable String id,
+            @RequestParam(name = "fields", required = false) String fields) {
+        logger.info("Requisição para buscar equipamento por ID: {} (fields={})", id, fields);
+        Optional<ResponseEntity<?>> resposta = StringUtils.hasText(fields)
+                ? equipamentoAppService.buscarEquipamentoParcialPorId(id, CampoEquipamento.listaDoParametro(fields))
+                        .map(EquipamentoController::responderParcial)
+                : equipamentoAppService.buscarEquipamentoPorId(id)
+                        .map(EquipamentoController::responderComHistorico);
+        return resposta
                 .orElseGet(() -> {
                     logger.warn("Equipamento com ID: {} não encontrado.", id);
                     return ResponseEntity.notFound().build();
                 });
     }
 
+    @GetMapping("/{id}/historico")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PaginaCursorDTO<LogAlteracaoDTO>> listarHistorico(
+            @PathVariable String id,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        logger.info("Requisição para listar histórico do equipamento ID: {} (after={}, limit={})", id, after, limit);
+        return responderPagina(equipamentoAppService.listarHistorico(id, after, limit));
+    }
+
+    // Rota dos leitores de código de barras: o resumo padrão pode ser respondido pelo índice em memória
     @GetMapping("/serial/{numeroDeSerie}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<EquipamentoRespostaDTO> buscarEquipamentoPorNumeroDeSerie(@PathVariable String numeroDeSerie) {
-        logger.info("Requisição para buscar equipamento por Número de Série: {}", numeroDeSerie);
-        Optional<EquipamentoRespostaDTO> dtoOptional = equipamentoAppService.buscarEquipamentoPorNumeroDeSerie(numeroDeSerie);
-        return dtoOptional
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> buscarEquipamentoPorNumeroDeSerie(
+            @PathVariable String numeroDeSerie,
+            @RequestParam(name = "visao", required = false) String visao,
+            @RequestParam(name = "fields", required = false) String fields) {
+        logger.debug("Requisição para buscar equipamento por Número de Série: {} (visao={}, fields={})", numeroDeSerie, visao, fields);
+        Optional<ResponseEntity<?>> resposta;
+        if (StringUtils.hasText(fields)) {
+            resposta = equipamentoAppService.buscarEquipamentoParcialPorNumeroDeSerie(numeroDeSerie, CampoEquipamento.listaDoParametro(fields))
+                    .map(EquipamentoController::responderParcial);
+        } else {
+            resposta = VisaoEquipamento.fromParametro(visao) == VisaoEquipamento.COMPLETA
+                    ? equipamentoAppService.buscarEquipamentoPorNumeroDeSerie(numeroDeSerie)
+                            .map(EquipamentoController::responderComHistorico)
+                    : equipamentoAppService.buscarResumoPorNumeroDeSerie(numeroDeSerie)
+                            .map(dto -> responderComVersao(dto, dto.versao()));
+        }
+        return resposta
                 .orElseGet(() -> {
                     logger.warn("Equipamento com Número de Série: {} não encontrado.", numeroDeSerie);
                     return ResponseEntity.notFound().build();
@@ -90,4 +236,64 @@ public class EquipamentoController {
         logger.info("Equipamento ID: {} deletado com sucesso.", id);
         return ResponseEntity.noContent().build();
     }
+
+    // ETag forte pela versão do documento. Com If-None-Match igual o Spring responde 304 sem serializar o corpo.
+    private static <T> ResponseEntity<T> responderComVersao(T corpo, Long versao) {
+        return responderComEtag(corpo, versao != null ? versao.toString() : null);
+    }
+
+    // O histórico é gravado em uma segunda etapa, depois de a versão mudar: uma leitura entre as duas teria o ETag
+    // da nova versão sem a nova entrada. A quantidade de entradas entra no ETag (como na chave do CacheJsonEquipamentos).
+    private static ResponseEntity<EquipamentoRespostaDTO> responderComHistorico(EquipamentoRespostaDTO dto) {
+        return responderComEtag(dto, dto.versao() != null ? dto.versao() + "-" + dto.logs().size() : null);
+    }
+
+    private static ResponseEntity<EquipamentoParcialDTO> responderParcial(EquipamentoParcialDTO dto) {
+        if (dto.versao() != null && dto.campos().get(CampoEquipamento.LOGS.getParametro()) instanceof Collection<?> logs) {
+            return responderComEtag(dto, dto.versao() + "-" + logs.size());
+        }
+        return responderComVersao(dto, dto.versao());
+    }
+
+    private static <T> ResponseEntity<T> responderComEtag(T corpo, String etag) {
+        if (etag == null) {
+            return ResponseEntity.ok(corpo);
+        }
+        return ResponseEntity.ok()
+                .eTag("\"" + etag + "\"")
+                .cacheControl(REVALIDAR)
+                .body(corpo);
+    }
+
+    private <T> ResponseEntity<PaginaCursorDTO<T>> responderPagina(PaginaCursorDTO<T> pagina) {
+        return responderPagina(pagina, null);
+    }
+
+    // Preenche o link da próxima página no corpo e no header Link (rel="next"), preservando os demais parâmetros.
+    // Os parâmetros vêm do mapa da requisição, não da query string crua: assim nada do que o handler recebeu se perde
+    private <T> ResponseEntity<PaginaCursorDTO<T>> responderPagina(PaginaCursorDTO<T> pagina, String etag) {
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok();
+        if (etag != null) {
+            resposta.eTag(etag).cacheControl(REVALIDAR);
+        }
+        if (!pagina.temProximaPagina()) {
+            return resposta.body(pagina);
+        }
+        HttpServletRequest requisicao = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        UriComponentsBuilder link = ServletUriComponentsBuilder.fromCurrentRequestUri();
+        requisicao.getParameterMap().forEach((nome, valores) -> {
+            if (!"after".equals(nome)) {
+                for (String valor : valores) {
+                    link.queryParam(nome, UriUtils.encodeQueryParam(valor, StandardCharsets.UTF_8));
+                }
+            }
+        });
+        String proximaPagina = link
+                .queryParam("after", UriUtils.encodeQueryParam(pagina.proximoCursor(), StandardCharsets.UTF_8))
+                .build()
+                .toUriString();
+        return resposta
+                .header(HttpHeaders.LINK, "<" + proximaPagina + ">; rel=\"next\"")
+                .body(pagina.comProximaPagina(proximaPagina));
+    }
 }
\ No newline at end of file
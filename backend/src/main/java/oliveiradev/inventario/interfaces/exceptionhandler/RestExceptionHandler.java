@@ -1,8 +1,10 @@
 package oliveiradev.inventario.interfaces.exceptionhandler;
 
+import oliveiradev.inventario.application.exception.ConflitoDeVersaoException;
 import oliveiradev.inventario.application.exception.EmailJaCadastradoException;
 import oliveiradev.inventario.application.exception.RecursoNaoEncontradoException;
 import oliveiradev.inventario.application.exception.RegraDeNegocioException;
+import oliveiradev.inventario.application.exception.ServicoSobrecarregadoException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +41,16 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
             String name,
             String message) {}
 
+    // Resposta de conflito: além do erro, devolve o estado atual para o cliente refazer a edição
+    public record ApiConflictResponse(
+            Integer status,
+            OffsetDateTime timestamp,
+            String type,
+            String title,
+            String detail,
+            Object current
+    ) {}
+
     @ExceptionHandler(RecursoNaoEncontradoException.class)
     public ResponseEntity<Object> handleRecursoNaoEncontrado(RecursoNaoEncontradoException ex, WebRequest request) {
         HttpStatus status = HttpStatus.NOT_FOUND;
@@ -67,6 +79,20 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(ex, body, new HttpHeaders(), status, request);
     }
 
+    @ExceptionHandler(ConflitoDeVersaoException.class)
+    public ResponseEntity<Object> handleConflitoDeVersao(ConflitoDeVersaoException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.CONFLICT;
+        ApiConflictResponse body = new ApiConflictResponse(
+                status.value(),
+                OffsetDateTime.now(),
+                "urn:oliveiradev:erro:conflito-de-versao",
+                "Conflito de versão",
+                ex.getMessage(),
+                ex.getEstadoAtual());
+        logger.warn("Conflito de versão: {}", ex.getMessage());
+        return handleExceptionInternal(ex, body, new HttpHeaders(), status, request);
+    }
+
     @ExceptionHandler(RegraDeNegocioException.class)
     public ResponseEntity<Object> handleRegraDeNegocio(RegraDeNegocioException ex, WebRequest request) {
         HttpStatus status = HttpStatus.BAD_REQUEST;
@@ -81,6 +107,24 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(ex, body, new HttpHeaders(), status, request);
     }
 
+    @ExceptionHandler(ServicoSobrecarregadoException.class)
+    public ResponseEntity<Object> handleServicoSobrecarregado(ServicoSobrecarregadoException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        ApiErrorResponse body = new ApiErrorResponse(
+                status.value(),
+                OffsetDateTime.now(),
+                "urn:oliveiradev:erro:servico-sobrecarregado",
+                "Serviço sobrecarregado",
+                ex.getMessage(),
+                null);
+        HttpHeaders headers = new HttpHeaders();
+        if (ex.getTentarNovamenteEm() != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getTentarNovamenteEm().toSeconds())));
+        }
+        logger.warn("Serviço sobrecarregado: {}", ex.getMessage());
+        return handleExceptionInternal(ex, body, headers, status, request);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Object> handleIllegalArgument(IllegalArgumentException ex, WebRequest request) {
         HttpStatus status = HttpStatus.BAD_REQUEST;
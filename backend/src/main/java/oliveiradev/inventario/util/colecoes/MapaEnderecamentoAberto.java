@@ -0,0 +1,170 @@
+package oliveiradev.inventario.util.colecoes;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+// Mapa String -> V com endereçamento aberto (sondagem linear) em dois arrays paralelos.
+// Sem objetos de entrada por chave como no HashMap: para milhões de chaves curtas o custo fixo por entrada cai
+// para duas referências. NÃO é thread-safe; quem usa é responsável pela sincronização.
+public final class MapaEnderecamentoAberto<V> {
+    private static final int CAPACIDADE_MINIMA = 16;
+    private static final float FATOR_CARGA = 0.7f;
+    // Marca de posição removida: mantém a sequência de sondagem das chaves seguintes. Comparada por identidade.
+    private static final String LAPIDE = new String("<removido>");
+
+    private String[] chaves;
+    private Object[] valores;
+    private int tamanho;  // Chaves vivas
+    private int ocupados; // Chaves vivas + lápides
+    private int limiteRedimensionamento;
+
+    public MapaEnderecamentoAberto() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    public MapaEnderecamentoAberto(int capacidadeEsperada) {
+        inicializar(capacidadePara(capacidadeEsperada));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(String chave) {
+        int indice = localizar(Objects.requireNonNull(chave, "Chave não pode ser nula."));
+        return indice >= 0 ? (V) valores[indice] : null;
+    }
+
+    // Devolve o valor anterior, ou null se a chave não existia
+    @SuppressWarnings("unchecked")
+    public V put(String chave, V valor) {
+        Objects.requireNonNull(chave, "Chave não pode ser nula.");
+        Objects.requireNonNull(valor, "Valor não pode ser nulo.");
+        int mascara = chaves.length - 1;
+        int indice = espalhar(chave.hashCode()) & mascara;
+        int primeiraLapide = -1;
+        while (true) {
+            String atual = chaves[indice];
+            if (atual == null) {
+                break;
+            }
+            if (atual == LAPIDE) {
+                if (primeiraLapide < 0) {
+                    primeiraLapide = indice;
+                }
+            } else if (atual.equals(chave)) {
+                V anterior = (V) valores[indice];
+                valores[indice] = valor;
+                return anterior;
+            }
+            indice = (indice + 1) & mascara;
+        }
+
+        if (primeiraLapide >= 0) {
+            indice = primeiraLapide; // Reaproveita a lápide: 'ocupados' não muda
+        } else {
+            ocupados++;
+        }
+        chaves[indice] = chave;
+        valores[indice] = valor;
+        tamanho++;
+        if (ocupados > limiteRedimensionamento) {
+            redimensionar();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(String chave) {
+        int indice = localizar(Objects.requireNonNull(chave, "Chave não pode ser nula."));
+        if (indice < 0) {
+            return null;
+        }
+        V anterior = (V) valores[indice];
+        chaves[indice] = LAPIDE;
+        valores[indice] = null;
+        tamanho--;
+        return anterior;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public int capacidade() {
+        return chaves.length;
+    }
+
+    public void clear() {
+        inicializar(CAPACIDADE_MINIMA);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<String, V> acao) {
+        for (int i = 0; i < chaves.length; i++) {
+            String chave = chaves[i];
+            if (chave != null && chave != LAPIDE) {
+                acao.accept(chave, (V) valores[i]);
+            }
+        }
+    }
+
+    private int localizar(String chave) {
+        int mascara = chaves.length - 1;
+        int indice = espalhar(chave.hashCode()) & mascara;
+        while (true) {
+            String atual = chaves[indice];
+            if (atual == null) {
+                return -1;
+            }
+            if (atual != LAPIDE && atual.equals(chave)) {
+                return indice;
+            }
+            indice = (indice + 1) & mascara;
+        }
+    }
+
+    // Dobra a capacidade se o mapa está cheio de chaves vivas; se a carga vem das lápides, só as descarta
+    private void redimensionar() {
+        String[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        int novaCapacidade = tamanho >= (int) (chavesAntigas.length * FATOR_CARGA) / 2
+                ? chavesAntigas.length * 2
+                : chavesAntigas.length;
+        inicializar(novaCapacidade);
+        int mascara = novaCapacidade - 1;
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            String chave = chavesAntigas[i];
+            if (chave != null && chave != LAPIDE) {
+                int indice = espalhar(chave.hashCode()) & mascara;
+                while (chaves[indice] != null) {
+                    indice = (indice + 1) & mascara;
+                }
+                chaves[indice] = chave;
+                valores[indice] = valoresAntigos[i];
+                tamanho++;
+                ocupados++;
+            }
+        }
+    }
+
+    private void inicializar(int capacidade) {
+        this.chaves = new String[capacidade];
+        this.valores = new Object[capacidade];
+        this.tamanho = 0;
+        this.ocupados = 0;
+        this.limiteRedimensionamento = (int) (capacidade * FATOR_CARGA);
+    }
+
+    private static int capacidadePara(int capacidadeEsperada) {
+        int necessaria = (int) Math.ceil(Math.max(capacidadeEsperada, 1) / FATOR_CARGA);
+        int capacidade = Integer.highestOneBit(Math.max(necessaria, CAPACIDADE_MINIMA) - 1) << 1;
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade esperada muito grande: " + capacidadeEsperada);
+        }
+        return capacidade;
+    }
+
+    // Números de série costumam compartilhar prefixos; o espalhamento evita agrupamentos na sondagem linear
+    private static int espalhar(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
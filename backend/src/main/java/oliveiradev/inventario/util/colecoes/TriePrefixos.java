@@ -0,0 +1,173 @@
+package oliveiradev.inventario.util.colecoes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+// Trie de prefixos em que cada nó guarda os 'maxPorNo' melhores valores da sua subárvore, já ordenados.
+// Uma consulta custa o tamanho do prefixo, independentemente de quantas chaves começam com ele.
+// Filhos em arrays ordenados por caractere (busca binária) em vez de um mapa por nó.
+// NÃO é thread-safe; quem usa é responsável pela sincronização.
+public final class TriePrefixos<V> {
+    private final int maxPorNo;
+    private final Comparator<? super V> ordem; // Melhor primeiro
+    private final No<V> raiz = new No<>();
+    private int quantidadeNos = 1;
+
+    public TriePrefixos(int maxPorNo, Comparator<? super V> ordem) {
+        if (maxPorNo < 1) {
+            throw new IllegalArgumentException("A quantidade de valores por nó deve ser maior que zero.");
+        }
+        this.maxPorNo = maxPorNo;
+        this.ordem = Objects.requireNonNull(ordem, "Ordem dos valores não pode ser nula.");
+    }
+
+    public void inserir(String chave, V valor) {
+        Objects.requireNonNull(chave, "Chave não pode ser nula.");
+        Objects.requireNonNull(valor, "Valor não pode ser nulo.");
+        No<V> no = raiz;
+        oferecer(no, valor);
+        for (int i = 0; i < chave.length(); i++) {
+            No<V> filho = no.filho(chave.charAt(i));
+            if (filho == null) {
+                filho = no.adicionarFilho(chave.charAt(i));
+                quantidadeNos++;
+            }
+            no = filho;
+            oferecer(no, valor);
+        }
+        if (no.valores == null) {
+            no.valores = new ArrayList<>(1);
+        }
+        no.valores.add(valor);
+    }
+
+    // Remove uma ocorrência do valor sob a chave; devolve false se ela não existia
+    public boolean remover(String chave, V valor) {
+        Objects.requireNonNull(chave, "Chave não pode ser nula.");
+        Objects.requireNonNull(valor, "Valor não pode ser nulo.");
+        @SuppressWarnings("unchecked")
+        No<V>[] caminho = new No[chave.length() + 1];
+        caminho[0] = raiz;
+        for (int i = 0; i < chave.length(); i++) {
+            caminho[i + 1] = caminho[i].filho(chave.charAt(i));
+            if (caminho[i + 1] == null) {
+                return false;
+            }
+        }
+        No<V> folha = caminho[chave.length()];
+        if (folha.valores == null || !folha.valores.remove(valor)) {
+            return false;
+        }
+        if (folha.valores.isEmpty()) {
+            folha.valores = null;
+        }
+        // Da folha para a raiz: descarta nós vazios e recalcula os melhores onde o valor removido aparecia
+        for (int i = chave.length(); i >= 0; i--) {
+            No<V> no = caminho[i];
+            if (i > 0 && no.valores == null && no.quantidadeFilhos == 0) {
+                caminho[i - 1].removerFilho(chave.charAt(i - 1));
+                quantidadeNos--;
+            } else if (no.melhores.contains(valor)) {
+                recalcularMelhores(no);
+            }
+        }
+        return true;
+    }
+
+    // Até 'limite' valores (no máximo 'maxPorNo') cujas chaves começam com o prefixo, do melhor para o pior
+    public List<V> buscar(String prefixo, int limite) {
+        Objects.requireNonNull(prefixo, "Prefixo não pode ser nulo.");
+        No<V> no = raiz;
+        for (int i = 0; i < prefixo.length() && no != null; i++) {
+            no = no.filho(prefixo.charAt(i));
+        }
+        if (no == null || limite < 1) {
+            return List.of();
+        }
+        return List.copyOf(no.melhores.subList(0, Math.min(limite, no.melhores.size())));
+    }
+
+    public int getMaxPorNo() {
+        return maxPorNo;
+    }
+
+    public int quantidadeNos() {
+        return quantidadeNos;
+    }
+
+    // Insere o valor na lista ordenada do nó, se couber entre os melhores e ainda não estiver nela
+    private void oferecer(No<V> no, V valor) {
+        List<V> melhores = no.melhores;
+        if (melhores.contains(valor)) {
+            return;
+        }
+        int posicao = 0;
+        while (posicao < melhores.size() && ordem.compare(melhores.get(posicao), valor) <= 0) {
+            posicao++;
+        }
+        if (posicao >= maxPorNo) {
+            return;
+        }
+        melhores.add(posicao, valor);
+        if (melhores.size() > maxPorNo) {
+            melhores.remove(melhores.size() - 1);
+        }
+    }
+
+    // Os melhores de um nó estão entre os seus próprios valores e os melhores de cada filho
+    private void recalcularMelhores(No<V> no) {
+        no.melhores.clear();
+        if (no.valores != null) {
+            no.valores.forEach(valor -> oferecer(no, valor));
+        }
+        for (int i = 0; i < no.quantidadeFilhos; i++) {
+            no.filhos[i].melhores.forEach(valor -> oferecer(no, valor));
+        }
+    }
+
+    private static final class No<V> {
+        private static final char[] SEM_ROTULOS = new char[0];
+
+        private char[] rotulos = SEM_ROTULOS;
+        private No<V>[] filhos;
+        private int quantidadeFilhos;
+        private List<V> valores; // Valores cuja chave termina neste nó; nulo se nenhum
+        private final List<V> melhores = new ArrayList<>(2);
+
+        No<V> filho(char rotulo) {
+            int indice = Arrays.binarySearch(rotulos, 0, quantidadeFilhos, rotulo);
+            return indice >= 0 ? filhos[indice] : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        No<V> adicionarFilho(char rotulo) {
+            int posicao = -(Arrays.binarySearch(rotulos, 0, quantidadeFilhos, rotulo) + 1);
+            if (quantidadeFilhos == rotulos.length) {
+                int novaCapacidade = Math.max(2, rotulos.length * 2);
+                rotulos = Arrays.copyOf(rotulos, novaCapacidade);
+                filhos = filhos == null ? new No[novaCapacidade] : Arrays.copyOf(filhos, novaCapacidade);
+            }
+            System.arraycopy(rotulos, posicao, rotulos, posicao + 1, quantidadeFilhos - posicao);
+            System.arraycopy(filhos, posicao, filhos, posicao + 1, quantidadeFilhos - posicao);
+            No<V> filho = new No<>();
+            rotulos[posicao] = rotulo;
+            filhos[posicao] = filho;
+            quantidadeFilhos++;
+            return filho;
+        }
+
+        void removerFilho(char rotulo) {
+            int indice = Arrays.binarySearch(rotulos, 0, quantidadeFilhos, rotulo);
+            if (indice < 0) {
+                return;
+            }
+            System.arraycopy(rotulos, indice + 1, rotulos, indice, quantidadeFilhos - indice - 1);
+            System.arraycopy(filhos, indice + 1, filhos, indice, quantidadeFilhos - indice - 1);
+            quantidadeFilhos--;
+            filhos[quantidadeFilhos] = null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package oliveiradev.inventario.util.concorrencia;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Chamadas simultâneas com a mesma chave compartilham uma única execução da consulta ("single flight"): a primeira
+// executa, as que chegam enquanto ela está em andamento aguardam o mesmo resultado (ou a mesma exceção).
+// Nada é guardado depois que a consulta termina; a próxima chamada executa de novo. Por isso o valor
+// compartilhado deve ser imutável.
+public final class ConsultasCompartilhadas<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+    private final LongAdder executadas = new LongAdder();
+    private final LongAdder compartilhadas = new LongAdder();
+
+    public V executar(K chave, Supplier<V> consulta) {
+        CompletableFuture<V> nova = new CompletableFuture<>();
+        CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, nova);
+        if (existente != null) {
+            compartilhadas.increment();
+            return aguardar(existente);
+        }
+        executadas.increment();
+        try {
+            V valor = consulta.get();
+            nova.complete(valor);
+            return valor;
+        } catch (RuntimeException | Error ex) {
+            nova.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            emAndamento.remove(chave, nova);
+        }
+    }
+
+    // As chamadas seguintes não se juntam mais à consulta em andamento (ex.: ela começou antes de uma escrita
+    // e pode devolver o valor anterior); quem já aguarda recebe o resultado normalmente
+    public void esquecer(K chave) {
+        emAndamento.remove(chave);
+    }
+
+    public void esquecerTodas() {
+        emAndamento.clear();
+    }
+
+    public long getExecutadas() {
+        return executadas.sum();
+    }
+
+    public long getCompartilhadas() {
+        return compartilhadas.sum();
+    }
+
+    public int getEmAndamento() {
+        return emAndamento.size();
+    }
+
+    private static <V> V aguardar(CompletableFuture<V> consulta) {
+        try {
+            return consulta.join();
+        } catch (CompletionException ex) {
+            // A exceção original da consulta, como se esta chamada a tivesse executado
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (ex.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw ex;
+        }
+    }
+}
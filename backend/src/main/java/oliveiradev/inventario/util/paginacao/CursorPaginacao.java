@@ -0,0 +1,35 @@
+package oliveiradev.inventario.util.paginacao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+// Cursor opaco da paginação por keyset: chave de ordenação + último valor + último id, em Base64 URL-safe
+public record CursorPaginacao(String ordenacao, String id, String valor) {
+    private static final String SEPARADOR = "|";
+
+    public CursorPaginacao {
+        Objects.requireNonNull(ordenacao, "Ordenação do cursor não pode ser nula.");
+        Objects.requireNonNull(id, "ID do cursor não pode ser nulo.");
+    }
+
+    public String codificar() {
+        // O valor vai por último: pode conter o separador sem ambiguidade (ex.: nomes de equipamentos)
+        String conteudo = ordenacao + SEPARADOR + id + SEPARADOR + (valor != null ? valor : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(conteudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorPaginacao decodificar(String token) {
+        Objects.requireNonNull(token, "Cursor não pode ser nulo.");
+        try {
+            String conteudo = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] partes = conteudo.split("\\" + SEPARADOR, 3);
+            if (partes.length != 3 || partes[0].isEmpty() || partes[1].isEmpty()) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+            return new CursorPaginacao(partes[0], partes[1], partes[2].isEmpty() ? null : partes[2]);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.", ex);
+        }
+    }
+}
@@ -3,7 +3,7 @@ package oliveiradev.inventario;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.mongo.indices.criar-na-subida=false") // Sobe sem Mongo
 class StartupTests {
 
 	@Test
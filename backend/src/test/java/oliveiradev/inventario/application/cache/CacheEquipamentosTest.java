@@ -0,0 +1,115 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheEquipamentosTest {
+    private SimpleMeterRegistry meterRegistry;
+    private CacheEquipamentos cache;
+    private AtomicInteger consultas;
+    private Function<String, Optional<EquipamentoRespostaDTO>> carregar;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CacheEquipamentos(true, 100, Duration.ofMinutes(5), meterRegistry);
+        consultas = new AtomicInteger();
+        carregar = id -> {
+            consultas.incrementAndGet();
+            return id.startsWith("inexistente") ? Optional.empty() : Optional.of(resposta(id, "SN-" + id));
+        };
+    }
+
+    private EquipamentoRespostaDTO resposta(String id, String numeroDeSerie) {
+        return new EquipamentoRespostaDTO(id, "Monitor", numeroDeSerie, null, LocalDateTime.now(), LocalDateTime.now(),
+                "user@test.com", "user@test.com", 0L, List.of());
+    }
+
+    @Test
+    @DisplayName("Deve consultar a origem apenas na primeira leitura e registrar acertos e falhas")
+    void buscarPorId_SegundaLeitura_DeveVirDoCache() {
+        assertTrue(cache.buscarPorId("id1", carregar).isPresent());
+        assertTrue(cache.buscarPorId("id1", carregar).isPresent());
+
+        assertEquals(1, consultas.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "equipamentos.porId").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "equipamentos.porId").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar equipamentos inexistentes")
+    void buscarPorId_Inexistente_NaoDeveGuardar() {
+        assertTrue(cache.buscarPorId("inexistente", carregar).isEmpty());
+        assertTrue(cache.buscarPorId("inexistente", carregar).isEmpty());
+
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Deve invalidar as entradas por id e por número de série do equipamento alterado")
+    void aoAlterarEquipamento_DeveInvalidarIdENumeroDeSerie() {
+        cache.buscarPorId("id1", carregar);
+        cache.buscarPorNumeroDeSerie("SN-id1", serial -> carregar.apply("id1"));
+        cache.buscarPorId("id2", carregar);
+
+        cache.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id1", "SN-id1"));
+        cache.buscarPorId("id1", carregar);
+        cache.buscarPorNumeroDeSerie("SN-id1", serial -> carregar.apply("id1"));
+        cache.buscarPorId("id2", carregar);
+
+        assertEquals(5, consultas.get()); // id2 continua em cache
+    }
+
+    @Test
+    @DisplayName("Remoção vinda do change stream sem número de série deve invalidar a entrada pelo id do valor em cache")
+    void aoAlterarEquipamento_RemocaoSemNumeroDeSerie_DeveInvalidarPeloId() {
+        cache.buscarPorNumeroDeSerie("SN-id1", serial -> carregar.apply("id1"));
+        cache.buscarPorNumeroDeSerie("SN-id2", serial -> carregar.apply("id2"));
+
+        cache.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id1", null).vindoDoChangeStream());
+        cache.buscarPorNumeroDeSerie("SN-id1", serial -> carregar.apply("id1"));
+        cache.buscarPorNumeroDeSerie("SN-id2", serial -> carregar.apply("id2"));
+
+        assertEquals(3, consultas.get()); // SN-id2 continua em cache
+    }
+
+    @Test
+    @DisplayName("Sincronização perdida de equipamentos deve esvaziar o cache")
+    void aoPerderSincronizacao_DeveInvalidarTudo() {
+        cache.buscarPorId("id1", carregar);
+
+        cache.aoPerderSincronizacao(new SincronizacaoPerdidaEvent(Equipamento.class));
+        cache.buscarPorId("id1", carregar);
+
+        assertEquals(2, consultas.get());
+    }
+
+    @Test
+    @DisplayName("Desabilitado, deve sempre consultar a origem")
+    void desabilitado_DeveSempreConsultarOrigem() {
+        CacheEquipamentos desabilitado = new CacheEquipamentos(false, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+        desabilitado.buscarPorId("id1", carregar);
+        desabilitado.buscarPorId("id1", carregar);
+
+        assertEquals(2, consultas.get());
+    }
+}
@@ -0,0 +1,95 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.LogAlteracaoDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheJsonEquipamentosTest {
+    private CacheJsonEquipamentos cache;
+    private AtomicInteger serializacoes;
+    private Function<Object, byte[]> serializar;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CacheJsonEquipamentos(true, DataSize.ofMegabytes(1), Duration.ofMinutes(5), new SimpleMeterRegistry());
+        serializacoes = new AtomicInteger();
+        serializar = dto -> {
+            serializacoes.incrementAndGet();
+            return dto.toString().getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    private EquipamentoResumoDTO resumo(String id, Long versao) {
+        return new EquipamentoResumoDTO(id, "Monitor", "SN-" + id, null, LocalDateTime.now(), LocalDateTime.now(),
+                "user@test.com", "user@test.com", versao);
+    }
+
+    private EquipamentoRespostaDTO resposta(String id, long versao, int quantidadeLogs) {
+        List<LogAlteracaoDTO> logs = IntStream.range(0, quantidadeLogs)
+                .mapToObj(i -> new LogAlteracaoDTO(LocalDateTime.now(), "user@test.com", "Alteração " + i))
+                .toList();
+        return new EquipamentoRespostaDTO(id, "Monitor", "SN-" + id, null, LocalDateTime.now(), LocalDateTime.now(),
+                "user@test.com", "user@test.com", versao, logs);
+    }
+
+    @Test
+    @DisplayName("Deve serializar cada versão uma única vez")
+    void obter_MesmaVersao_DeveSerializarUmaVez() {
+        byte[] primeiro = cache.obter(resumo("id1", 1L), serializar);
+        byte[] segundo = cache.obter(resumo("id1", 1L), serializar);
+        cache.obter(resumo("id1", 2L), serializar);
+
+        assertSame(primeiro, segundo);
+        assertEquals(2, serializacoes.get());
+    }
+
+    @Test
+    @DisplayName("Na visão completa, uma entrada nova no histórico deve gerar outro JSON mesmo na mesma versão")
+    void obter_HistoricoMaior_DeveSerializarNovamente() {
+        cache.obter(resposta("id1", 1L, 1), serializar);
+        cache.obter(resposta("id1", 1L, 2), serializar);
+        cache.obter(resposta("id1", 1L, 2), serializar);
+
+        assertEquals(2, serializacoes.get());
+    }
+
+    @Test
+    @DisplayName("Não deve guardar equipamentos sem versão nem outros objetos")
+    void obter_SemVersao_NaoDeveGuardar() {
+        cache.obter(resumo("id1", null), serializar);
+        cache.obter(resumo("id1", null), serializar);
+
+        assertFalse(cache.suporta(resumo("id1", null)));
+        assertFalse(cache.suporta("texto"));
+        assertEquals(2, serializacoes.get());
+    }
+
+    @Test
+    @DisplayName("Desabilitado, deve sempre serializar")
+    void desabilitado_DeveSempreSerializar() {
+        CacheJsonEquipamentos desabilitado = new CacheJsonEquipamentos(false, DataSize.ofMegabytes(1), Duration.ofMinutes(5),
+                new SimpleMeterRegistry());
+
+        desabilitado.obter(resumo("id1", 1L), serializar);
+        desabilitado.obter(resumo("id1", 1L), serializar);
+
+        assertFalse(desabilitado.suporta(resumo("id1", 1L)));
+        assertEquals(2, serializacoes.get());
+    }
+}
@@ -0,0 +1,46 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.SincronizacaoPerdidaEvent;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.model.usuarios.Usuario;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContadorAlteracoesEquipamentosTest {
+
+    @Test
+    @DisplayName("A versão deve mudar a cada alteração e a cada sincronização perdida de equipamentos")
+    void versaoAtual_DeveMudarComAlteracoes() {
+        ContadorAlteracoesEquipamentos contador = new ContadorAlteracoesEquipamentos(true);
+        String inicial = contador.versaoAtual().orElseThrow();
+
+        assertEquals(inicial, contador.versaoAtual().orElseThrow());
+
+        contador.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id1", "SN-1"));
+        String aposAlteracao = contador.versaoAtual().orElseThrow();
+        assertNotEquals(inicial, aposAlteracao);
+
+        contador.aoPerderSincronizacao(new SincronizacaoPerdidaEvent(Usuario.class));
+        assertEquals(aposAlteracao, contador.versaoAtual().orElseThrow());
+
+        contador.aoPerderSincronizacao(new SincronizacaoPerdidaEvent(Equipamento.class));
+        assertNotEquals(aposAlteracao, contador.versaoAtual().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Instâncias diferentes não devem produzir a mesma versão")
+    void versaoAtual_InstanciasDiferentes_DevemDiferir() {
+        assertNotEquals(new ContadorAlteracoesEquipamentos(true).versaoAtual(),
+                new ContadorAlteracoesEquipamentos(true).versaoAtual());
+    }
+
+    @Test
+    @DisplayName("Desabilitado, não deve ter versão")
+    void desabilitado_NaoDeveTerVersao() {
+        assertTrue(new ContadorAlteracoesEquipamentos(false).versaoAtual().isEmpty());
+    }
+}
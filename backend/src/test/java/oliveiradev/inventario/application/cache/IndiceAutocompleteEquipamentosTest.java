@@ -0,0 +1,71 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.SugestaoEquipamentoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceAutocompleteEquipamentosTest {
+    private final LocalDateTime agora = LocalDateTime.now();
+    private IndiceAutocompleteEquipamentos indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceAutocompleteEquipamentos(true, 10, new SimpleMeterRegistry());
+        indice.carregar(Stream.of(
+                resumo("id1", "Monitor Dell 24", agora.minusDays(2), 0),
+                resumo("id2", "Monitor LG UltraWide", agora.minusDays(1), 0),
+                resumo("id3", "Mouse Óptico", agora.minusDays(3), 0)));
+    }
+
+    private EquipamentoResumoDTO resumo(String id, String nome, LocalDateTime modificacao, long versao) {
+        return new EquipamentoResumoDTO(id, nome, "SN-" + id, null, modificacao, modificacao,
+                "user@test.com", "user@test.com", versao);
+    }
+
+    private List<String> ids(List<SugestaoEquipamentoDTO> sugestoes) {
+        return sugestoes.stream().map(SugestaoEquipamentoDTO::id).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Deve sugerir por prefixo de qualquer palavra, sem acentos nem maiúsculas, mais recentes primeiro")
+    void sugerir_DeveNormalizarEOrdenarPorRecencia() {
+        assertEquals(List.of("id2", "id1", "id3"), ids(indice.sugerir("M", 10)));
+        assertEquals(List.of("id2", "id1"), ids(indice.sugerir("moni", 10)));
+        assertEquals(List.of("id1"), ids(indice.sugerir("DELL 2", 10)));
+        assertEquals(List.of("id3"), ids(indice.sugerir("optico", 10)));
+        assertEquals(List.of("id2"), ids(indice.sugerir("mo", 1)));
+        assertTrue(indice.sugerir("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve refletir renomeações e remoções recebidas por evento")
+    void aoAlterarEquipamento_DeveAtualizarSugestoes() {
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.atualizado(resumo("id1", "Projetor Epson", agora, 1)));
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id3", "SN-id3"));
+
+        assertEquals(List.of("id2"), ids(indice.sugerir("m", 10)));
+        assertEquals(List.of("id1"), ids(indice.sugerir("epson", 10)));
+        assertEquals("Projetor Epson", indice.sugerir("proj", 10).get(0).nome());
+    }
+
+    @Test
+    @DisplayName("Não deve sugerir nada antes da carga")
+    void sugerir_AntesDaCarga_DeveRetornarVazio() {
+        IndiceAutocompleteEquipamentos naoCarregado = new IndiceAutocompleteEquipamentos(true, 10, new SimpleMeterRegistry());
+        naoCarregado.aoAlterarEquipamento(EquipamentoAlteradoEvent.criado(resumo("id9", "Monitor", agora, 0)));
+
+        assertTrue(naoCarregado.sugerir("mon", 10).isEmpty());
+    }
+}
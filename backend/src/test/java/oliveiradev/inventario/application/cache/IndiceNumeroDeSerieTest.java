@@ -0,0 +1,135 @@
+package oliveiradev.inventario.application.cache;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceNumeroDeSerieTest {
+    private SimpleMeterRegistry meterRegistry;
+    private IndiceNumeroDeSerie indice;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        indice = new IndiceNumeroDeSerie(true, meterRegistry);
+    }
+
+    private EquipamentoResumoDTO resumo(String id, String numeroDeSerie, String nome, long versao) {
+        return new EquipamentoResumoDTO(id, nome, numeroDeSerie, null,
+                LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "user@test.com", versao);
+    }
+
+    @Test
+    @DisplayName("Não deve responder antes da carga")
+    void buscar_AntesDaCarga_DeveRetornarVazio() {
+        indice.registrar(resumo("id1", "SN-1", "Monitor", 0), indice.geracaoRemocoes());
+
+        assertFalse(indice.isCarregado());
+        assertEquals(Optional.empty(), indice.buscar("SN-1"));
+    }
+
+    @Test
+    @DisplayName("Deve responder pela memória após a carga e manter-se atual pelos eventos")
+    void buscar_AposCargaEEventos_DeveRefletirAlteracoes() {
+        indice.carregar(Stream.of(resumo("id1", "SN-1", "Monitor", 0), resumo("id2", "SN-2", "Teclado", 0)));
+
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.atualizado(resumo("id1", "SN-1", "Monitor 27", 1)));
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id2", "SN-2"));
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.criado(resumo("id3", "SN-3", "Mouse", 0)));
+
+        assertEquals("Monitor 27", indice.buscar("SN-1").orElseThrow().nome());
+        assertTrue(indice.buscar("SN-2").isEmpty());
+        assertEquals("id3", indice.buscar("SN-3").orElseThrow().id());
+        assertEquals(2.0, meterRegistry.get("equipamentos.indice.serial.entradas").gauge().value());
+        assertTrue(meterRegistry.get("equipamentos.indice.serial.memoria").gauge().value() > 0);
+        assertEquals(2.0 / 3, meterRegistry.get("equipamentos.indice.serial.taxa.acerto").gauge().value(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("A carga não deve sobrescrever uma versão mais nova nem recriar um equipamento removido durante ela")
+    void carregar_ComEventosConcorrentes_DevePrevalecerEvento() {
+        indice.carregar(Stream.of(resumo("id1", "SN-1", "Monitor", 0), resumo("id2", "SN-2", "Teclado", 0))
+                .peek(lido -> {
+                    if (lido.id().equals("id1")) {
+                        // Chegam enquanto o cursor ainda está sendo lido
+                        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.atualizado(resumo("id1", "SN-1", "Monitor 27", 1)));
+                        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id2", "SN-2"));
+                    }
+                }));
+
+        assertEquals("Monitor 27", indice.buscar("SN-1").orElseThrow().nome());
+        assertTrue(indice.buscar("SN-2").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Um equipamento lido do Mongo e removido antes do registro não deve voltar ao índice")
+    void registrar_RemovidoDuranteLeitura_NaoDeveRegistrar() {
+        indice.carregar(Stream.empty());
+        long geracao = indice.geracaoRemocoes();
+        EquipamentoResumoDTO lido = resumo("id1", "SN-1", "Monitor", 0);
+
+        // A remoção chega enquanto a consulta ao Mongo ainda está em andamento
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id1", "SN-1"));
+        indice.registrar(lido, geracao);
+
+        assertTrue(indice.buscar("SN-1").isEmpty());
+
+        indice.registrar(lido, indice.geracaoRemocoes());
+        assertTrue(indice.buscar("SN-1").isPresent());
+    }
+
+    @Test
+    @DisplayName("Equipamento recriado com o mesmo número de série deve substituir a entrada, mesmo com versão menor")
+    void aoAlterarEquipamento_RecriadoComMesmoNumeroDeSerie_DeveSubstituir() {
+        indice.carregar(Stream.of(resumo("id1", "SN-1", "Monitor", 5)));
+
+        // Remoção perdida (sem change streams, feita por outra réplica): só a criação chega aqui
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.criado(resumo("id2", "SN-1", "Monitor novo", 0)));
+
+        assertEquals("id2", indice.buscar("SN-1").orElseThrow().id());
+    }
+
+    @Test
+    @DisplayName("Remoção vinda do change stream sem número de série deve localizar a entrada pelo id")
+    void aoAlterarEquipamento_RemocaoSemNumeroDeSerie_DeveRemoverPeloId() {
+        indice.carregar(Stream.of(resumo("id1", "SN-1", "Monitor", 0), resumo("id2", "SN-2", "Teclado", 0)));
+
+        indice.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id2", null).vindoDoChangeStream());
+
+        assertTrue(indice.buscar("SN-2").isEmpty());
+        assertTrue(indice.buscar("SN-1").isPresent());
+    }
+
+    @Test
+    @DisplayName("Uma recarga deve descartar equipamentos que não vieram nela")
+    void carregar_Recarga_DeveDescartarAusentes() {
+        indice.carregar(Stream.of(resumo("id1", "SN-1", "Monitor", 0), resumo("id2", "SN-2", "Teclado", 0)));
+
+        indice.carregar(Stream.of(resumo("id1", "SN-1", "Monitor", 0)));
+
+        assertTrue(indice.buscar("SN-1").isPresent());
+        assertTrue(indice.buscar("SN-2").isEmpty());
+        assertEquals(1.0, meterRegistry.get("equipamentos.indice.serial.entradas").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Desabilitado, não deve carregar nem responder")
+    void desabilitado_NaoDeveResponder() {
+        IndiceNumeroDeSerie desabilitado = new IndiceNumeroDeSerie(false, new SimpleMeterRegistry());
+
+        desabilitado.carregar(Stream.of(resumo("id1", "SN-1", "Monitor", 0)));
+
+        assertFalse(desabilitado.isCarregado());
+        assertTrue(desabilitado.buscar("SN-1").isEmpty());
+    }
+}
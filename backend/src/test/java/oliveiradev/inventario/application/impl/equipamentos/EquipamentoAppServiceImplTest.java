@@ -1,15 +1,43 @@
 package oliveiradev.inventario.application.impl.equipamentos;
 
+import oliveiradev.inventario.application.cache.CacheEquipamentos;
+import oliveiradev.inventario.application.cache.ConsultasCompartilhadasEquipamentos;
+import oliveiradev.inventario.application.cache.ContadorAlteracoesEquipamentos;
+import oliveiradev.inventario.application.cache.IndiceAutocompleteEquipamentos;
+import oliveiradev.inventario.application.cache.IndiceNumeroDeSerie;
+import oliveiradev.inventario.application.dto.comum.PaginaCursorDTO;
+import oliveiradev.inventario.application.dto.equipamento.AlteracoesEquipamentosDTO;
+import oliveiradev.inventario.application.dto.equipamento.CampoEquipamento;
+import oliveiradev.inventario.application.dto.equipamento.ConsultaEmLoteDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoAtualizacaoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoCriacaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoParcialDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRemovidoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.FormatoExportacao;
+import oliveiradev.inventario.application.dto.equipamento.ItemConsultaEmLoteDTO;
+import oliveiradev.inventario.application.dto.equipamento.LogAlteracaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.ResultadoConsultaEmLoteDTO;
+import oliveiradev.inventario.application.dto.equipamento.SugestaoEquipamentoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.exception.ConflitoDeVersaoException;
 import oliveiradev.inventario.application.exception.RecursoNaoEncontradoException;
 import oliveiradev.inventario.application.exception.RegraDeNegocioException;
 import oliveiradev.inventario.application.impl.EquipamentoAppServiceImpl;
 import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.model.equipamentos.EquipamentoRemovido;
 import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+import oliveiradev.inventario.domain.repository.EntradaHistorico;
+import oliveiradev.inventario.domain.repository.EquipamentoPontuado;
+import oliveiradev.inventario.domain.repository.EquipamentoRemovidoRepository;
 import oliveiradev.inventario.domain.repository.EquipamentoRepository;
+import oliveiradev.inventario.domain.repository.HistoricoEquipamentoRepository;
+import oliveiradev.inventario.domain.repository.OrdenacaoEquipamento;
+import oliveiradev.inventario.util.paginacao.CursorPaginacao;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,22 +45,35 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,9 +84,27 @@ class EquipamentoAppServiceImplTest {
     @Mock
     private EquipamentoRepository equipamentoRepository;
     @Mock
+    private HistoricoEquipamentoRepository historicoRepository;
+    @Mock
+    private EquipamentoRemovidoRepository removidoRepository;
+    @Mock
+    private IndiceNumeroDeSerie indiceNumeroDeSerie;
+    @Mock
+    private IndiceAutocompleteEquipamentos indiceAutocomplete;
+    @Spy // Desabilitado: as consultas seguem direto para os repositórios simulados
+    private CacheEquipamentos cacheEquipamentos = new CacheEquipamentos(false, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    @Mock
+    private ContadorAlteracoesEquipamentos contadorAlteracoes;
+    @Spy
+    private ConsultasCompartilhadasEquipamentos consultasCompartilhadas = new ConsultasCompartilhadasEquipamentos(true, new SimpleMeterRegistry());
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
     private Authentication authentication;
     @Mock
     private SecurityContext securityContext;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
     @InjectMocks
     private EquipamentoAppServiceImpl equipamentoAppService;
 
@@ -63,9 +122,10 @@ class EquipamentoAppServiceImplTest {
         );
 
         mockUserDetails = new User(mockUserEmail, "password", Collections.emptyList());
-        when(securityContext.getAuthentication()).thenReturn(authentication);
-        when(authentication.getPrincipal()).thenReturn(mockUserDetails);
-        when(authentication.isAuthenticated()).thenReturn(true);
+        // lenient: só os testes de escrita consultam o usuário autenticado; os de leitura não usam estes stubs
+        lenient().when(securityContext.getAuthentication()).thenReturn(authentication);
+        lenient().when(authentication.getPrincipal()).thenReturn(mockUserDetails);
+        lenient().when(authentication.isAuthenticated()).thenReturn(true);
         SecurityContextHolder.setContext(securityContext);
     }
 
@@ -91,7 +151,7 @@ class EquipamentoAppServiceImplTest {
         if (numLogsIniciais > 0) {
             logs.add(new LogAlteracao(LocalDateTime.now().minusMinutes(5), usuarioLogado, "Equipamento registrado no sistema por " + usuarioLogado + "."));
         }
-        when(mockEquip.getLogs()).thenReturn(logs);
+        lenient().when(mockEquip.retirarLogsPendentes()).thenReturn(logs);
         return mockEquip;
     }
 
@@ -101,12 +161,10 @@ class EquipamentoAppServiceImplTest {
         @Test
         @DisplayName("Deve criar um equipamento com sucesso")
         void criarEquipamento_ComDadosValidos_DeveRetornarDTO() {
-            when(equipamentoRepository.findByNumeroDeSerie(equipamentoCriacaoDTO.numeroDeSerie())).thenReturn(Optional.empty());
-
             ArgumentCaptor<Equipamento> captor = ArgumentCaptor.forClass(Equipamento.class);
-            // O save deve retornar o equipamento com ID, datas e usuário de auditoria (simulados no mock)
-            Equipamento equipamentoRetornadoPeloSave = mockEquipamentoConfigurado(mockEquipId, equipamentoCriacaoDTO, mockUserEmail, 1);
-            when(equipamentoRepository.save(captor.capture())).thenReturn(equipamentoRetornadoPeloSave);
+            // O insert deve retornar o equipamento com ID, datas e usuário de auditoria (simulados no mock)
+            Equipamento equipamentoRetornadoPeloInsert = mockEquipamentoConfigurado(mockEquipId, equipamentoCriacaoDTO, mockUserEmail, 1);
+            when(equipamentoRepository.insert(captor.capture())).thenReturn(equipamentoRetornadoPeloInsert);
 
             EquipamentoRespostaDTO resposta = equipamentoAppService.criarEquipamento(equipamentoCriacaoDTO);
 
@@ -122,17 +180,26 @@ class EquipamentoAppServiceImplTest {
             assertEquals(1, equipamentoSalvo.getLogs().size()); // Verifica se o log foi adicionado pela entidade/serviço
             assertEquals("Equipamento registrado no sistema por " + mockUserEmail + ".", equipamentoSalvo.getLogs().get(0).getDescricao());
 
-            verify(equipamentoRepository).save(any(Equipamento.class));
+            verify(equipamentoRepository).insert(any(Equipamento.class));
+            verify(equipamentoRepository, never()).findByNumeroDeSerie(anyString()); // Sem consulta prévia
+            verify(historicoRepository).registrar(eq(mockEquipId), argThat(entradas -> entradas.size() == 1));
+            verify(eventPublisher).publishEvent(argThat((Object evento) -> evento instanceof EquipamentoAlteradoEvent alterado
+                    && alterado.tipo() == EquipamentoAlteradoEvent.TipoAlteracao.CRIADO
+                    && equipamentoCriacaoDTO.numeroDeSerie().equals(alterado.numeroDeSerie())));
         }
 
         @Test
         @DisplayName("Deve lançar RegraDeNegocioException ao criar com número de série existente")
         void criarEquipamento_ComNumeroSerieExistente_DeveLancarExcecao() {
-            Equipamento existente = new Equipamento("Existente", equipamentoCriacaoDTO.numeroDeSerie(), "desc");
-            when(equipamentoRepository.findByNumeroDeSerie(equipamentoCriacaoDTO.numeroDeSerie())).thenReturn(Optional.of(existente));
-
-            assertThrows(RegraDeNegocioException.class, () -> equipamentoAppService.criarEquipamento(equipamentoCriacaoDTO));
-            verify(equipamentoRepository, never()).save(any(Equipamento.class));
+            // O índice unique de numeroDeSerie rejeita o insert
+            when(equipamentoRepository.insert(any(Equipamento.class)))
+                    .thenThrow(new DuplicateKeyException("E11000 duplicate key error collection: estoquedb.equipamentos index: numeroDeSerie"));
+
+            RegraDeNegocioException excecao = assertThrows(RegraDeNegocioException.class,
+                    () -> equipamentoAppService.criarEquipamento(equipamentoCriacaoDTO));
+            assertEquals("Número de série '" + equipamentoCriacaoDTO.numeroDeSerie() + "' já cadastrado.", excecao.getMessage());
+            verify(historicoRepository, never()).registrar(anyString(), anyList());
+            verifyNoInteractions(eventPublisher);
         }
     }
 
@@ -152,6 +219,22 @@ class EquipamentoAppServiceImplTest {
             verify(equipamentoRepository).findById(mockEquipId);
         }
 
+        @Test
+        @DisplayName("buscarEquipamentoPorId deve embutir só as entradas mais recentes do histórico")
+        void buscarEquipamentoPorId_Encontrado_DeveLimitarHistoricoEmbutido() {
+            ReflectionTestUtils.setField(equipamentoAppService, "limiteHistoricoEmbutido", 2);
+            LocalDateTime agora = LocalDateTime.now();
+            when(equipamentoRepository.findById(mockEquipId)).thenReturn(Optional.of(equipamentoPersistido(mockEquipId, "Monitor", "SN-1")));
+            when(historicoRepository.listarEntradasRecentes(mockEquipId, 2)).thenReturn(List.of(
+                    new LogAlteracao(agora.minusHours(1), mockUserEmail, "Log 2"),
+                    new LogAlteracao(agora, mockUserEmail, "Log 3")));
+
+            EquipamentoRespostaDTO resposta = equipamentoAppService.buscarEquipamentoPorId(mockEquipId).orElseThrow();
+
+            assertEquals(List.of("Log 2", "Log 3"), resposta.logs().stream().map(LogAlteracaoDTO::descricao).toList());
+            verify(historicoRepository).listarEntradasRecentes(mockEquipId, 2);
+        }
+
         @Test
         @DisplayName("buscarEquipamentoPorId deve retornar Optional vazio se não encontrado")
         void buscarEquipamentoPorId_NaoEncontrado_RetornaOptionalVazio() {
@@ -159,39 +242,537 @@ class EquipamentoAppServiceImplTest {
             Optional<EquipamentoRespostaDTO> resultado = equipamentoAppService.buscarEquipamentoPorId("idNaoExiste");
             assertFalse(resultado.isPresent());
         }
+
+        @Test
+        @DisplayName("buscarResumoPorNumeroDeSerie deve responder pelo índice sem consultar o Mongo")
+        void buscarResumoPorNumeroDeSerie_NoIndice_NaoConsultaRepositorio() {
+            EquipamentoResumoDTO resumo = EquipamentoResumoDTO.de(equipamentoPersistido(mockEquipId, "Monitor", "SN-1"));
+            when(indiceNumeroDeSerie.buscar("SN-1")).thenReturn(Optional.of(resumo));
+
+            Optional<EquipamentoResumoDTO> resultado = equipamentoAppService.buscarResumoPorNumeroDeSerie(" SN-1 ");
+
+            assertEquals(Optional.of(resumo), resultado);
+            verifyNoInteractions(equipamentoRepository, historicoRepository);
+        }
+
+        @Test
+        @DisplayName("buscarResumoPorNumeroDeSerie deve consultar o Mongo e registrar no índice quando ausente")
+        void buscarResumoPorNumeroDeSerie_ForaDoIndice_ConsultaRepositorioERegistra() {
+            when(indiceNumeroDeSerie.buscar("SN-1")).thenReturn(Optional.empty());
+            when(equipamentoRepository.findByNumeroDeSerie("SN-1"))
+                    .thenReturn(Optional.of(equipamentoPersistido(mockEquipId, "Monitor", "SN-1")));
+
+            Optional<EquipamentoResumoDTO> resultado = equipamentoAppService.buscarResumoPorNumeroDeSerie("SN-1");
+
+            assertTrue(resultado.isPresent());
+            assertEquals(mockEquipId, resultado.get().id());
+            verify(indiceNumeroDeSerie).registrar(eq(resultado.get()), anyLong());
+            verifyNoInteractions(historicoRepository);
+        }
     }
 
 
+    // Helper para criar equipamentos reais já "persistidos" (com ID atribuído)
+    private Equipamento equipamentoPersistido(String id, String nome, String numeroDeSerie) {
+        Equipamento equipamento = new Equipamento(nome, numeroDeSerie, null);
+        ReflectionTestUtils.setField(equipamento, "id", id);
+        return equipamento;
+    }
+
+    // Como o findAndModify da atualização devolve: já alterado, versão 1, com as entradas pendentes de cópia
+    private Equipamento equipamentoGravado(String nome, String descricaoDetalhada, List<LogAlteracao> historicoPendente) {
+        Equipamento equipamento = equipamentoPersistido(mockEquipId, nome, equipamentoCriacaoDTO.numeroDeSerie());
+        ReflectionTestUtils.setField(equipamento, "descricaoDetalhada", descricaoDetalhada);
+        ReflectionTestUtils.setField(equipamento, "historicoPendente", historicoPendente);
+        equipamento.registrarModificacao(mockUserEmail, LocalDateTime.now(), List.of("nome"));
+        return equipamento;
+    }
+
     @Nested
-    @DisplayName("Testes para atualizarEquipamento")
-    class AtualizarEquipamentoTests {
+    @DisplayName("Testes para listarEquipamentos (paginação por cursor)")
+    class ListarEquipamentosTests {
         @Test
-        @DisplayName("Deve atualizar nome e descrição e adicionar logs")
-        void atualizarEquipamento_ComNovosDados_DeveAtualizarEAdicionarLogs() {
-            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome Atualizado", "Descrição Atualizada");
-            // Usar spy para interagir com o objeto real Equipamento e verificar chamadas de métod
-            Equipamento equipamentoExistenteSpy = spy(new Equipamento(equipamentoCriacaoDTO.nome(), equipamentoCriacaoDTO.numeroDeSerie(), equipamentoCriacaoDTO.descricaoDetalhada()));
-            // Simular que o equipamento já tem um log de criação
-            equipamentoExistenteSpy.adicionarLog(mockUserEmail, "Equipamento registrado no sistema por " + mockUserEmail + ".");
+        @DisplayName("Deve retornar a página e o cursor da próxima quando há mais itens")
+        void listarEquipamentos_ComMaisItens_DeveRetornarProximoCursor() {
+            List<Equipamento> encontrados = List.of(
+                    equipamentoPersistido("id1", "Alpha", "SN-1"),
+                    equipamentoPersistido("id2", "Bravo", "SN-2"),
+                    equipamentoPersistido("id3", "Charlie", "SN-3"));
+            when(equipamentoRepository.buscarPaginaAposCursor(OrdenacaoEquipamento.NOME, null, null, 3)).thenReturn(encontrados);
+
+            PaginaCursorDTO<EquipamentoResumoDTO> pagina = equipamentoAppService.listarEquipamentos(null, 2, "nome");
+
+            assertEquals(2, pagina.itens().size());
+            assertEquals("id2", pagina.itens().get(1).id());
+            assertNotNull(pagina.proximoCursor());
+            CursorPaginacao cursor = CursorPaginacao.decodificar(pagina.proximoCursor());
+            assertEquals("nome", cursor.ordenacao());
+            assertEquals("id2", cursor.id());
+            assertEquals("Bravo", cursor.valor());
+        }
+
+        @Test
+        @DisplayName("Deve continuar a partir do cursor informado e encerrar na última página")
+        void listarEquipamentos_ComCursor_DeveBuscarAposCursor() {
+            String cursor = new CursorPaginacao("nome", "id2", "Bravo").codificar();
+            when(equipamentoRepository.buscarPaginaAposCursor(OrdenacaoEquipamento.NOME, "Bravo", "id2", 3))
+                    .thenReturn(List.of(equipamentoPersistido("id3", "Charlie", "SN-3")));
 
+            PaginaCursorDTO<EquipamentoResumoDTO> pagina = equipamentoAppService.listarEquipamentos(cursor, 2, "nome");
 
-            when(equipamentoRepository.findById(mockEquipId)).thenReturn(Optional.of(equipamentoExistenteSpy));
-            // O save deve retornar o equipamento atualizado (o spy modificado)
-            when(equipamentoRepository.save(any(Equipamento.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            assertEquals(1, pagina.itens().size());
+            assertNull(pagina.proximoCursor());
+        }
 
+        @Test
+        @DisplayName("Visão completa deve buscar o histórico da página em uma única consulta")
+        void listarEquipamentosCompletos_DeveIncluirLogs() {
+            when(equipamentoRepository.buscarPaginaAposCursor(OrdenacaoEquipamento.ID, null, null, 3))
+                    .thenReturn(List.of(equipamentoPersistido("id1", "Alpha", "SN-1"), equipamentoPersistido("id2", "Bravo", "SN-2")));
+            when(historicoRepository.listarEntradasRecentesPorEquipamentos(List.of("id1", "id2"), 20))
+                    .thenReturn(Map.of("id1", List.of(new LogAlteracao(LocalDateTime.now(), mockUserEmail, "Log de teste"))));
+
+            PaginaCursorDTO<EquipamentoRespostaDTO> pagina = equipamentoAppService.listarEquipamentosCompletos(null, 2, null);
+
+            assertEquals(2, pagina.itens().size());
+            assertEquals("Log de teste", pagina.itens().get(0).logs().get(0).descricao());
+            assertTrue(pagina.itens().get(1).logs().isEmpty());
+            verify(historicoRepository, never()).listarEntradasRecentes(anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar cursor gerado para outra ordenação")
+        void listarEquipamentos_CursorDeOutraOrdenacao_DeveLancarExcecao() {
+            String cursor = new CursorPaginacao("nome", "id2", "Bravo").codificar();
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.listarEquipamentos(cursor, 2, "id"));
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar cursor malformado")
+        void listarEquipamentos_CursorMalformado_DeveLancarExcecao() {
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.listarEquipamentos("%%%", 2, null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para leituras parciais (fields)")
+    class LeiturasParciaisTests {
+        private Map<String, Object> documento(String id, String nome, long versao) {
+            Map<String, Object> documento = new LinkedHashMap<>();
+            documento.put("id", id);
+            documento.put("nome", nome);
+            documento.put("versao", versao);
+            return documento;
+        }
+
+        @Test
+        @DisplayName("Deve projetar só os campos pedidos mais a versão e a ordenação, montando o cursor a partir da projeção")
+        void listarEquipamentosParciais_DeveProjetarCamposEGerarCursor() {
+            when(equipamentoRepository.buscarPaginaAposCursorProjetada(eq(OrdenacaoEquipamento.NOME), isNull(), isNull(), eq(2), any()))
+                    .thenReturn(List.of(documento("id1", "Alpha", 1L), documento("id2", "Bravo", 3L)));
+
+            PaginaCursorDTO<EquipamentoParcialDTO> pagina = equipamentoAppService.listarEquipamentosParciais(null, 1, "nome",
+                    CampoEquipamento.listaDoParametro("id"));
+
+            assertEquals(1, pagina.itens().size());
+            assertEquals(Map.of("id", "id1"), pagina.itens().get(0).campos());
+            assertEquals(1L, pagina.itens().get(0).versao());
+            CursorPaginacao cursor = CursorPaginacao.decodificar(pagina.proximoCursor());
+            assertEquals("Alpha", cursor.valor());
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Collection<String>> projecao = ArgumentCaptor.forClass(Collection.class);
+            verify(equipamentoRepository).buscarPaginaAposCursorProjetada(eq(OrdenacaoEquipamento.NOME), isNull(), isNull(), eq(2), projecao.capture());
+            assertEquals(Set.of("id", "versao", "nome"), Set.copyOf(projecao.getValue()));
+            verifyNoInteractions(historicoRepository);
+        }
+
+        @Test
+        @DisplayName("Deve buscar o histórico apenas quando logs for pedido, sem ler o campo no documento")
+        void buscarEquipamentoParcialPorId_ComLogs_DeveBuscarHistorico() {
+            when(equipamentoRepository.buscarProjetadoPor(eq("id"), eq("id1"), any())).thenReturn(Optional.of(documento("id1", "Alpha", 2L)));
+            when(historicoRepository.listarEntradasRecentesPorEquipamentos(List.of("id1"), 20))
+                    .thenReturn(Map.of("id1", List.of(new LogAlteracao(LocalDateTime.now(), mockUserEmail, "Log de teste"))));
+
+            Optional<EquipamentoParcialDTO> resultado = equipamentoAppService.buscarEquipamentoParcialPorId("id1",
+                    CampoEquipamento.listaDoParametro("nome,logs"));
+
+            assertTrue(resultado.isPresent());
+            assertEquals(List.of("nome", "logs"), List.copyOf(resultado.get().campos().keySet()));
+            assertEquals(2L, resultado.get().versao());
+            verify(equipamentoRepository).buscarProjetadoPor("id", "id1", new LinkedHashSet<>(List.of("nome", "versao")));
+        }
+
+        @Test
+        @DisplayName("Deve buscar pelo número de série sem espaços e retornar vazio quando não encontrado")
+        void buscarEquipamentoParcialPorNumeroDeSerie_NaoEncontrado_DeveRetornarVazio() {
+            when(equipamentoRepository.buscarProjetadoPor(eq("numeroDeSerie"), eq("SN-1"), any())).thenReturn(Optional.empty());
+
+            assertTrue(equipamentoAppService.buscarEquipamentoParcialPorNumeroDeSerie(" SN-1 ",
+                    CampoEquipamento.listaDoParametro("id")).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar campo desconhecido")
+        void listaDoParametro_CampoDesconhecido_DeveLancarExcecao() {
+            assertThrows(IllegalArgumentException.class, () -> CampoEquipamento.listaDoParametro("id,senha"));
+            assertThrows(IllegalArgumentException.class, () -> CampoEquipamento.listaDoParametro(" , "));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para buscarEquipamentos")
+    class BuscarEquipamentosTests {
+        @Test
+        @DisplayName("Modo texto deve paginar pela relevância e gerar cursor com a pontuação do último item")
+        void buscarEquipamentos_ModoTexto_DeveRetornarCursorComPontuacao() {
+            when(equipamentoRepository.buscarPorTexto("monitor", null, null, 2)).thenReturn(List.of(
+                    new EquipamentoPontuado(equipamentoPersistido("id1", "Monitor Dell", "SN-1"), 4.5),
+                    new EquipamentoPontuado(equipamentoPersistido("id2", "Monitor LG", "SN-2"), 3.0)));
+
+            PaginaCursorDTO<EquipamentoResumoDTO> pagina = equipamentoAppService.buscarEquipamentos(" monitor ", null, null, 1);
+
+            assertEquals(1, pagina.itens().size());
+            assertEquals("id1", pagina.itens().get(0).id());
+            CursorPaginacao cursor = CursorPaginacao.decodificar(pagina.proximoCursor());
+            assertEquals("texto", cursor.ordenacao());
+            assertEquals("id1", cursor.id());
+            assertEquals("4.5", cursor.valor());
+        }
+
+        @Test
+        @DisplayName("Modo texto deve continuar a partir da pontuação e do id do cursor")
+        void buscarEquipamentos_ModoTextoComCursor_DevePassarPosicaoAoRepositorio() {
+            String cursor = new CursorPaginacao("texto", "id1", "4.5").codificar();
+            when(equipamentoRepository.buscarPorTexto("monitor", 4.5, "id1", 2)).thenReturn(List.of(
+                    new EquipamentoPontuado(equipamentoPersistido("id2", "Monitor LG", "SN-2"), 3.0)));
+
+            PaginaCursorDTO<EquipamentoResumoDTO> pagina = equipamentoAppService.buscarEquipamentos("monitor", "texto", cursor, 1);
+
+            assertEquals(1, pagina.itens().size());
+            assertNull(pagina.proximoCursor());
+        }
+
+        @Test
+        @DisplayName("Modo regex deve usar a busca por trecho do nome")
+        void buscarEquipamentos_ModoRegex_DeveBuscarPorTrechoDoNome() {
+            when(equipamentoRepository.buscarPorTrechoDoNome("onit", null, 51))
+                    .thenReturn(List.of(equipamentoPersistido("id1", "Monitor Dell", "SN-1")));
+
+            PaginaCursorDTO<EquipamentoResumoDTO> pagina = equipamentoAppService.buscarEquipamentos("onit", "regex", null, null);
+
+            assertEquals(1, pagina.itens().size());
+            verify(equipamentoRepository, never()).buscarPorTexto(anyString(), any(), any(), anyInt());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar termo vazio e cursor de outro modo")
+        void buscarEquipamentos_ParametrosInvalidos_DeveLancarExcecao() {
+            String cursorRegex = new CursorPaginacao("regex", "id1", null).codificar();
+
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.buscarEquipamentos("  ", null, null, null));
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.buscarEquipamentos("monitor", "texto", cursorRegex, null));
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.buscarEquipamentos("monitor", "fuzzy", null, null));
+            verifyNoInteractions(equipamentoRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para sugerirEquipamentos")
+    class SugerirEquipamentosTests {
+        @Test
+        @DisplayName("Deve consultar o índice em memória limitando ao máximo configurado, sem acessar o Mongo")
+        void sugerirEquipamentos_DeveUsarIndiceComLimite() {
+            List<SugestaoEquipamentoDTO> sugestoes = List.of(new SugestaoEquipamentoDTO(mockEquipId, "Monitor Dell", "SN-1"));
+            when(indiceAutocomplete.getMaxSugestoes()).thenReturn(10);
+            when(indiceAutocomplete.sugerir("mon", 10)).thenReturn(sugestoes);
+
+            assertEquals(sugestoes, equipamentoAppService.sugerirEquipamentos("mon", 50));
+            verifyNoInteractions(equipamentoRepository);
+        }
+
+        @Test
+        @DisplayName("Deve retornar vazio sem prefixo e rejeitar limite não positivo")
+        void sugerirEquipamentos_ParametrosLimite() {
+            assertTrue(equipamentoAppService.sugerirEquipamentos(" ", null).isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.sugerirEquipamentos("mon", 0));
+            verify(indiceAutocomplete, never()).sugerir(anyString(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para consultarEmLote")
+    class ConsultarEmLoteTests {
+        @Test
+        @DisplayName("Deve resolver cada tipo de chave com uma consulta e devolver os itens na ordem do pedido")
+        void consultarEmLote_DeveManterOrdemEMarcarAusentes() {
+            Equipamento equip1 = mockEquipamentoConfigurado("id1", equipamentoCriacaoDTO, mockUserEmail, 0);
+            Equipamento equip2 = mockEquipamentoConfigurado("id2",
+                    new EquipamentoCriacaoDTO("Teclado", "SN-2", null), mockUserEmail, 0);
+            when(equipamentoRepository.buscarPorIds(any())).thenReturn(List.of(equip2, equip1));
+            when(indiceNumeroDeSerie.buscar(anyString())).thenReturn(Optional.empty());
+            when(equipamentoRepository.buscarPorNumerosDeSerie(List.of("SN-2", "SN-X"))).thenReturn(List.of(equip2));
+
+            ResultadoConsultaEmLoteDTO resultado = equipamentoAppService.consultarEmLote(
+                    new ConsultaEmLoteDTO(List.of("id1", "inexistente", "id2", "id1"), List.of(" SN-2 ", "SN-X")));
+
+            assertEquals(List.of("id1", "inexistente", "id2", "id1"),
+                    resultado.ids().stream().map(ItemConsultaEmLoteDTO::chave).toList());
+            assertEquals(List.of(true, false, true, true),
+                    resultado.ids().stream().map(ItemConsultaEmLoteDTO::encontrado).toList());
+            assertNull(resultado.ids().get(1).equipamento());
+            assertEquals("Teclado", resultado.ids().get(2).equipamento().nome());
+
+            assertEquals("SN-2", resultado.numerosDeSerie().get(0).chave());
+            assertEquals("id2", resultado.numerosDeSerie().get(0).equipamento().id());
+            assertFalse(resultado.numerosDeSerie().get(1).encontrado());
+            verify(equipamentoRepository).buscarPorIds(argThat(ids -> ids.size() == 3)); // Sem repetições
+            verify(indiceNumeroDeSerie).registrar(argThat(resumo -> resumo.id().equals("id2")), anyLong());
+        }
+
+        @Test
+        @DisplayName("Números de série presentes no índice em memória não devem ir ao Mongo")
+        void consultarEmLote_NumerosDeSerieNoIndice_NaoDeveConsultarMongo() {
+            EquipamentoResumoDTO resumo = new EquipamentoResumoDTO("id1", "Monitor", "SN-1", null,
+                    LocalDateTime.now(), LocalDateTime.now(), mockUserEmail, mockUserEmail, 0L);
+            when(indiceNumeroDeSerie.buscar("SN-1")).thenReturn(Optional.of(resumo));
+
+            ResultadoConsultaEmLoteDTO resultado = equipamentoAppService.consultarEmLote(
+                    new ConsultaEmLoteDTO(null, List.of("SN-1")));
+
+            assertTrue(resultado.ids().isEmpty());
+            assertEquals(resumo, resultado.numerosDeSerie().get(0).equipamento());
+            verifyNoInteractions(equipamentoRepository);
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar consultas vazias ou acima do limite")
+        void consultarEmLote_SemChavesOuAcimaDoLimite_DeveLancarExcecao() {
+            ReflectionTestUtils.setField(equipamentoAppService, "limiteMaximoLote", 2);
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> equipamentoAppService.consultarEmLote(new ConsultaEmLoteDTO(List.of(), null)));
+            assertThrows(IllegalArgumentException.class,
+                    () -> equipamentoAppService.consultarEmLote(new ConsultaEmLoteDTO(List.of("id1", "id2"), List.of("SN-1"))));
+            verifyNoInteractions(equipamentoRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para listarAlteracoes (sincronização incremental)")
+    class ListarAlteracoesTests {
+        private final LocalDateTime base = LocalDateTime.now().minusHours(1).withNano(0);
+
+        private Equipamento alteradoEm(String id, LocalDateTime data) {
+            Equipamento equipamento = equipamentoPersistido(id, "Monitor " + id, "SN-" + id);
+            ReflectionTestUtils.setField(equipamento, "dataUltimaModificacao", data);
+            return equipamento;
+        }
+
+        @Test
+        @DisplayName("Sem 'since' deve devolver a carga completa até o horizonte, sem consultar removidos")
+        void listarAlteracoes_SemSince_DeveDevolverTudoSemRemovidos() {
+            when(equipamentoRepository.buscarAlteradosEntre(isNull(), any(), eq(3)))
+                    .thenReturn(List.of(alteradoEm("id1", base), alteradoEm("id2", base.plusSeconds(1))));
+
+            AlteracoesEquipamentosDTO alteracoes = equipamentoAppService.listarAlteracoes(null, 2);
+
+            assertEquals(List.of("id1", "id2"), alteracoes.alterados().stream().map(EquipamentoResumoDTO::id).toList());
+            assertTrue(alteracoes.removidos().isEmpty());
+            assertFalse(alteracoes.temMais());
+            assertTrue(alteracoes.sincronizadoAte().isBefore(LocalDateTime.now().minusSeconds(4)));
+            verifyNoInteractions(removidoRepository);
+        }
+
+        @Test
+        @DisplayName("Página cheia deve terminar antes da data do primeiro item que não coube, juntando alterados e removidos")
+        void listarAlteracoes_PaginaCheia_DeveCortarNaProximaData() {
+            when(equipamentoRepository.buscarAlteradosEntre(eq(base), any(), eq(3)))
+                    .thenReturn(List.of(alteradoEm("id1", base.plusSeconds(1)), alteradoEm("id2", base.plusSeconds(3))));
+            when(removidoRepository.buscarRemovidosEntre(eq(base), any(), any()))
+                    .thenReturn(List.of(new EquipamentoRemovido("id9", "SN-9", base.plusSeconds(2), mockUserEmail)));
+
+            AlteracoesEquipamentosDTO alteracoes = equipamentoAppService.listarAlteracoes(base.toString(), 2);
+
+            assertEquals(List.of("id1"), alteracoes.alterados().stream().map(EquipamentoResumoDTO::id).toList());
+            assertEquals(List.of("id9"), alteracoes.removidos().stream().map(EquipamentoRemovidoDTO::id).toList());
+            assertEquals(base.plusSeconds(3), alteracoes.sincronizadoAte());
+            assertTrue(alteracoes.temMais());
+        }
+
+        @Test
+        @DisplayName("Mais itens com a mesma data do que cabem na página devem ser entregues juntos")
+        void listarAlteracoes_EmpateNaData_DeveEntregarTodosDaMesmaData() {
+            List<Equipamento> mesmaData = List.of(alteradoEm("id1", base), alteradoEm("id2", base));
+            when(equipamentoRepository.buscarAlteradosEntre(isNull(), any(), eq(2))).thenReturn(mesmaData);
+            when(equipamentoRepository.buscarAlteradosEntre(base, base.plusNanos(1_000_000), 0)).thenReturn(mesmaData);
+
+            AlteracoesEquipamentosDTO alteracoes = equipamentoAppService.listarAlteracoes(null, 1);
+
+            assertEquals(2, alteracoes.alterados().size());
+            assertEquals(base.plusNanos(1_000_000), alteracoes.sincronizadoAte());
+            assertTrue(alteracoes.temMais());
+        }
+
+        @Test
+        @DisplayName("'since' inválido ou anterior à retenção das remoções deve lançar IllegalArgumentException")
+        void listarAlteracoes_SinceInvalidoOuExpirado_DeveLancarExcecao() {
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.listarAlteracoes("ontem", null));
+            String expirado = LocalDateTime.now().minus(EquipamentoRemovido.RETENCAO).minusDays(1).toString();
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.listarAlteracoes(expirado, null));
+            verifyNoInteractions(equipamentoRepository, removidoRepository);
+        }
+
+        @Test
+        @DisplayName("'since' dentro da margem deve responder vazio sem consultar o banco")
+        void listarAlteracoes_SinceRecente_DeveResponderVazio() {
+            String agora = LocalDateTime.now().toString();
+
+            AlteracoesEquipamentosDTO alteracoes = equipamentoAppService.listarAlteracoes(agora, null);
+
+            assertTrue(alteracoes.alterados().isEmpty());
+            assertEquals(LocalDateTime.parse(agora), alteracoes.sincronizadoAte());
+            verifyNoInteractions(equipamentoRepository, removidoRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para listarHistorico")
+    class ListarHistoricoTests {
+        @Test
+        @DisplayName("Deve devolver exatamente o limite e o cursor da última entrada entregue")
+        void listarHistorico_ComMaisEntradas_DeveRetornarProximoCursor() {
+            LocalDateTime agora = LocalDateTime.now();
+            // Duas entradas com a mesma dataHora (mesma atualização): a posição no bucket as desempata
+            when(historicoRepository.listarEntradasAnteriores(mockEquipId, null, null, 0, 3)).thenReturn(List.of(
+                    new EntradaHistorico(new LogAlteracao(agora, mockUserEmail, "Log 4"), "b2", 1),
+                    new EntradaHistorico(new LogAlteracao(agora, mockUserEmail, "Log 3"), "b2", 0),
+                    new EntradaHistorico(new LogAlteracao(agora.minusDays(1), mockUserEmail, "Log 2"), "b1", 1)));
+
+            PaginaCursorDTO<LogAlteracaoDTO> pagina = equipamentoAppService.listarHistorico(mockEquipId, null, 2);
+
+            assertEquals(List.of("Log 4", "Log 3"), pagina.itens().stream().map(LogAlteracaoDTO::descricao).toList());
+            CursorPaginacao cursor = CursorPaginacao.decodificar(pagina.proximoCursor());
+            assertEquals("b2:0", cursor.id());
+            assertEquals(agora.toString(), cursor.valor());
+        }
+
+        @Test
+        @DisplayName("Deve continuar a partir da entrada do cursor e encerrar na última")
+        void listarHistorico_ComCursor_DeveBuscarEntradasAnteriores() {
+            LocalDateTime dataHora = LocalDateTime.now().minusHours(1);
+            String cursor = new CursorPaginacao("historico", "b2:0", dataHora.toString()).codificar();
+            when(historicoRepository.listarEntradasAnteriores(mockEquipId, dataHora, "b2", 0, 3)).thenReturn(List.of(
+                    new EntradaHistorico(new LogAlteracao(dataHora.minusDays(1), mockUserEmail, "Log 1"), "b1", 0)));
+
+            PaginaCursorDTO<LogAlteracaoDTO> pagina = equipamentoAppService.listarHistorico(mockEquipId, cursor, 2);
+
+            assertEquals(1, pagina.itens().size());
+            assertNull(pagina.proximoCursor());
+            verify(equipamentoRepository, never()).existsById(anyString());
+        }
+
+        @Test
+        @DisplayName("Deve lançar RecursoNaoEncontradoException para equipamento inexistente")
+        void listarHistorico_EquipamentoNaoEncontrado_DeveLancarExcecao() {
+            when(historicoRepository.listarEntradasAnteriores("idNaoExiste", null, null, 0, 101)).thenReturn(List.of());
+            when(equipamentoRepository.existsById("idNaoExiste")).thenReturn(false);
+
+            assertThrows(RecursoNaoEncontradoException.class, () -> equipamentoAppService.listarHistorico("idNaoExiste", null, null));
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar cursor sem a posição da entrada (formato por bucket)")
+        void listarHistorico_CursorSemPosicao_DeveLancarExcecao() {
+            String cursor = new CursorPaginacao("historico", "b2", LocalDateTime.now().toString()).codificar();
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.listarHistorico(mockEquipId, cursor, null));
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar cursor da listagem de equipamentos")
+        void listarHistorico_CursorDeOutraListagem_DeveLancarExcecao() {
+            String cursor = new CursorPaginacao("nome", "id2", "Bravo").codificar();
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.listarHistorico(mockEquipId, cursor, null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para exportarEquipamentos")
+    class ExportarEquipamentosTests {
+        @Test
+        @DisplayName("Deve escrever um documento JSON por linha no formato NDJSON e fechar o cursor")
+        void exportarEquipamentos_Ndjson_DeveEscreverUmDocumentoPorLinha() {
+            AtomicBoolean cursorFechado = new AtomicBoolean(false);
+            Stream<Equipamento> cursor = Stream.of(
+                    equipamentoPersistido("id1", "Alpha", "SN-1"),
+                    equipamentoPersistido("id2", "Bravo", "SN-2")).onClose(() -> cursorFechado.set(true));
+            when(equipamentoRepository.streamEquipamentos()).thenReturn(cursor);
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+            equipamentoAppService.exportarEquipamentos(FormatoExportacao.NDJSON, saida);
+
+            String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(2, linhas.length);
+            assertTrue(linhas[0].startsWith("{") && linhas[0].contains("\"id\":\"id1\""));
+            assertTrue(linhas[1].contains("\"numeroDeSerie\":\"SN-2\""));
+            assertFalse(linhas[0].contains("\"logs\""));
+            assertTrue(cursorFechado.get());
+            verifyNoInteractions(historicoRepository);
+        }
+
+        @Test
+        @DisplayName("Deve escrever cabeçalho e escapar campos no formato CSV")
+        void exportarEquipamentos_Csv_DeveEscaparCampos() {
+            when(equipamentoRepository.streamEquipamentos())
+                    .thenReturn(Stream.of(equipamentoPersistido("id1", "Monitor, 24\"", "SN-1")));
+            ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+            equipamentoAppService.exportarEquipamentos(FormatoExportacao.CSV, saida);
+
+            String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(2, linhas.length);
+            assertTrue(linhas[0].startsWith("id,nome,numeroDeSerie"));
+            assertTrue(linhas[1].startsWith("id1,\"Monitor, 24\"\"\",SN-1,"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para atualizarEquipamento")
+    class AtualizarEquipamentoTests {
+        @Test
+        @DisplayName("Deve atualizar nome e descrição e copiar para o histórico as entradas gravadas com a alteração")
+        void atualizarEquipamento_ComNovosDados_DeveAtualizarEAdicionarLogs() {
+            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome Atualizado", "Descrição Atualizada", 0L);
+            // O findAndModify devolve o documento já gravado, com as entradas desta alteração em historicoPendente
+            List<LogAlteracao> pendentes = List.of(
+                    new LogAlteracao(LocalDateTime.now(), mockUserEmail, "Nome alterado de 'Impressora Laser' para 'Nome Atualizado'."),
+                    new LogAlteracao(LocalDateTime.now(), mockUserEmail, "Descrição detalhada alterada."));
+            Equipamento atualizado = equipamentoGravado("Nome Atualizado", "Descrição Atualizada", pendentes);
+            Map<String, Object> camposEsperados = Map.of("nome", "Nome Atualizado", "descricaoDetalhada", "Descrição Atualizada");
+            when(equipamentoRepository.atualizarSeDiferente(eq(mockEquipId), eq(0L), eq(camposEsperados), any(LocalDateTime.class), eq(mockUserEmail)))
+                    .thenReturn(Optional.of(atualizado));
+            List<LogAlteracao> historico = new ArrayList<>(pendentes);
+            historico.add(0, new LogAlteracao(LocalDateTime.now().minusDays(1), "user@test.com", "Equipamento criado."));
+            when(historicoRepository.listarEntradasRecentes(mockEquipId, 20)).thenReturn(historico);
 
             EquipamentoRespostaDTO resposta = equipamentoAppService.atualizarEquipamento(mockEquipId, atualizacaoDTO);
 
             assertNotNull(resposta);
             assertEquals("Nome Atualizado", resposta.nome());
             assertEquals("Descrição Atualizada", resposta.descricaoDetalhada());
-            assertEquals(3, resposta.logs().size()); // 1 (criação) + 1 (nome) + 1 (descrição)
+            assertEquals(3, resposta.logs().size());
             assertTrue(resposta.logs().get(1).descricao().contains("Nome alterado"));
-            assertTrue(resposta.logs().get(2).descricao().contains("Descrição detalhada alterada"));
-
-            verify(equipamentoExistenteSpy).alterarNome("Nome Atualizado", mockUserEmail);
-            verify(equipamentoExistenteSpy).alterarDescricaoDetalhada("Descrição Atualizada", mockUserEmail);
-            verify(equipamentoRepository).save(equipamentoExistenteSpy);
+            // Copiadas para historico_equipamentos e só então retiradas do documento
+            InOrder ordem = inOrder(historicoRepository, equipamentoRepository);
+            ordem.verify(historicoRepository).registrar(mockEquipId, pendentes);
+            ordem.verify(equipamentoRepository).descartarHistoricoPendente(mockEquipId, pendentes);
+            verify(eventPublisher).publishEvent(argThat((Object evento) -> evento instanceof EquipamentoAlteradoEvent alterado
+                    && alterado.tipo() == EquipamentoAlteradoEvent.TipoAlteracao.ATUALIZADO
+                    && "Nome Atualizado".equals(alterado.resumo().nome())));
+            assertEquals(mockUserEmail, resposta.modificadoPorUsuario());
+            assertEquals(1L, resposta.versao());
+            verify(equipamentoRepository, never()).findById(anyString());
+            verify(equipamentoRepository, never()).save(any(Equipamento.class));
         }
 
         @Test
@@ -200,7 +781,8 @@ class EquipamentoAppServiceImplTest {
             // DTO com os mesmos dados do equipamento existente (ou campos nulos)
             EquipamentoAtualizacaoDTO dtoSemMudancas = new EquipamentoAtualizacaoDTO(
                     equipamentoCriacaoDTO.nome(), // Mesmo nome
-                    equipamentoCriacaoDTO.descricaoDetalhada() // Mesma descrição
+                    equipamentoCriacaoDTO.descricaoDetalhada(), // Mesma descrição
+                    0L
             );
 
             Equipamento equipamentoExistente = new Equipamento(
@@ -208,30 +790,108 @@ class EquipamentoAppServiceImplTest {
                     equipamentoCriacaoDTO.numeroDeSerie(),
                     equipamentoCriacaoDTO.descricaoDetalhada()
             );
-            equipamentoExistente.adicionarLog(mockUserEmail, "Log inicial");
-
-
+            ReflectionTestUtils.setField(equipamentoExistente, "id", mockEquipId);
+            // Nenhum campo difere: o findAndModify não casa com o documento e nada é gravado
+            when(equipamentoRepository.atualizarSeDiferente(eq(mockEquipId), eq(0L), anyMap(), any(LocalDateTime.class), eq(mockUserEmail)))
+                    .thenReturn(Optional.empty());
             when(equipamentoRepository.findById(mockEquipId)).thenReturn(Optional.of(equipamentoExistente));
 
             EquipamentoRespostaDTO resposta = equipamentoAppService.atualizarEquipamento(mockEquipId, dtoSemMudancas);
 
             assertNotNull(resposta);
             assertEquals(equipamentoCriacaoDTO.nome(), resposta.nome());
-            assertEquals(1, resposta.logs().size());
+            verify(equipamentoRepository, never()).descartarHistoricoPendente(anyString(), anyList());
 
             verify(equipamentoRepository, never()).save(any(Equipamento.class));
+            verify(historicoRepository, never()).registrar(anyString(), anyList());
         }
 
         @Test
         @DisplayName("Deve lançar RecursoNaoEncontradoException ao atualizar equipamento inexistente")
         void atualizarEquipamento_EquipamentoNaoEncontrado_DeveLancarExcecao() {
-            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome", "Desc");
+            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome", "Desc", 0L);
+            when(equipamentoRepository.atualizarSeDiferente(eq("idNaoExiste"), eq(0L), anyMap(), any(LocalDateTime.class), anyString()))
+                    .thenReturn(Optional.empty());
             when(equipamentoRepository.findById("idNaoExiste")).thenReturn(Optional.empty());
 
             assertThrows(RecursoNaoEncontradoException.class, () ->
                     equipamentoAppService.atualizarEquipamento("idNaoExiste", atualizacaoDTO)
             );
-            verify(equipamentoRepository, never()).save(any(Equipamento.class));
+            verify(historicoRepository, never()).registrar(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("Deve lançar ConflitoDeVersaoException quando outro usuário alterou o mesmo campo após a versão base")
+        void atualizarEquipamento_CampoAlteradoAposVersaoBase_DeveLancarConflito() {
+            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome Atualizado", null, 0L);
+            Equipamento atual = equipamentoPersistido(mockEquipId, "Nome de Outro Usuário", equipamentoCriacaoDTO.numeroDeSerie());
+            atual.registrarModificacao("outro@teste.com", LocalDateTime.now(), List.of("nome"));
+            when(equipamentoRepository.atualizarSeDiferente(eq(mockEquipId), eq(0L), anyMap(), any(LocalDateTime.class), eq(mockUserEmail)))
+                    .thenReturn(Optional.empty());
+            when(equipamentoRepository.findById(mockEquipId)).thenReturn(Optional.of(atual));
+
+            ConflitoDeVersaoException excecao = assertThrows(ConflitoDeVersaoException.class,
+                    () -> equipamentoAppService.atualizarEquipamento(mockEquipId, atualizacaoDTO));
+
+            EquipamentoRespostaDTO estadoAtual = (EquipamentoRespostaDTO) excecao.getEstadoAtual();
+            assertEquals("Nome de Outro Usuário", estadoAtual.nome());
+            assertEquals(1L, estadoAtual.versao());
+            verify(equipamentoRepository, times(1)).atualizarSeDiferente(anyString(), any(), anyMap(), any(), anyString());
+            verify(historicoRepository, never()).registrar(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("Deve tentar novamente quando uma escrita concorrente em outro campo impede a gravação")
+        void atualizarEquipamento_EscritaConcorrenteSemConflito_DeveTentarNovamente() {
+            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome Atualizado", null, 0L);
+            Equipamento atual = equipamentoPersistido(mockEquipId, equipamentoCriacaoDTO.nome(), equipamentoCriacaoDTO.numeroDeSerie());
+            atual.registrarModificacao("outro@teste.com", LocalDateTime.now(), List.of("descricaoDetalhada"));
+            Equipamento atualizado = equipamentoGravado("Nome Atualizado", null, List.of(new LogAlteracao(
+                    LocalDateTime.now(), mockUserEmail, "Nome alterado de 'Impressora Laser' para 'Nome Atualizado'.")));
+            atualizado.registrarModificacao(mockUserEmail, LocalDateTime.now(), List.of("nome"));
+            when(equipamentoRepository.atualizarSeDiferente(eq(mockEquipId), eq(0L), anyMap(), any(LocalDateTime.class), eq(mockUserEmail)))
+                    .thenReturn(Optional.empty())
+                    .thenReturn(Optional.of(atualizado));
+            when(equipamentoRepository.findById(mockEquipId)).thenReturn(Optional.of(atual));
+
+            EquipamentoRespostaDTO resposta = equipamentoAppService.atualizarEquipamento(mockEquipId, atualizacaoDTO);
+
+            assertEquals("Nome Atualizado", resposta.nome());
+            assertEquals(2L, resposta.versao());
+            verify(equipamentoRepository, times(2)).atualizarSeDiferente(anyString(), any(), anyMap(), any(), anyString());
+            verify(historicoRepository).registrar(eq(mockEquipId), argThat(entradas -> entradas.size() == 1));
+        }
+
+        @Test
+        @DisplayName("Deve desistir com ConflitoDeVersaoException após o número máximo de tentativas")
+        void atualizarEquipamento_TentativasEsgotadas_DeveLancarConflito() {
+            ReflectionTestUtils.setField(equipamentoAppService, "maxTentativasAtualizacao", 2);
+            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome Atualizado", null, 0L);
+            Equipamento atual = equipamentoPersistido(mockEquipId, equipamentoCriacaoDTO.nome(), equipamentoCriacaoDTO.numeroDeSerie());
+            when(equipamentoRepository.atualizarSeDiferente(eq(mockEquipId), eq(0L), anyMap(), any(LocalDateTime.class), eq(mockUserEmail)))
+                    .thenReturn(Optional.empty());
+            when(equipamentoRepository.findById(mockEquipId)).thenReturn(Optional.of(atual));
+
+            assertThrows(ConflitoDeVersaoException.class, () -> equipamentoAppService.atualizarEquipamento(mockEquipId, atualizacaoDTO));
+            verify(equipamentoRepository, times(2)).atualizarSeDiferente(anyString(), any(), anyMap(), any(), anyString());
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar nome vazio sem acessar o banco")
+        void atualizarEquipamento_NomeVazio_DeveLancarExcecao() {
+            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("   ", null, 0L);
+
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.atualizarEquipamento(mockEquipId, atualizacaoDTO));
+            verifyNoInteractions(equipamentoRepository);
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar atualização sem a versão base sem acessar o banco")
+        void atualizarEquipamento_SemVersao_DeveLancarExcecao() {
+            EquipamentoAtualizacaoDTO atualizacaoDTO = new EquipamentoAtualizacaoDTO("Nome Atualizado", null, null);
+
+            assertThrows(IllegalArgumentException.class, () -> equipamentoAppService.atualizarEquipamento(mockEquipId, atualizacaoDTO));
+            verifyNoInteractions(equipamentoRepository, historicoRepository);
         }
     }
 
@@ -239,25 +899,29 @@ class EquipamentoAppServiceImplTest {
     @DisplayName("Testes para deletarEquipamento")
     class DeletarEquipamentoTests {
         @Test
-        @DisplayName("Deve chamar deleteById quando equipamento existe")
-        void deletarEquipamento_QuandoEquipamentoExiste_DeveChamarDeleteById() {
-            when(equipamentoRepository.existsById(mockEquipId)).thenReturn(true);
-            doNothing().when(equipamentoRepository).deleteById(mockEquipId);
+        @DisplayName("Deve remover o equipamento e o histórico e publicar a remoção quando equipamento existe")
+        void deletarEquipamento_QuandoEquipamentoExiste_DeveRemover() {
+            when(equipamentoRepository.removerPorId(mockEquipId))
+                    .thenReturn(Optional.of(equipamentoPersistido(mockEquipId, "Monitor", "SN-1")));
 
             assertDoesNotThrow(() -> equipamentoAppService.deletarEquipamento(mockEquipId));
 
-            verify(equipamentoRepository).existsById(mockEquipId);
-            verify(equipamentoRepository).deleteById(mockEquipId);
+            verify(equipamentoRepository).removerPorId(mockEquipId);
+            verify(historicoRepository).deleteByEquipamentoId(mockEquipId);
+            verify(removidoRepository).save(argThat(removido -> removido.getId().equals(mockEquipId)
+                    && removido.getNumeroDeSerie().equals("SN-1") && removido.getRemovidoPorUsuario().equals(mockUserEmail)));
+            verify(eventPublisher).publishEvent(EquipamentoAlteradoEvent.removido(mockEquipId, "SN-1"));
         }
 
         @Test
         @DisplayName("Deve lançar RecursoNaoEncontradoException quando equipamento não existe para deleção")
         void deletarEquipamento_QuandoEquipamentoNaoExiste_DeveLancarExcecao() {
-            when(equipamentoRepository.existsById("idNaoExiste")).thenReturn(false);
+            when(equipamentoRepository.removerPorId("idNaoExiste")).thenReturn(Optional.empty());
             assertThrows(RecursoNaoEncontradoException.class, () ->
                     equipamentoAppService.deletarEquipamento("idNaoExiste")
             );
-            verify(equipamentoRepository, never()).deleteById(anyString());
+            verify(historicoRepository, never()).deleteByEquipamentoId(anyString());
+            verifyNoInteractions(removidoRepository, eventPublisher);
         }
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package oliveiradev.inventario.application.impl.usuarios;
 
 import oliveiradev.inventario.application.dto.usuario.UsuarioCriacaoDTO;
 import oliveiradev.inventario.application.dto.usuario.UsuarioRespostaDTO;
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
 import oliveiradev.inventario.application.exception.EmailJaCadastradoException;
 import oliveiradev.inventario.application.exception.RecursoNaoEncontradoException;
 import oliveiradev.inventario.application.impl.UsuarioAppServiceImpl;
@@ -18,6 +19,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.LocalDateTime;
@@ -40,6 +42,9 @@ class UsuarioAppServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UsuarioAppServiceImpl usuarioAppService;
 
@@ -272,6 +277,8 @@ class UsuarioAppServiceImplTest {
             verify(usuarioRepository).findById(mockUserId);
             verify(usuarioDoBancoMock).definirNiveis(novosNiveis);
             verify(usuarioRepository).save(usuarioDoBancoMock);
+            verify(eventPublisher).publishEvent(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.ATUALIZADO,
+                    mockUserId, mockUserEmail));
         }
 
         @Test
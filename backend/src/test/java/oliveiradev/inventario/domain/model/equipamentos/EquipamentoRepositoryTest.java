@@ -2,7 +2,11 @@ package oliveiradev.inventario.domain.model.equipamentos;
 
 import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
 import oliveiradev.inventario.domain.model.equipamentos.LogAlteracao;
+import oliveiradev.inventario.domain.repository.EquipamentoPontuado;
+import oliveiradev.inventario.domain.repository.EquipamentoRemovidoRepository;
 import oliveiradev.inventario.domain.repository.EquipamentoRepository;
+import oliveiradev.inventario.domain.repository.OrdenacaoEquipamento;
+import oliveiradev.inventario.infra.config.CriacaoIndicesMongo;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,8 +14,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MongoDBContainer;
@@ -21,12 +31,15 @@ import org.testcontainers.utility.DockerImageName;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @Testcontainers
 @DataMongoTest
+@Import(CriacaoIndicesMongo.class) // Cria na subida o índice unique de numeroDeSerie e o de texto usados pelos testes
 class EquipamentoRepositoryTest {
     @Container
     static final MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
@@ -40,6 +53,8 @@ class EquipamentoRepositoryTest {
     @Autowired
     private EquipamentoRepository equipamentoRepository;
     @Autowired
+    private EquipamentoRemovidoRepository removidoRepository;
+    @Autowired
     private MongoTemplate mongoTemplate;
     private Equipamento equipamento1;
     private Equipamento equipamento2;
@@ -60,6 +75,7 @@ class EquipamentoRepositoryTest {
     @AfterEach
     void tearDown() {
         equipamentoRepository.deleteAll(); // Limpa após cada teste
+        removidoRepository.deleteAll();
     }
 
     @Test
@@ -124,7 +140,7 @@ class EquipamentoRepositoryTest {
     }
 
     @Test
-    @DisplayName("Deve atualizar um equipamento e seus logs")
+    @DisplayName("Deve atualizar um equipamento sem persistir os logs no documento")
     void update_EquipamentoExistente_DeveRefletirMudancas() {
         Optional<Equipamento> optionalEquip = equipamentoRepository.findById(equipamento1.getId());
         assertTrue(optionalEquip.isPresent());
@@ -139,9 +155,65 @@ class EquipamentoRepositoryTest {
 
         assertNotNull(atualizado);
         assertEquals(novoNome, atualizado.getNome());
-        assertEquals(2, atualizado.getLogs().size(), "Deveria ter o log original + 2 novos logs (nome e status)");
-        assertTrue(atualizado.getLogs().get(1).getDescricao().contains("Nome alterado"));
-        assertEquals("Status alterado para 'Em Uso'.", atualizado.getLogs().get(2).getDescricao()); // Ajustar índice se o log de criação da entidade for diferente
+        // Os logs são @Transient: ao recarregar, só restam as 2 entradas pendentes desta alteração (nome e status)
+        assertEquals(2, atualizado.getLogs().size(), "Deveria ter apenas os 2 novos logs pendentes (nome e status)");
+        assertTrue(atualizado.getLogs().get(0).getDescricao().contains("Nome alterado"));
+        assertEquals("Status alterado para 'Em Uso'.", atualizado.getLogs().get(1).getDescricao());
+
+        Equipamento recarregado = equipamentoRepository.findById(equipamento1.getId()).orElseThrow();
+        assertTrue(recarregado.getLogs().isEmpty(), "Os logs ficam em historico_equipamentos, não no documento");
+    }
+
+    @Test
+    @DisplayName("atualizarSeDiferente deve gravar só os campos enviados e devolver a imagem anterior")
+    void atualizarSeDiferente_ComCampoAlterado_DeveRetornarImagemAnterior() {
+        LocalDateTime agora = LocalDateTime.of(2024, 5, 1, 10, 30);
+
+        Optional<Equipamento> anterior = equipamentoRepository.atualizarSeDiferente(
+                equipamento1.getId(), null, Map.of("nome", "Notebook Renomeado"), agora, "updater@test.com");
+
+        assertTrue(anterior.isPresent());
+        assertEquals("Notebook Gamer Alien", anterior.get().getNome());
+        Equipamento gravado = equipamentoRepository.findById(equipamento1.getId()).orElseThrow();
+        assertEquals("Notebook Renomeado", gravado.getNome());
+        assertEquals(equipamento1.getDescricaoDetalhada(), gravado.getDescricaoDetalhada());
+        assertEquals("updater@test.com", gravado.getModificadoPorUsuario());
+        assertEquals(agora, gravado.getDataUltimaModificacao());
+        assertEquals(anterior.get().getVersao() + 1, gravado.getVersao());
+        assertEquals(gravado.getVersao(), gravado.getVersaoDoCampo("nome"));
+        assertEquals(0L, gravado.getVersaoDoCampo("descricaoDetalhada"));
+    }
+
+    @Test
+    @DisplayName("atualizarSeDiferente com versão base deve aceitar campos não conflitantes e recusar os conflitantes")
+    void atualizarSeDiferente_ComVersaoBase_DeveDetectarConflitoPorCampo() {
+        Long versaoBase = equipamentoRepository.findById(equipamento1.getId()).orElseThrow().getVersao();
+        // Outro usuário altera a descrição depois da versão base
+        assertTrue(equipamentoRepository.atualizarSeDiferente(equipamento1.getId(), versaoBase,
+                Map.of("descricaoDetalhada", "Descrição de outro usuário"), LocalDateTime.now(), "outro@test.com").isPresent());
+
+        // Alterar o nome a partir da mesma versão base não conflita
+        assertTrue(equipamentoRepository.atualizarSeDiferente(equipamento1.getId(), versaoBase,
+                Map.of("nome", "Notebook Renomeado"), LocalDateTime.now(), "updater@test.com").isPresent());
+
+        // Sobrescrever a descrição a partir da versão base conflita: nada é gravado
+        assertTrue(equipamentoRepository.atualizarSeDiferente(equipamento1.getId(), versaoBase,
+                Map.of("descricaoDetalhada", "Minha descrição"), LocalDateTime.now(), "updater@test.com").isEmpty());
+        Equipamento gravado = equipamentoRepository.findById(equipamento1.getId()).orElseThrow();
+        assertEquals("Descrição de outro usuário", gravado.getDescricaoDetalhada());
+        assertEquals("Notebook Renomeado", gravado.getNome());
+        assertEquals(versaoBase + 2, gravado.getVersao());
+    }
+
+    @Test
+    @DisplayName("atualizarSeDiferente não deve gravar quando os valores já são os atuais")
+    void atualizarSeDiferente_SemDiferenca_NaoDeveGravar() {
+        Optional<Equipamento> anterior = equipamentoRepository.atualizarSeDiferente(
+                equipamento1.getId(), null, Map.of("nome", equipamento1.getNome()), LocalDateTime.now(), "updater@test.com");
+
+        assertTrue(anterior.isEmpty());
+        Equipamento gravado = equipamentoRepository.findById(equipamento1.getId()).orElseThrow();
+        assertNotEquals("updater@test.com", gravado.getModificadoPorUsuario());
     }
 
     @Test
@@ -158,4 +230,112 @@ class EquipamentoRepositoryTest {
         List<Equipamento> naoEncontrados = equipamentoRepository.findByNomeContainingIgnoreCase("inexistente");
         assertTrue(naoEncontrados.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("buscarPorTexto deve usar o índice de texto e ordenar por relevância")
+    void buscarPorTexto_DeveOrdenarPorRelevanciaEPaginar() {
+        Equipamento equipamento3 = equipamentoRepository.save(
+                new Equipamento("Suporte articulado", "SN-SUP-01", "Suporte para monitor e notebook"));
+
+        // "monitor" no nome (peso 3) vem antes de "monitor" só na descrição
+        List<EquipamentoPontuado> primeiraPagina = equipamentoRepository.buscarPorTexto("monitor", null, null, 1);
+        assertEquals(1, primeiraPagina.size());
+        assertEquals(equipamento2.getId(), primeiraPagina.get(0).equipamento().getId());
+
+        EquipamentoPontuado ultimo = primeiraPagina.get(0);
+        List<EquipamentoPontuado> segundaPagina = equipamentoRepository.buscarPorTexto(
+                "monitor", ultimo.pontuacao(), ultimo.equipamento().getId(), 10);
+        assertEquals(1, segundaPagina.size());
+        assertEquals(equipamento3.getId(), segundaPagina.get(0).equipamento().getId());
+        assertTrue(segundaPagina.get(0).pontuacao() < ultimo.pontuacao());
+    }
+
+    @Test
+    @DisplayName("buscarPorTrechoDoNome deve encontrar trechos sem diferenciar maiúsculas e tratar o termo como literal")
+    void buscarPorTrechoDoNome_DeveEncontrarTrechoLiteral() {
+        List<Equipamento> encontrados = equipamentoRepository.buscarPorTrechoDoNome("GAMER al", null, 10);
+        assertEquals(1, encontrados.size());
+        assertEquals(equipamento1.getId(), encontrados.get(0).getId());
+
+        assertTrue(equipamentoRepository.buscarPorTrechoDoNome("Dell.*", null, 10).isEmpty());
+        assertTrue(equipamentoRepository.buscarPorTrechoDoNome("Dell", equipamento2.getId(), 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("buscarPaginaAposCursor deve percorrer os equipamentos em ordem sem repetir itens")
+    void buscarPaginaAposCursor_DevePaginarPorKeyset() {
+        List<Equipamento> primeiraPagina = equipamentoRepository.buscarPaginaAposCursor(OrdenacaoEquipamento.NOME, null, null, 1);
+        assertEquals(1, primeiraPagina.size());
+        assertEquals(equipamento2.getNome(), primeiraPagina.get(0).getNome()); // "Monitor..." < "Notebook..."
+
+        Equipamento ultimo = primeiraPagina.get(0);
+        List<Equipamento> segundaPagina = equipamentoRepository.buscarPaginaAposCursor(
+                OrdenacaoEquipamento.NOME, ultimo.getNome(), ultimo.getId(), 1);
+        assertEquals(1, segundaPagina.size());
+        assertEquals(equipamento1.getNome(), segundaPagina.get(0).getNome());
+
+        List<Equipamento> fim = equipamentoRepository.buscarPaginaAposCursor(
+                OrdenacaoEquipamento.NOME, segundaPagina.get(0).getNome(), segundaPagina.get(0).getId(), 1);
+        assertTrue(fim.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve buscar vários equipamentos por ids e por números de série em uma consulta cada")
+    void buscarPorIdsENumerosDeSerie_DeveIgnorarInexistentes() {
+        List<Equipamento> porIds = equipamentoRepository.buscarPorIds(List.of(equipamento1.getId(), "000000000000000000000000"));
+        List<Equipamento> porNumerosDeSerie = equipamentoRepository.buscarPorNumerosDeSerie(
+                List.of(equipamento2.getNumeroDeSerie(), equipamento1.getNumeroDeSerie(), "SN-INEXISTENTE"));
+
+        assertEquals(List.of(equipamento1.getId()), porIds.stream().map(Equipamento::getId).toList());
+        assertEquals(2, porNumerosDeSerie.size());
+    }
+
+    @Test
+    @DisplayName("Leituras projetadas devem devolver só os campos pedidos, com id em texto e datas como LocalDateTime")
+    void buscarProjetado_DeveRetornarSoOsCamposPedidos() {
+        Optional<Map<String, Object>> porSerie = equipamentoRepository.buscarProjetadoPor("numeroDeSerie",
+                equipamento1.getNumeroDeSerie(), List.of("nome", "dataInclusaoNoSistema"));
+        List<Map<String, Object>> pagina = equipamentoRepository.buscarPaginaAposCursorProjetada(OrdenacaoEquipamento.NOME,
+                null, null, 10, List.of("nome"));
+
+        assertTrue(porSerie.isPresent());
+        assertEquals(Set.of("id", "nome", "dataInclusaoNoSistema"), porSerie.get().keySet());
+        assertEquals(equipamento1.getId(), porSerie.get().get("id"));
+        assertInstanceOf(LocalDateTime.class, porSerie.get().get("dataInclusaoNoSistema"));
+        assertEquals(2, pagina.size());
+        assertTrue(pagina.stream().allMatch(documento -> documento.keySet().equals(Set.of("id", "nome"))));
+        assertTrue(equipamentoRepository.buscarProjetadoPor("id", "000000000000000000000000", List.of("nome")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("buscarAlteradosEntre deve respeitar o intervalo [inicio, fim) em ordem de modificação")
+    void buscarAlteradosEntre_DeveFiltrarPorIntervalo() {
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 10, 0);
+        // Data fixa gravada direto no documento, independente da auditoria do save()
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(equipamento1.getId())),
+                new Update().set("dataUltimaModificacao", base.plusMinutes(2)), Equipamento.class);
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(equipamento2.getId())),
+                new Update().set("dataUltimaModificacao", base), Equipamento.class);
+
+        List<Equipamento> todos = equipamentoRepository.buscarAlteradosEntre(null, base.plusHours(1), 0);
+        List<Equipamento> aPartirDaBase = equipamentoRepository.buscarAlteradosEntre(base.plusMinutes(1), base.plusHours(1), 0);
+        List<Equipamento> antesDoFim = equipamentoRepository.buscarAlteradosEntre(base, base.plusMinutes(2), 1);
+
+        assertEquals(List.of(equipamento2.getId(), equipamento1.getId()), todos.stream().map(Equipamento::getId).toList());
+        assertEquals(List.of(equipamento1.getId()), aPartirDaBase.stream().map(Equipamento::getId).toList());
+        assertEquals(List.of(equipamento2.getId()), antesDoFim.stream().map(Equipamento::getId).toList());
+    }
+
+    @Test
+    @DisplayName("buscarRemovidosEntre deve devolver as marcas de remoção do intervalo")
+    void buscarRemovidosEntre_DeveFiltrarPorIntervalo() {
+        LocalDateTime base = LocalDateTime.of(2024, 5, 1, 10, 0);
+        removidoRepository.save(new EquipamentoRemovido("id1", "SN-1", base, "admin@test.com"));
+        removidoRepository.save(new EquipamentoRemovido("id2", "SN-2", base.plusMinutes(5), "admin@test.com"));
+
+        List<EquipamentoRemovido> removidos = removidoRepository.buscarRemovidosEntre(base.plusMinutes(1), base.plusHours(1),
+                PageRequest.of(0, 10, Sort.by("dataRemocao")));
+
+        assertEquals(List.of("id2"), removidos.stream().map(EquipamentoRemovido::getId).toList());
+    }
+}
@@ -0,0 +1,163 @@
+package oliveiradev.inventario.domain.model.equipamentos;
+
+import oliveiradev.inventario.domain.repository.EntradaHistorico;
+import oliveiradev.inventario.domain.repository.HistoricoEquipamentoRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@DataMongoTest
+class HistoricoEquipamentoRepositoryTest {
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoDBContainer.getConnectionString() + "/estoquedb";
+        registry.add("spring.data.mongodb.uri", () -> connectionString);
+    }
+
+    @Autowired
+    private HistoricoEquipamentoRepository historicoRepository;
+
+    private final LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    @BeforeEach
+    void setUp() {
+        historicoRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        historicoRepository.deleteAll();
+    }
+
+    private List<LogAlteracao> entradas(int quantidade, int deslocamento) {
+        List<LogAlteracao> logs = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            logs.add(new LogAlteracao(base.plusMinutes(deslocamento + i), "user@test.com", "Alteração " + (deslocamento + i)));
+        }
+        return logs;
+    }
+
+    @Test
+    @DisplayName("registrar deve abrir um novo bucket quando o atual está cheio")
+    void registrar_QuandoBucketCheio_DeveAbrirNovoBucket() {
+        historicoRepository.registrar("equip1", entradas(HistoricoEquipamento.TAMANHO_MAXIMO, 0));
+        historicoRepository.registrar("equip1", entradas(1, HistoricoEquipamento.TAMANHO_MAXIMO));
+
+        List<HistoricoEquipamento> buckets = historicoRepository.findAll();
+        assertEquals(2, buckets.size());
+        assertTrue(buckets.stream().allMatch(bucket -> bucket.getQuantidade() == bucket.getLogs().size()));
+
+        List<LogAlteracao> historico = historicoRepository.listarEntradasRecentes("equip1", HistoricoEquipamento.TAMANHO_MAXIMO + 10);
+        assertEquals(HistoricoEquipamento.TAMANHO_MAXIMO + 1, historico.size());
+        assertEquals("Alteração 0", historico.get(0).getDescricao());
+        assertEquals("Alteração " + HistoricoEquipamento.TAMANHO_MAXIMO, historico.get(historico.size() - 1).getDescricao());
+    }
+
+    @Test
+    @DisplayName("registrar deve acumular no mesmo bucket e manter inicio/fim")
+    void registrar_ComEspaco_DeveAcumularNoMesmoBucket() {
+        historicoRepository.registrar("equip1", entradas(2, 0));
+        historicoRepository.registrar("equip1", entradas(1, 5));
+
+        List<HistoricoEquipamento> buckets = historicoRepository.findAll();
+        assertEquals(1, buckets.size());
+        assertEquals(3, buckets.get(0).getQuantidade());
+        assertEquals(base, buckets.get(0).getInicio());
+        assertEquals(base.plusMinutes(5), buckets.get(0).getFim());
+    }
+
+    @Test
+    @DisplayName("listarEntradasRecentes deve devolver só as últimas entradas, em ordem cronológica")
+    void listarEntradasRecentes_DeveLimitarAsUltimas() {
+        historicoRepository.registrar("equip1", entradas(HistoricoEquipamento.TAMANHO_MAXIMO, 0));
+        historicoRepository.registrar("equip1", entradas(1, HistoricoEquipamento.TAMANHO_MAXIMO));
+
+        List<LogAlteracao> recentes = historicoRepository.listarEntradasRecentes("equip1", 3);
+
+        assertEquals(List.of("Alteração 98", "Alteração 99", "Alteração 100"),
+                recentes.stream().map(LogAlteracao::getDescricao).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("listarEntradasAnteriores deve paginar por entrada mesmo com buckets sobrepostos no tempo")
+    void listarEntradasAnteriores_BucketsSobrepostos_DevePaginarPorEntrada() {
+        // Dois buckets intercalados no tempo, como os abertos por registros concorrentes
+        HistoricoEquipamento pares = new HistoricoEquipamento();
+        HistoricoEquipamento impares = new HistoricoEquipamento();
+        List<LogAlteracao> todas = entradas(6, 0);
+        preencher(pares, List.of(todas.get(0), todas.get(2), todas.get(4)));
+        preencher(impares, List.of(todas.get(1), todas.get(3), todas.get(5)));
+        historicoRepository.saveAll(List.of(pares, impares));
+
+        List<String> lidas = new ArrayList<>();
+        List<EntradaHistorico> pagina = historicoRepository.listarEntradasAnteriores("equip1", null, null, 0, 4);
+        pagina.forEach(entrada -> lidas.add(entrada.log().getDescricao()));
+        EntradaHistorico ultima = pagina.get(pagina.size() - 1);
+        historicoRepository.listarEntradasAnteriores("equip1", ultima.log().getDataHora(), ultima.bucketId(), ultima.indice(), 4)
+                .forEach(entrada -> lidas.add(entrada.log().getDescricao()));
+
+        assertEquals(List.of("Alteração 5", "Alteração 4", "Alteração 3", "Alteração 2", "Alteração 1", "Alteração 0"), lidas);
+    }
+
+    @Test
+    @DisplayName("listarEntradasAnteriores deve desempatar entradas de mesma dataHora pela posição no bucket")
+    void listarEntradasAnteriores_MesmaDataHora_NaoDeveRepetirNemPular() {
+        historicoRepository.registrar("equip1", List.of(
+                new LogAlteracao(base, "user@test.com", "Nome alterado"),
+                new LogAlteracao(base, "user@test.com", "Descrição alterada")));
+
+        EntradaHistorico primeira = historicoRepository.listarEntradasAnteriores("equip1", null, null, 0, 1).get(0);
+        List<EntradaHistorico> restantes = historicoRepository.listarEntradasAnteriores(
+                "equip1", primeira.log().getDataHora(), primeira.bucketId(), primeira.indice(), 10);
+
+        assertEquals("Descrição alterada", primeira.log().getDescricao());
+        assertEquals(1, restantes.size());
+        assertEquals("Nome alterado", restantes.get(0).log().getDescricao());
+    }
+
+    @Test
+    @DisplayName("listarEntradasRecentesPorEquipamentos deve agrupar o histórico recente por equipamento")
+    void listarEntradasRecentesPorEquipamentos_DeveAgruparPorEquipamento() {
+        historicoRepository.registrar("equip1", entradas(3, 0));
+        historicoRepository.registrar("equip2", entradas(1, 10));
+
+        Map<String, List<LogAlteracao>> historicos = historicoRepository.listarEntradasRecentesPorEquipamentos(
+                List.of("equip1", "equip2", "equip3"), 2);
+
+        assertEquals(List.of("Alteração 1", "Alteração 2"),
+                historicos.get("equip1").stream().map(LogAlteracao::getDescricao).collect(Collectors.toList()));
+        assertEquals(1, historicos.get("equip2").size());
+        assertFalse(historicos.containsKey("equip3"));
+    }
+
+    private void preencher(HistoricoEquipamento bucket, List<LogAlteracao> logs) {
+        ReflectionTestUtils.setField(bucket, "equipamentoId", "equip1");
+        ReflectionTestUtils.setField(bucket, "inicio", logs.get(0).getDataHora());
+        ReflectionTestUtils.setField(bucket, "fim", logs.get(logs.size() - 1).getDataHora());
+        ReflectionTestUtils.setField(bucket, "quantidade", logs.size());
+        ReflectionTestUtils.setField(bucket, "logs", new ArrayList<>(logs));
+    }
+}
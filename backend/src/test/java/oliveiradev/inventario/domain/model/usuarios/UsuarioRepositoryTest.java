@@ -66,6 +66,18 @@ class UsuarioRepositoryTest {
         assertEquals("Usuário Teste 1", usuarioEncontrado.get().getNome());
     }
 
+    @Test
+    @DisplayName("Deve buscar só a versão dos níveis pelo email")
+    void buscarVersaoNiveisPorEmail_DeveRetornarApenasAVersao() {
+        Optional<Usuario> projetado = usuarioRepository.buscarVersaoNiveisPorEmail("teste1@email.com");
+
+        assertTrue(projetado.isPresent());
+        assertEquals(usuario1.getVersaoNiveis(), projetado.get().getVersaoNiveis());
+        assertTrue(projetado.get().getVersaoNiveis() > 0);
+        assertNull(projetado.get().getSenha());
+        assertTrue(usuarioRepository.buscarVersaoNiveisPorEmail("naoexiste@email.com").isEmpty());
+    }
+
     @Test
     @DisplayName("Não deve encontrar um usuário pelo email quando o email não existe")
     void findByEmail_QuandoEmailNaoExiste_DeveRetornarOptionalVazio() {
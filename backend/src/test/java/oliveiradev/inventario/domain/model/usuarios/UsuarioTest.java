@@ -162,6 +162,19 @@ class UsuarioTest {
             assertThrows(NullPointerException.class, () -> usuario.definirNiveis(null));
         }
 
+        @Test
+        @DisplayName("Alterações de níveis devem incrementar a versão dos níveis")
+        void alterarNiveis_DeveIncrementarVersaoNiveis() {
+            long inicial = usuario.getVersaoNiveis();
+            usuario.adicionarNivel(NivelUsuario.USUARIO_PADRAO);
+            long aposAdicionar = usuario.getVersaoNiveis();
+            usuario.removerNivel(NivelUsuario.USUARIO_ADMIN); // Nível ausente: nada muda
+            assertEquals(aposAdicionar, usuario.getVersaoNiveis());
+            usuario.definirNiveis(Set.of());
+            assertTrue(aposAdicionar > inicial);
+            assertTrue(usuario.getVersaoNiveis() > aposAdicionar);
+        }
+
         @Test
         @DisplayName("possuiNivel deve retornar true se o usuário possui o nível")
         void possuiNivel_QuandoPossui_DeveRetornarTrue() {
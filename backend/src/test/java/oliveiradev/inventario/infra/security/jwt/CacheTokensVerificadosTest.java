@@ -0,0 +1,145 @@
+package oliveiradev.inventario.infra.security.jwt;
+
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CacheTokensVerificadosTest {
+    private static final String EMAIL = "padrao@test.com";
+    private static final String SEGREDO =
+            "k1ZXzu4t/WpgHtynifYBjpPGFAUUrzs9185YgPnY5WgCf1ZhoOMCbkwmjjkxmWcm2+bFt50bT+HJtk8fWfSPHQ==";
+
+    private JwtTokenProvider tokenProvider;
+    private RelogioAjustavel relogio;
+    private SimpleMeterRegistry meterRegistry;
+    private CacheTokensVerificados cache;
+    private String token;
+
+    // Avança só o relógio do cache: o parser continua no horário real
+    private static class RelogioAjustavel extends Clock {
+        private Instant agora = Instant.now();
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+    }
+
+    private static JwtTokenProvider novoProvider(String segredo) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecretString", segredo);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 3600000L);
+        provider.init();
+        return provider;
+    }
+
+    private static String gerarToken(JwtTokenProvider provider) {
+        return gerarToken(provider, EMAIL);
+    }
+
+    private static String gerarToken(JwtTokenProvider provider, String email) {
+        return provider.generateToken(User.withUsername(email).password("senha").roles("USUARIO_PADRAO").build());
+    }
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = spy(novoProvider(SEGREDO));
+        relogio = new RelogioAjustavel();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new CacheTokensVerificados(tokenProvider, true, 100, meterRegistry, relogio);
+        token = gerarToken(tokenProvider);
+    }
+
+    @Test
+    @DisplayName("Deve verificar a assinatura só na primeira requisição com o mesmo token")
+    void verificar_MesmoToken_DeveVirDoCache() {
+        TokenVerificado primeiro = cache.verificar(token);
+        TokenVerificado segundo = cache.verificar(token);
+
+        assertEquals(EMAIL, segundo.username());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USUARIO_PADRAO")), segundo.authorities());
+        assertSame(primeiro, segundo);
+        verify(tokenProvider, times(1)).validar(token);
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "jwt.tokens", "result", "hit").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Token inválido não deve ficar em cache")
+    void verificar_TokenInvalido_NaoDeveGuardar() {
+        String outraChave = gerarToken(novoProvider(
+                "c2VncmVkby1kZS1vdXRyby1zZXJ2aWRvci1jb20tdGFtYW5oby1zdWZpY2llbnRlLXBhcmEtaHM1MTItYWJjZGVmZ2hpams="));
+
+        assertNull(cache.verificar(outraChave));
+        assertNull(cache.verificar(outraChave));
+
+        verify(tokenProvider, times(2)).validar(outraChave);
+    }
+
+    @Test
+    @DisplayName("Depois do exp do token o cache não deve responder por ele")
+    void verificar_AposExpiracao_DeveVerificarDeNovo() {
+        cache.verificar(token);
+
+        relogio.avancar(Duration.ofHours(2));
+        cache.verificar(token);
+
+        verify(tokenProvider, times(2)).validar(token);
+    }
+
+    @Test
+    @DisplayName("Alteração do usuário deve descartar os tokens dele")
+    void aoAlterarUsuario_DeveDescartarTokensDoUsuario() {
+        cache.verificar(token);
+
+        cache.aoAlterarUsuario(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.ATUALIZADO, "id1", EMAIL));
+        cache.verificar(token);
+
+        verify(tokenProvider, times(2)).validar(anyString());
+    }
+
+    @Test
+    @DisplayName("Alteração de um usuário deve manter em cache os tokens dos demais")
+    void aoAlterarUsuario_DeveManterTokensDeOutrosUsuarios() {
+        String tokenOutroUsuario = gerarToken(tokenProvider, "outro@test.com");
+        cache.verificar(token);
+        cache.verificar(tokenOutroUsuario);
+
+        cache.aoAlterarUsuario(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.ATUALIZADO, "id1", "PADRAO@test.com"));
+        cache.verificar(token);
+        cache.verificar(tokenOutroUsuario);
+
+        verify(tokenProvider, times(2)).validar(token);
+        verify(tokenProvider, times(1)).validar(tokenOutroUsuario);
+    }
+}
@@ -0,0 +1,102 @@
+package oliveiradev.inventario.infra.security.jwt;
+
+import oliveiradev.inventario.infra.security.service.CustomUserDetailsService;
+import oliveiradev.inventario.infra.security.service.UsuarioAutenticado;
+import oliveiradev.inventario.infra.security.service.VersoesNiveisUsuarios;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+    private static final String EMAIL = "admin@test.com";
+
+    @Mock
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Mock
+    private VersoesNiveisUsuarios versoesNiveis;
+
+    private JwtTokenProvider tokenProvider;
+    private CacheTokensVerificados tokensVerificados;
+    private UsuarioAutenticado usuario;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecretString",
+                "k1ZXzu4t/WpgHtynifYBjpPGFAUUrzs9185YgPnY5WgCf1ZhoOMCbkwmjjkxmWcm2+bFt50bT+HJtk8fWfSPHQ==");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3600000L);
+        tokenProvider.init();
+        tokensVerificados = new CacheTokensVerificados(tokenProvider, true, 100, new SimpleMeterRegistry());
+        usuario = new UsuarioAutenticado(EMAIL, "senha", List.of(new SimpleGrantedAuthority("ROLE_USUARIO_ADMIN")), 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private Authentication autenticar(String modo) throws Exception {
+        JwtAuthFilter filtro = new JwtAuthFilter(tokensVerificados, customUserDetailsService, versoesNiveis, modo);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/equipamentos");
+        request.addHeader("Authorization", "Bearer " + tokenProvider.generateToken(usuario));
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    @DisplayName("Modo claims deve autenticar pelos níveis do token sem carregar o usuário do banco")
+    void modoClaims_VersaoAtual_NaoDeveConsultarUsuario() throws Exception {
+        when(versoesNiveis.versaoAtual(EMAIL)).thenReturn(Optional.of(3L));
+
+        Authentication autenticacao = autenticar("claims");
+
+        assertNotNull(autenticacao);
+        assertEquals(EMAIL, autenticacao.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USUARIO_ADMIN")), List.copyOf(autenticacao.getAuthorities()));
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    @DisplayName("Modo claims deve seguir pelo banco quando os níveis mudaram depois da emissão do token")
+    void modoClaims_VersaoAlterada_DeveCarregarUsuarioDoBanco() throws Exception {
+        UsuarioAutenticado atual = new UsuarioAutenticado(EMAIL, "senha", List.of(new SimpleGrantedAuthority("ROLE_USUARIO_PADRAO")), 4);
+        when(versoesNiveis.versaoAtual(EMAIL)).thenReturn(Optional.of(4L));
+        when(customUserDetailsService.loadUserByUsername(EMAIL)).thenReturn(atual);
+
+        Authentication autenticacao = autenticar("claims");
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USUARIO_PADRAO")), List.copyOf(autenticacao.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("Modo banco deve carregar o usuário a cada requisição")
+    void modoBanco_DeveCarregarUsuarioDoBanco() throws Exception {
+        when(customUserDetailsService.loadUserByUsername(EMAIL)).thenReturn(usuario);
+
+        assertNotNull(autenticar("banco"));
+        verify(customUserDetailsService).loadUserByUsername(EMAIL);
+        verify(versoesNiveis, never()).versaoAtual(anyString());
+    }
+}
@@ -0,0 +1,80 @@
+package oliveiradev.inventario.infra.security.jwt;
+
+import oliveiradev.inventario.infra.security.service.UsuarioAutenticado;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+    private static final String SEGREDO =
+            "k1ZXzu4t/WpgHtynifYBjpPGFAUUrzs9185YgPnY5WgCf1ZhoOMCbkwmjjkxmWcm2+bFt50bT+HJtk8fWfSPHQ==";
+
+    private JwtTokenProvider tokenProvider;
+    private UserDetails usuario;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = novoProvider(3600000);
+        usuario = User.withUsername("padrao@test.com").password("senha").roles("USUARIO_PADRAO").build();
+    }
+
+    private static JwtTokenProvider novoProvider(long expiracaoMs) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecretString", SEGREDO);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expiracaoMs);
+        provider.init();
+        return provider;
+    }
+
+    @Test
+    @DisplayName("Token válido deve devolver as claims lidas na mesma análise")
+    void validar_TokenValido_DeveRetornarClaims() {
+        ValidacaoToken validacao = tokenProvider.validar(tokenProvider.generateToken(usuario));
+
+        assertTrue(validacao.isValido());
+        assertEquals("padrao@test.com", validacao.claims().getSubject());
+        assertEquals("ROLE_USUARIO_PADRAO", validacao.claims().get("roles"));
+    }
+
+    @Test
+    @DisplayName("Token de usuário carregado do banco deve levar a versão dos níveis e os níveis")
+    void generateToken_UsuarioAutenticado_DeveGravarVersaoNiveis() {
+        UsuarioAutenticado autenticado = new UsuarioAutenticado("admin@test.com", "senha",
+                List.of(new SimpleGrantedAuthority("ROLE_USUARIO_ADMIN"), new SimpleGrantedAuthority("ROLE_USUARIO_PADRAO")), 7);
+
+        Claims claims = tokenProvider.validar(tokenProvider.generateToken(autenticado)).claims();
+
+        assertEquals(7L, tokenProvider.getVersaoNiveis(claims));
+        assertEquals(Set.of("ROLE_USUARIO_ADMIN", "ROLE_USUARIO_PADRAO"), tokenProvider.getAuthorities(claims).stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet()));
+        assertNull(tokenProvider.getVersaoNiveis(tokenProvider.validar(tokenProvider.generateToken(usuario)).claims()));
+    }
+
+    @Test
+    @DisplayName("Deve informar o motivo da recusa do token")
+    void validar_TokenInvalido_DeveRetornarMotivo() {
+        String token = tokenProvider.generateToken(usuario);
+        String assinaturaAlterada = token.substring(0, token.length() - 4)
+                + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        assertEquals(ValidacaoToken.Falha.ASSINATURA_INVALIDA, tokenProvider.validar(assinaturaAlterada).falha());
+        assertEquals(ValidacaoToken.Falha.EXPIRADO, tokenProvider.validar(novoProvider(-1000).generateToken(usuario)).falha());
+        assertEquals(ValidacaoToken.Falha.MALFORMADO, tokenProvider.validar("nao.e.jwt").falha());
+        assertEquals(ValidacaoToken.Falha.VAZIO, tokenProvider.validar(" ").falha());
+        assertNull(tokenProvider.validar("nao.e.jwt").claims());
+    }
+}
@@ -0,0 +1,93 @@
+package oliveiradev.inventario.infra.security.service;
+
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
+import oliveiradev.inventario.domain.model.enums.NivelUsuario;
+import oliveiradev.inventario.domain.model.usuarios.Usuario;
+import oliveiradev.inventario.domain.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+    private static final String EMAIL = "admin@test.com";
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private CustomUserDetailsService service;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        service = new CustomUserDetailsService(usuarioRepository, true, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        usuario = new Usuario("Admin", EMAIL, "senhaHashed");
+        usuario.adicionarNivel(NivelUsuario.USUARIO_ADMIN);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o usuário no banco só na primeira carga do e-mail normalizado")
+    void loadUserByUsername_SegundaCarga_DeveVirDoCache() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario));
+
+        UserDetails primeiro = service.loadUserByUsername(EMAIL);
+        UserDetails segundo = service.loadUserByUsername("  Admin@Test.com ");
+
+        assertEquals(EMAIL, segundo.getUsername());
+        assertEquals(Set.of(new SimpleGrantedAuthority("ROLE_USUARIO_ADMIN")), Set.copyOf(segundo.getAuthorities()));
+        assertNotSame(primeiro, segundo);
+        verify(usuarioRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Apagar a senha do principal após o login não deve afetar o cache")
+    void loadUserByUsername_CredenciaisApagadas_DeveManterSenhaEmCache() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario));
+
+        ((User) service.loadUserByUsername(EMAIL)).eraseCredentials();
+
+        assertEquals("senhaHashed", service.loadUserByUsername(EMAIL).getPassword());
+    }
+
+    @Test
+    @DisplayName("Alteração dos níveis deve descartar o usuário em cache")
+    void aoAlterarUsuario_DeveRecarregarNiveis() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario));
+        service.loadUserByUsername(EMAIL);
+
+        usuario.definirNiveis(Set.of(NivelUsuario.USUARIO_PADRAO));
+        service.aoAlterarUsuario(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.ATUALIZADO, "id1", EMAIL));
+
+        UsuarioAutenticado recarregado = (UsuarioAutenticado) service.loadUserByUsername(EMAIL);
+        assertEquals(Set.of(new SimpleGrantedAuthority("ROLE_USUARIO_PADRAO")), Set.copyOf(recarregado.getAuthorities()));
+        assertEquals(usuario.getVersaoNiveis(), recarregado.getVersaoNiveis());
+        verify(usuarioRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Usuário inexistente não deve ficar em cache")
+    void loadUserByUsername_UsuarioInexistente_NaoDeveGuardar() {
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername(EMAIL));
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername(EMAIL));
+
+        verify(usuarioRepository, times(2)).findByEmail(EMAIL);
+    }
+}
@@ -0,0 +1,81 @@
+package oliveiradev.inventario.infra.security.service;
+
+import oliveiradev.inventario.application.exception.ServicoSobrecarregadoException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordEncoderLimitadoTest {
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordEncoderLimitado encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    @Test
+    @DisplayName("Deve calcular e conferir o hash no pool, registrando a duração")
+    void encodeEMatches_DevemDelegarAoBCrypt() {
+        encoder = new PasswordEncoderLimitado(new BCryptPasswordEncoder(4), 2, 4, meterRegistry);
+
+        String hash = encoder.encode("senha123");
+
+        assertTrue(encoder.matches("senha123", hash));
+        assertFalse(encoder.matches("outra", hash));
+        assertEquals(1, meterRegistry.get("auth.senha.duracao").tag("operacao", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("auth.senha.duracao").tag("operacao", "matches").timer().count());
+    }
+
+    @Test
+    @DisplayName("Com pool e fila cheios deve recusar na hora com ServicoSobrecarregadoException")
+    void encode_PoolCheio_DeveRecusar() throws Exception {
+        CountDownLatch iniciado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence senha) {
+                iniciado.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence senha, String senhaCodificada) {
+                return false;
+            }
+        };
+        encoder = new PasswordEncoderLimitado(lento, 1, 0, meterRegistry);
+
+        CompletableFuture<String> ocupando = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(iniciado.await(5, TimeUnit.SECONDS));
+
+        ServicoSobrecarregadoException ex = assertThrows(ServicoSobrecarregadoException.class, () -> encoder.encode("b"));
+        assertNotNull(ex.getTentarNovamenteEm());
+        assertEquals(1, meterRegistry.get("auth.senha.rejeitadas").counter().count());
+        assertEquals(1, meterRegistry.get("auth.senha.ativas").gauge().value());
+
+        liberar.countDown();
+        assertEquals("hash", ocupando.get(5, TimeUnit.SECONDS));
+    }
+}
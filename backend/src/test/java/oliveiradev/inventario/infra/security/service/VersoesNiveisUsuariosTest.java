@@ -0,0 +1,72 @@
+package oliveiradev.inventario.infra.security.service;
+
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
+import oliveiradev.inventario.domain.model.enums.NivelUsuario;
+import oliveiradev.inventario.domain.model.usuarios.Usuario;
+import oliveiradev.inventario.domain.repository.UsuarioRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VersoesNiveisUsuariosTest {
+    private static final String EMAIL = "admin@test.com";
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    private VersoesNiveisUsuarios versoes;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        versoes = new VersoesNiveisUsuarios(usuarioRepository, Duration.ofMinutes(1), 100, new SimpleMeterRegistry());
+        usuario = new Usuario("Admin", EMAIL, "senhaHashed");
+        usuario.adicionarNivel(NivelUsuario.USUARIO_ADMIN);
+    }
+
+    @Test
+    @DisplayName("Deve consultar a versão no banco só na primeira leitura")
+    void versaoAtual_SegundaLeitura_DeveVirDoCache() {
+        when(usuarioRepository.buscarVersaoNiveisPorEmail(EMAIL)).thenReturn(Optional.of(usuario));
+
+        assertEquals(Optional.of(usuario.getVersaoNiveis()), versoes.versaoAtual(EMAIL));
+        assertEquals(Optional.of(usuario.getVersaoNiveis()), versoes.versaoAtual(EMAIL));
+
+        verify(usuarioRepository, times(1)).buscarVersaoNiveisPorEmail(EMAIL);
+    }
+
+    @Test
+    @DisplayName("Alteração do usuário deve descartar a versão em cache")
+    void aoAlterarUsuario_DeveRelerVersao() {
+        when(usuarioRepository.buscarVersaoNiveisPorEmail(EMAIL)).thenReturn(Optional.of(usuario));
+        long anterior = versoes.versaoAtual(EMAIL).orElseThrow();
+
+        usuario.adicionarNivel(NivelUsuario.USUARIO_PADRAO);
+        versoes.aoAlterarUsuario(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.ATUALIZADO, "id1", EMAIL));
+
+        assertEquals(anterior + 1, versoes.versaoAtual(EMAIL).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Usuário inexistente não deve ficar em cache")
+    void versaoAtual_UsuarioInexistente_NaoDeveGuardar() {
+        when(usuarioRepository.buscarVersaoNiveisPorEmail(EMAIL)).thenReturn(Optional.empty());
+
+        assertTrue(versoes.versaoAtual(EMAIL).isEmpty());
+        assertTrue(versoes.versaoAtual(EMAIL).isEmpty());
+
+        verify(usuarioRepository, times(2)).buscarVersaoNiveisPorEmail(EMAIL);
+    }
+}
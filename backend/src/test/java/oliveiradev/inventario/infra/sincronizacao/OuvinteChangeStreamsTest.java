@@ -0,0 +1,163 @@
+package oliveiradev.inventario.infra.sincronizacao;
+
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.event.UsuarioAlteradoEvent;
+import oliveiradev.inventario.domain.model.equipamentos.Equipamento;
+import oliveiradev.inventario.domain.model.usuarios.Usuario;
+import oliveiradev.inventario.domain.repository.EquipamentoRepository;
+import oliveiradev.inventario.domain.repository.UsuarioRepository;
+
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@DataMongoTest(properties = {
+        "app.sincronizacao.change-streams.habilitado=true",
+        "app.sincronizacao.change-streams.intervalo-gravacao-token=0s"
+})
+@Import({OuvinteChangeStreams.class, OuvinteChangeStreamsTest.ColetorEventos.class})
+class OuvinteChangeStreamsTest {
+    // O MongoDBContainer sobe como replica set de um nó, requisito dos change streams
+    @Container
+    static final MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:latest"));
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        String connectionString = mongoDBContainer.getConnectionString() + "/estoquedb";
+        registry.add("spring.data.mongodb.uri", () -> connectionString);
+    }
+
+    // Os eventos chegam pela thread do change stream, fora da thread do teste
+    static class ColetorEventos {
+        final BlockingQueue<Object> eventos = new LinkedBlockingQueue<>();
+
+        @EventListener
+        void aoAlterarEquipamento(EquipamentoAlteradoEvent evento) {
+            eventos.add(evento);
+        }
+
+        @EventListener
+        void aoAlterarUsuario(UsuarioAlteradoEvent evento) {
+            eventos.add(evento);
+        }
+    }
+
+    @Autowired
+    private EquipamentoRepository equipamentoRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private OuvinteChangeStreams ouvinte;
+    @Autowired
+    private ColetorEventos coletor;
+
+    // Sem token gravado, o stream começa no ponto atual: escreve até que o stream já aberto devolva a escrita
+    @BeforeEach
+    void aguardarStreamsAbertos() throws InterruptedException {
+        for (int tentativa = 0; tentativa < 20; tentativa++) {
+            Equipamento sonda = equipamentoRepository.save(new Equipamento("Sonda", "SN-" + UUID.randomUUID(), null));
+            Usuario sondaUsuario = usuarioRepository.save(new Usuario("Sonda", UUID.randomUUID() + "@test.com", "senha"));
+            boolean equipamentoVisto = aguardar(evento -> evento instanceof EquipamentoAlteradoEvent e && e.id().equals(sonda.getId()), 500) != null;
+            boolean usuarioVisto = aguardar(evento -> evento instanceof UsuarioAlteradoEvent e && e.id().equals(sondaUsuario.getId()), 500) != null;
+            if (equipamentoVisto && usuarioVisto) {
+                coletor.eventos.clear();
+                return;
+            }
+        }
+        fail("Change streams não foram abertos");
+    }
+
+    private Object aguardar(Predicate<Object> condicao, long timeoutMs) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        long restante;
+        while ((restante = limite - System.nanoTime()) > 0) {
+            Object evento = coletor.eventos.poll(restante, TimeUnit.NANOSECONDS);
+            if (evento != null && condicao.test(evento)) {
+                return evento;
+            }
+        }
+        return null;
+    }
+
+    private EquipamentoAlteradoEvent aguardarEquipamento(String id, EquipamentoAlteradoEvent.TipoAlteracao tipo) throws InterruptedException {
+        Object evento = aguardar(e -> e instanceof EquipamentoAlteradoEvent alterado && alterado.id().equals(id) && alterado.tipo() == tipo, 10_000);
+        assertNotNull(evento, "Evento " + tipo + " do equipamento " + id + " não recebido");
+        return (EquipamentoAlteradoEvent) evento;
+    }
+
+    @Test
+    @DisplayName("Deve publicar criação, atualização e remoção de equipamentos com origem no change stream")
+    void equipamentos_DevePublicarAlteracoes() throws InterruptedException {
+        Equipamento equipamento = equipamentoRepository.save(new Equipamento("Monitor Dell 24", "SN-CS-001", "Monitor"));
+
+        EquipamentoAlteradoEvent criado = aguardarEquipamento(equipamento.getId(), EquipamentoAlteradoEvent.TipoAlteracao.CRIADO);
+        assertEquals("SN-CS-001", criado.numeroDeSerie());
+        assertEquals("Monitor Dell 24", criado.resumo().nome());
+        assertEquals(EquipamentoAlteradoEvent.Origem.CHANGE_STREAM, criado.origem());
+
+        // Escrita fora do serviço, como a de outra réplica
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(equipamento.getId())),
+                new Update().set("nome", "Monitor Dell 27"), Equipamento.class);
+        EquipamentoAlteradoEvent atualizado = aguardarEquipamento(equipamento.getId(), EquipamentoAlteradoEvent.TipoAlteracao.ATUALIZADO);
+        assertEquals("Monitor Dell 27", atualizado.resumo().nome());
+
+        equipamentoRepository.deleteById(equipamento.getId());
+        EquipamentoAlteradoEvent removido = aguardarEquipamento(equipamento.getId(), EquipamentoAlteradoEvent.TipoAlteracao.REMOVIDO);
+        assertEquals("SN-CS-001", removido.numeroDeSerie()); // Pela pré-imagem
+        assertNull(removido.resumo());
+    }
+
+    @Test
+    @DisplayName("Deve publicar alterações de usuários com o e-mail")
+    void usuarios_DevePublicarAlteracoes() throws InterruptedException {
+        Usuario usuario = usuarioRepository.save(new Usuario("Ana", "ana.cs@test.com", "senhaHashed"));
+
+        Object evento = aguardar(e -> e instanceof UsuarioAlteradoEvent alterado && alterado.id().equals(usuario.getId()), 10_000);
+
+        assertEquals(new UsuarioAlteradoEvent(UsuarioAlteradoEvent.TipoAlteracao.CRIADO, usuario.getId(), "ana.cs@test.com"), evento);
+    }
+
+    @Test
+    @DisplayName("Deve gravar o token e retomar de onde parou, sem perder escritas feitas enquanto parado")
+    void reinicio_DeveRetomarPeloTokenGravado() throws InterruptedException {
+        String colecao = mongoTemplate.getCollectionName(Equipamento.class);
+        ouvinte.stop();
+        Document registro = mongoTemplate.getCollection(OuvinteChangeStreams.COLECAO_TOKENS)
+                .find(Filters.eq("_id", colecao)).first();
+        assertNotNull(registro);
+        assertNotNull(registro.get("token"));
+
+        Equipamento gravadoParado = equipamentoRepository.save(new Equipamento("Teclado", "SN-CS-002", null));
+        ouvinte.start();
+
+        aguardarEquipamento(gravadoParado.getId(), EquipamentoAlteradoEvent.TipoAlteracao.CRIADO);
+        assertTrue(ouvinte.isRunning());
+    }
+}
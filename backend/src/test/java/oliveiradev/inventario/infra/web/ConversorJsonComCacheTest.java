@@ -0,0 +1,86 @@
+package oliveiradev.inventario.infra.web;
+
+import oliveiradev.inventario.application.cache.CacheJsonEquipamentos;
+import oliveiradev.inventario.application.dto.comum.PaginaCursorDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.LogAlteracaoDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversorJsonComCacheTest {
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private ConversorJsonComCache conversor;
+    private EquipamentoResumoDTO resumo;
+    private EquipamentoRespostaDTO resposta;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        meterRegistry = new SimpleMeterRegistry();
+        conversor = new ConversorJsonComCache(objectMapper,
+                new CacheJsonEquipamentos(true, DataSize.ofMegabytes(1), Duration.ofMinutes(5), meterRegistry));
+
+        LocalDateTime agora = LocalDateTime.of(2024, 5, 10, 14, 30, 15, 123_000_000);
+        resumo = new EquipamentoResumoDTO("id1", "Monitor \"Dell\" 24 — ção", "SN-1", null, agora, agora,
+                "user@test.com", "user@test.com", 3L);
+        resposta = new EquipamentoRespostaDTO("id2", "Teclado", "SN-2", "Mecânico", agora, agora,
+                "user@test.com", "admin@test.com", 1L, List.of(new LogAlteracaoDTO(agora, "user@test.com", "Criado")));
+    }
+
+    private String escrever(Object objeto) throws Exception {
+        MockHttpOutputMessage saida = new MockHttpOutputMessage();
+        conversor.write(objeto, objeto.getClass(), MediaType.APPLICATION_JSON, saida);
+        return saida.getBodyAsString();
+    }
+
+    private double acertos() {
+        return meterRegistry.get("cache.gets").tag("cache", "equipamentos.json").tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    @Test
+    @DisplayName("Deve produzir o mesmo JSON do Jackson para um equipamento e reaproveitá-lo na segunda escrita")
+    void escrever_Equipamento_DeveSerIgualAoJackson() throws Exception {
+        String esperado = objectMapper.writeValueAsString(resposta);
+
+        assertEquals(esperado, escrever(resposta));
+        assertEquals(esperado, escrever(resposta));
+        assertEquals(1.0, acertos());
+    }
+
+    @Test
+    @DisplayName("Deve montar a página com os fragmentos em cache e o mesmo JSON do Jackson")
+    void escrever_Pagina_DeveSerIgualAoJackson() throws Exception {
+        PaginaCursorDTO<EquipamentoResumoDTO> pagina = new PaginaCursorDTO<>(List.of(resumo, resumo), "cursor", "/api/equipamentos?after=cursor");
+        String esperado = objectMapper.writeValueAsString(pagina);
+
+        assertEquals(esperado, escrever(pagina));
+        assertEquals(1.0, acertos()); // O segundo item já encontrou o primeiro em cache
+    }
+
+    @Test
+    @DisplayName("Páginas vazias e outros objetos devem seguir a serialização comum")
+    void escrever_OutrosObjetos_DeveSerializarNormalmente() throws Exception {
+        PaginaCursorDTO<EquipamentoResumoDTO> vazia = new PaginaCursorDTO<>(List.of(), null, null);
+        LogAlteracaoDTO log = resposta.logs().get(0);
+
+        assertEquals(objectMapper.writeValueAsString(vazia), escrever(vazia));
+        assertEquals(objectMapper.writeValueAsString(log), escrever(log));
+    }
+}
@@ -0,0 +1,141 @@
+package oliveiradev.inventario.infra.web;
+
+import com.github.luben.zstd.ZstdInputStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroCompressaoRespostasTest {
+    private SimpleMeterRegistry meterRegistry;
+    private FiltroCompressaoRespostas filtro;
+    private String jsonGrande;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filtro = new FiltroCompressaoRespostas(true, DataSize.ofKilobytes(2), List.of("/api/equipamentos"),
+                List.of("application/json", "text/csv"), 6, 4, true, 3, meterRegistry);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            json.append("{\"id\":\"").append(i).append("\",\"criadoPorUsuario\":\"admin@empresa.com\"},");
+        }
+        jsonGrande = json.append("{}]").toString();
+    }
+
+    private MockHttpServletRequest requisicao(String caminho, String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", caminho);
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        return request;
+    }
+
+    private static FilterChain escrevendo(String tipoConteudo, String corpo) {
+        return (request, response) -> {
+            response.setContentType(tipoConteudo);
+            response.getOutputStream().write(corpo.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String descomprimir(InputStream entrada) throws IOException {
+        try (entrada) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve comprimir com gzip as respostas acima do mínimo, enfraquecendo o ETag")
+    void respostaGrande_ComGzip_DeveComprimir() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("/api/equipamentos", "gzip, deflate"), response, (request, resposta) -> {
+            ((HttpServletResponse) resposta).setHeader("ETag", "\"3\"");
+            escrevendo("application/json", jsonGrande).doFilter(request, resposta);
+        });
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("W/\"3\"", response.getHeader("ETag"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertTrue(response.getContentAsByteArray().length < jsonGrande.length() / 5);
+        assertEquals(jsonGrande, descomprimir(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+        assertEquals(jsonGrande.length(), meterRegistry.get("http.compressao.bytes")
+                .tags("codificacao", "gzip", "etapa", "original").counter().count());
+        assertEquals(1, meterRegistry.get("http.compressao.razao").tags("codificacao", "gzip").summary().count());
+    }
+
+    @Test
+    @DisplayName("Deve preferir zstd quando o cliente aceita as duas codificações")
+    void respostaGrande_ComZstd_DeveComprimir() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("/api/equipamentos/export", "gzip, zstd"), response, escrevendo("text/csv", jsonGrande));
+
+        assertEquals("zstd", response.getHeader("Content-Encoding"));
+        assertEquals(jsonGrande, descomprimir(new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))));
+    }
+
+    @Test
+    @DisplayName("Não deve comprimir respostas pequenas, sem Accept-Encoding ou fora das rotas cobertas")
+    void respostaNaoElegivel_DeveSeguirSemCompressao() throws Exception {
+        MockHttpServletResponse pequena = new MockHttpServletResponse();
+        MockHttpServletResponse semAcceptEncoding = new MockHttpServletResponse();
+        MockHttpServletResponse outraRota = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("/api/equipamentos", "gzip"), pequena, escrevendo("application/json", "{\"id\":\"1\"}"));
+        filtro.doFilter(requisicao("/api/equipamentos", null), semAcceptEncoding, escrevendo("application/json", jsonGrande));
+        filtro.doFilter(requisicao("/api/auth/login", "gzip"), outraRota, escrevendo("application/json", jsonGrande));
+
+        assertNull(pequena.getHeader("Content-Encoding"));
+        assertEquals("{\"id\":\"1\"}", pequena.getContentAsString());
+        assertEquals(10, pequena.getContentLength());
+        assertNull(semAcceptEncoding.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", semAcceptEncoding.getHeader("Vary"));
+        assertEquals(jsonGrande, semAcceptEncoding.getContentAsString());
+        assertNull(outraRota.getHeader("Vary"));
+    }
+
+    @Test
+    @DisplayName("Eventos SSE devem ser repassados a cada flush, sem compressão")
+    void eventStream_DeveSerRepassadoNoFlush() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(requisicao("/api/equipamentos/stream", "gzip"), response, (request, resposta) -> {
+            resposta.setContentType("text/event-stream");
+            resposta.getOutputStream().write("event:conectado\n\n".getBytes(StandardCharsets.UTF_8));
+            resposta.getOutputStream().flush();
+            assertEquals("event:conectado\n\n", response.getContentAsString());
+        });
+
+        assertNull(response.getHeader("Content-Encoding"));
+    }
+
+    @Test
+    @DisplayName("Deve negociar pela maior qualidade, respeitando q=0 e o curinga")
+    void negociar_DeveRespeitarQualidades() {
+        Set<CodificacaoConteudo> ambas = EnumSet.allOf(CodificacaoConteudo.class);
+
+        assertEquals(CodificacaoConteudo.GZIP, CodificacaoConteudo.negociar("zstd;q=0.5, gzip", ambas));
+        assertEquals(CodificacaoConteudo.ZSTD, CodificacaoConteudo.negociar("*", ambas));
+        assertEquals(CodificacaoConteudo.GZIP, CodificacaoConteudo.negociar("zstd;q=0, *;q=0.1", ambas));
+        assertEquals(CodificacaoConteudo.GZIP, CodificacaoConteudo.negociar("zstd, gzip", EnumSet.of(CodificacaoConteudo.GZIP)));
+        assertNull(CodificacaoConteudo.negociar("br, identity", ambas));
+        assertNull(CodificacaoConteudo.negociar("gzip;q=0", ambas));
+    }
+}
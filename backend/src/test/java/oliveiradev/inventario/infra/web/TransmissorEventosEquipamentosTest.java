@@ -0,0 +1,154 @@
+package oliveiradev.inventario.infra.web;
+
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.event.EquipamentoAlteradoEvent;
+import oliveiradev.inventario.application.exception.ServicoSobrecarregadoException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransmissorEventosEquipamentosTest {
+    private ObjectMapper objectMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private EquipamentoResumoDTO resumo;
+    private final CountDownLatch liberarLentos = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        meterRegistry = new SimpleMeterRegistry();
+        LocalDateTime agora = LocalDateTime.of(2024, 5, 10, 14, 30);
+        resumo = new EquipamentoResumoDTO("id1", "Monitor", "SN-1", null, agora, agora, "user@test.com", "user@test.com", 2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liberarLentos.countDown();
+    }
+
+    // Emissores de teste: guardam o texto de cada evento enviado; os "lentos" travam no envio
+    private class TransmissorDeTeste extends TransmissorEventosEquipamentos {
+        private final List<List<String>> enviados = Collections.synchronizedList(new ArrayList<>());
+        private boolean proximoLento;
+
+        TransmissorDeTeste(boolean changeStreamsHabilitado, int capacidadeFila, int maxClientes) {
+            super(objectMapper, changeStreamsHabilitado, capacidadeFila, maxClientes, Duration.ofMinutes(1),
+                    Duration.ofMinutes(1), meterRegistry);
+        }
+
+        List<String> conectar(String tipos, boolean lento) {
+            proximoLento = lento;
+            conectar(tipos, null);
+            return enviados.get(enviados.size() - 1);
+        }
+
+        @Override
+        SseEmitter novoEmissor(long timeoutMs) {
+            boolean lento = proximoLento;
+            List<String> eventos = Collections.synchronizedList(new ArrayList<>());
+            enviados.add(eventos);
+            return new SseEmitter(timeoutMs) {
+                @Override
+                public void send(SseEventBuilder builder) {
+                    if (lento) {
+                        try {
+                            liberarLentos.await();
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    eventos.add(builder.build().stream().map(dado -> dado.getData().toString()).collect(Collectors.joining()));
+                }
+            };
+        }
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(10);
+        }
+    }
+
+    private static long contar(List<String> eventos, String nome) {
+        synchronized (eventos) {
+            return eventos.stream().filter(evento -> evento.contains("event:" + nome + "\n")).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve enviar cada alteração aos clientes cujo filtro a aceita")
+    void aoAlterarEquipamento_DeveRespeitarFiltroDeCadaCliente() throws Exception {
+        TransmissorDeTeste transmissor = new TransmissorDeTeste(false, 16, 10);
+        List<String> todos = transmissor.conectar(null, false);
+        List<String> soRemocoes = transmissor.conectar("removido", false);
+
+        transmissor.aoAlterarEquipamento(EquipamentoAlteradoEvent.atualizado(resumo));
+        transmissor.aoAlterarEquipamento(EquipamentoAlteradoEvent.removido("id1", "SN-1"));
+
+        aguardar(() -> contar(todos, "removido") == 1 && contar(soRemocoes, "removido") == 1);
+        assertEquals(1, contar(todos, TransmissorEventosEquipamentos.EVENTO_CONECTADO));
+        assertEquals(1, contar(todos, "atualizado"));
+        assertEquals(0, contar(soRemocoes, "atualizado"));
+        assertTrue(todos.stream().anyMatch(evento -> evento.contains("\"numeroDeSerie\":\"SN-1\"")));
+    }
+
+    @Test
+    @DisplayName("Cliente lento que enche a fila deve ser desconectado sem atrasar os demais")
+    void aoAlterarEquipamento_ClienteLento_DeveSerDesconectado() throws Exception {
+        TransmissorDeTeste transmissor = new TransmissorDeTeste(false, 2, 10);
+        List<String> rapido = transmissor.conectar(null, false);
+        transmissor.conectar(null, true);
+
+        for (int i = 0; i < 5; i++) {
+            transmissor.aoAlterarEquipamento(EquipamentoAlteradoEvent.atualizado(resumo));
+            aguardar(() -> contar(rapido, "atualizado") > 0); // Mantém a fila do cliente rápido abaixo do limite
+            rapido.clear();
+        }
+
+        assertEquals(1, transmissor.getClientesConectados());
+        assertEquals(1.0, meterRegistry.get("equipamentos.eventos.desconectados").counter().count());
+    }
+
+    @Test
+    @DisplayName("Com change streams, deve repassar apenas os eventos vindos do stream (sem duplicar as escritas locais)")
+    void aoAlterarEquipamento_ComChangeStreams_DeveIgnorarEventosLocais() throws Exception {
+        TransmissorDeTeste transmissor = new TransmissorDeTeste(true, 16, 10);
+        List<String> eventos = transmissor.conectar(null, false);
+
+        transmissor.aoAlterarEquipamento(EquipamentoAlteradoEvent.atualizado(resumo));
+        transmissor.aoAlterarEquipamento(EquipamentoAlteradoEvent.atualizado(resumo).vindoDoChangeStream());
+
+        aguardar(() -> contar(eventos, "atualizado") == 1);
+        Thread.sleep(50);
+        assertEquals(1, contar(eventos, "atualizado"));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tipo de evento inválido e conexões acima do limite")
+    void conectar_TipoInvalidoOuAcimaDoLimite_DeveLancarExcecao() {
+        TransmissorDeTeste transmissor = new TransmissorDeTeste(false, 16, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> transmissor.conectar("criado,apagado", null));
+        transmissor.conectar(null, false);
+        assertThrows(ServicoSobrecarregadoException.class, () -> transmissor.conectar(null, null));
+    }
+}
@@ -1,9 +1,21 @@
 package oliveiradev.inventario.interfaces.controller.Equipamentos;
 
+import oliveiradev.inventario.application.dto.comum.PaginaCursorDTO;
+import oliveiradev.inventario.application.dto.equipamento.AlteracoesEquipamentosDTO;
+import oliveiradev.inventario.application.dto.equipamento.CampoEquipamento;
+import oliveiradev.inventario.application.dto.equipamento.ConsultaEmLoteDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoAtualizacaoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoCriacaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoParcialDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoRemovidoDTO;
 import oliveiradev.inventario.application.dto.equipamento.EquipamentoRespostaDTO;
+import oliveiradev.inventario.application.dto.equipamento.EquipamentoResumoDTO;
+import oliveiradev.inventario.application.dto.equipamento.FormatoExportacao;
+import oliveiradev.inventario.application.dto.equipamento.ItemConsultaEmLoteDTO;
 import oliveiradev.inventario.application.dto.equipamento.LogAlteracaoDTO;
+import oliveiradev.inventario.application.dto.equipamento.ResultadoConsultaEmLoteDTO;
+import oliveiradev.inventario.application.dto.equipamento.SugestaoEquipamentoDTO;
+import oliveiradev.inventario.application.exception.ConflitoDeVersaoException;
 import oliveiradev.inventario.application.exception.RecursoNaoEncontradoException;
 import oliveiradev.inventario.application.exception.RegraDeNegocioException;
 import oliveiradev.inventario.application.service.EquipamentoAppService;
@@ -23,17 +35,21 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.mongo.indices.criar-na-subida=false") // Sobe sem Mongo
 @AutoConfigureMockMvc
 class EquipamentoControllerTest {
     @Autowired
@@ -44,6 +60,7 @@ class EquipamentoControllerTest {
     private EquipamentoAppService equipamentoAppService;
     private EquipamentoCriacaoDTO equipamentoCriacaoDTO;
     private EquipamentoRespostaDTO equipamentoRespostaDTO;
+    private EquipamentoResumoDTO equipamentoResumoDTO;
     private EquipamentoAtualizacaoDTO equipamentoAtualizacaoDTO;
     private String equipamentoIdExistente = "equipId123";
     private String numeroDeSerieExistente = "SN-LASER-PRINT01";
@@ -57,10 +74,15 @@ class EquipamentoControllerTest {
         List<LogAlteracaoDTO> logs = List.of(new LogAlteracaoDTO(LocalDateTime.now(), "user@test.com", "Criado"));
         equipamentoRespostaDTO = new EquipamentoRespostaDTO(
                 equipamentoIdExistente, "Impressora Laser", numeroDeSerieExistente, "Impressora rápida P&B",
-                LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "user@test.com", logs
+                LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "user@test.com", 0L, logs
         );
 
-        equipamentoAtualizacaoDTO = new EquipamentoAtualizacaoDTO("Impressora Laser XL", "Nova descrição P&B");
+        equipamentoResumoDTO = new EquipamentoResumoDTO(
+                equipamentoIdExistente, "Impressora Laser", numeroDeSerieExistente, "Impressora rápida P&B",
+                LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "user@test.com", 0L
+        );
+
+        equipamentoAtualizacaoDTO = new EquipamentoAtualizacaoDTO("Impressora Laser XL", "Nova descrição P&B", 0L);
     }
 
     @Nested
@@ -139,38 +161,392 @@ class EquipamentoControllerTest {
     }
 
     @Nested
-    @DisplayName("Testes para Listar Todos Equipamentos (GET /api/equipamentos)")
+    @DisplayName("Testes para Listar Equipamentos (GET /api/equipamentos)")
     class ListarEquipamentosTests {
         @Test
-        @DisplayName("Deve retornar lista para USUARIO_PADRAO")
+        @DisplayName("Deve retornar página para USUARIO_PADRAO")
         @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
-        void listarTodosEquipamentos_ComoPadrao_DeveRetornarLista() throws Exception {
-            when(equipamentoAppService.listarTodosEquipamentos()).thenReturn(List.of(equipamentoRespostaDTO));
+        void listarEquipamentos_ComoPadrao_DeveRetornarPagina() throws Exception {
+            when(equipamentoAppService.listarEquipamentos(isNull(), isNull(), isNull()))
+                    .thenReturn(new PaginaCursorDTO<>(List.of(equipamentoResumoDTO), null, null));
 
             mockMvc.perform(get("/api/equipamentos"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].id", is(equipamentoIdExistente)));
+                    .andExpect(jsonPath("$.itens", hasSize(1)))
+                    .andExpect(jsonPath("$.itens[0].id", is(equipamentoIdExistente)))
+                    .andExpect(jsonPath("$.itens[0].logs").doesNotExist())
+                    .andExpect(jsonPath("$.proximoCursor").doesNotExist())
+                    .andExpect(header().doesNotExist("Link"));
         }
 
         // Testes similares para ADMIN e MASTER também retornando lista
         @Test
-        @DisplayName("Deve retornar lista para USUARIO_ADMIN")
+        @DisplayName("Deve retornar página para USUARIO_ADMIN")
         @WithMockUser(username = "admin@test.com", roles = {"USUARIO_ADMIN"})
-        void listarTodosEquipamentos_ComoAdmin_DeveRetornarLista() throws Exception {
-            when(equipamentoAppService.listarTodosEquipamentos()).thenReturn(List.of(equipamentoRespostaDTO));
+        void listarEquipamentos_ComoAdmin_DeveRetornarPagina() throws Exception {
+            when(equipamentoAppService.listarEquipamentos(isNull(), isNull(), isNull()))
+                    .thenReturn(new PaginaCursorDTO<>(List.of(equipamentoResumoDTO), null, null));
             mockMvc.perform(get("/api/equipamentos")).andExpect(status().isOk());
         }
 
+        @Test
+        @DisplayName("Deve retornar a visão completa, com logs, quando solicitada")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarEquipamentos_VisaoCompleta_DeveRetornarLogs() throws Exception {
+            when(equipamentoAppService.listarEquipamentosCompletos(isNull(), isNull(), isNull()))
+                    .thenReturn(new PaginaCursorDTO<>(List.of(equipamentoRespostaDTO), null, null));
+
+            mockMvc.perform(get("/api/equipamentos").param("visao", "completa"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens[0].logs", hasSize(1)));
+
+            verify(equipamentoAppService, never()).listarEquipamentos(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve retornar apenas os campos pedidos em ?fields=")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarEquipamentos_ComFields_DeveRetornarSoOsCamposPedidos() throws Exception {
+            Map<String, Object> campos = new LinkedHashMap<>();
+            campos.put("id", equipamentoIdExistente);
+            campos.put("nome", "Monitor");
+            when(equipamentoAppService.listarEquipamentosParciais(isNull(), isNull(), isNull(),
+                    eq(EnumSet.of(CampoEquipamento.ID, CampoEquipamento.NOME))))
+                    .thenReturn(new PaginaCursorDTO<>(List.of(new EquipamentoParcialDTO(campos, 0L)), null, null));
+
+            mockMvc.perform(get("/api/equipamentos").param("fields", "nome,id"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens[0].id", is(equipamentoIdExistente)))
+                    .andExpect(jsonPath("$.itens[0].nome", is("Monitor")))
+                    .andExpect(jsonPath("$.itens[0].numeroDeSerie").doesNotExist())
+                    .andExpect(jsonPath("$.itens[0].versao").doesNotExist());
+
+            verify(equipamentoAppService, never()).listarEquipamentos(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 para campo desconhecido em ?fields=")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarEquipamentos_FieldsInvalido_DeveRetornarBadRequest() throws Exception {
+            mockMvc.perform(get("/api/equipamentos").param("fields", "id,senha"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Deve repassar cursor e limite e devolver link para a próxima página")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarEquipamentos_ComProximaPagina_DeveRetornarLinkNext() throws Exception {
+            when(equipamentoAppService.listarEquipamentos("cursorAtual", 1, "nome"))
+                    .thenReturn(new PaginaCursorDTO<>(List.of(equipamentoResumoDTO), "proximoCursor", null));
+
+            mockMvc.perform(get("/api/equipamentos")
+                            .param("after", "cursorAtual")
+                            .param("limit", "1")
+                            .param("sort", "nome"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.proximoCursor", is("proximoCursor")))
+                    .andExpect(jsonPath("$.proximaPagina", containsString("after=proximoCursor")))
+                    .andExpect(jsonPath("$.proximaPagina", containsString("limit=1")))
+                    .andExpect(header().string("Link", containsString("rel=\"next\"")));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 Bad Request para cursor inválido")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarEquipamentos_CursorInvalido_DeveRetornarBadRequest() throws Exception {
+            when(equipamentoAppService.listarEquipamentos(eq("lixo"), isNull(), isNull()))
+                    .thenThrow(new IllegalArgumentException("Cursor de paginação inválido."));
+
+            mockMvc.perform(get("/api/equipamentos").param("after", "lixo"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Deve devolver o ETag da versão da coleção e responder 304 sem consultar o serviço quando ele não mudou")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarEquipamentos_IfNoneMatchIgual_DeveRetornarNotModified() throws Exception {
+            when(equipamentoAppService.versaoDaListagem()).thenReturn(Optional.of("abc-7"));
+            when(equipamentoAppService.listarEquipamentos(isNull(), isNull(), isNull()))
+                    .thenReturn(new PaginaCursorDTO<>(List.of(equipamentoResumoDTO), null, null));
+
+            mockMvc.perform(get("/api/equipamentos"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"abc-7\""))
+                    .andExpect(header().string("Cache-Control", containsString("no-cache")));
+
+            mockMvc.perform(get("/api/equipamentos").header("If-None-Match", "\"abc-7\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(equipamentoAppService, times(1)).listarEquipamentos(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Deve retornar a página quando o ETag enviado é de outra versão")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarEquipamentos_IfNoneMatchDiferente_DeveRetornarPagina() throws Exception {
+            when(equipamentoAppService.versaoDaListagem()).thenReturn(Optional.of("abc-8"));
+            when(equipamentoAppService.listarEquipamentos(isNull(), isNull(), isNull()))
+                    .thenReturn(new PaginaCursorDTO<>(List.of(equipamentoResumoDTO), null, null));
+
+            mockMvc.perform(get("/api/equipamentos").header("If-None-Match", "\"abc-7\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"abc-8\""))
+                    .andExpect(jsonPath("$.itens", hasSize(1)));
+        }
 
         @Test
         @DisplayName("Deve retornar 401 Unauthorized se não autenticado ao listar")
-        void listarTodosEquipamentos_NaoAutenticado_DeveRetornarUnauthorized() throws Exception {
+        void listarEquipamentos_NaoAutenticado_DeveRetornarUnauthorized() throws Exception {
             mockMvc.perform(get("/api/equipamentos"))
                     .andExpect(status().isUnauthorized());
         }
     }
 
+    @Nested
+    @DisplayName("Testes para Alterações (GET /api/equipamentos/changes)")
+    class ListarAlteracoesTests {
+        @Test
+        @DisplayName("Deve retornar alterados, removidos e a nova marca de sincronização")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarAlteracoes_ComoPadrao_DeveRetornarAlteracoes() throws Exception {
+            LocalDateTime sincronizadoAte = LocalDateTime.of(2024, 5, 1, 10, 0);
+            when(equipamentoAppService.listarAlteracoes("2024-04-30T10:00:00", null)).thenReturn(new AlteracoesEquipamentosDTO(
+                    List.of(equipamentoResumoDTO),
+                    List.of(new EquipamentoRemovidoDTO("idRemovido", "SN-REMOVIDO", sincronizadoAte.minusHours(1))),
+                    sincronizadoAte, false));
+
+            mockMvc.perform(get("/api/equipamentos/changes").param("since", "2024-04-30T10:00:00"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.alterados[0].id", is(equipamentoIdExistente)))
+                    .andExpect(jsonPath("$.removidos[0].id", is("idRemovido")))
+                    .andExpect(jsonPath("$.sincronizadoAte", is("2024-05-01T10:00:00")))
+                    .andExpect(jsonPath("$.temMais", is(false)));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 Bad Request para 'since' inválido")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarAlteracoes_SinceInvalido_DeveRetornarBadRequest() throws Exception {
+            when(equipamentoAppService.listarAlteracoes("ontem", null))
+                    .thenThrow(new IllegalArgumentException("Parâmetro 'since' inválido."));
+
+            mockMvc.perform(get("/api/equipamentos/changes").param("since", "ontem"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para Eventos (GET /api/equipamentos/stream)")
+    class AcompanharAlteracoesTests {
+        @Test
+        @DisplayName("Deve abrir a conexão assíncrona de eventos para usuário autenticado")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void acompanharAlteracoes_ComoPadrao_DeveIniciarStream() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/stream").param("tipos", "criado,removido"))
+                    .andExpect(request().asyncStarted());
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 Bad Request para tipo de evento inválido")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void acompanharAlteracoes_TipoInvalido_DeveRetornarBadRequest() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/stream").param("tipos", "apagado"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Deve retornar 401 Unauthorized se não autenticado")
+        void acompanharAlteracoes_NaoAutenticado_DeveRetornarUnauthorized() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/stream"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para Consulta em Lote (POST /api/equipamentos/batch-lookup)")
+    class ConsultarEmLoteTests {
+        @Test
+        @DisplayName("Deve retornar os itens na ordem do pedido com marcação dos não encontrados")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void consultarEmLote_ComoPadrao_DeveRetornarItens() throws Exception {
+            ConsultaEmLoteDTO consulta = new ConsultaEmLoteDTO(null, List.of(numeroDeSerieExistente, "SN-INEXISTENTE"));
+            when(equipamentoAppService.consultarEmLote(consulta)).thenReturn(new ResultadoConsultaEmLoteDTO(List.of(), List.of(
+                    ItemConsultaEmLoteDTO.de(numeroDeSerieExistente, equipamentoResumoDTO),
+                    ItemConsultaEmLoteDTO.de("SN-INEXISTENTE", null))));
+
+            mockMvc.perform(post("/api/equipamentos/batch-lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(consulta)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.numerosDeSerie", hasSize(2)))
+                    .andExpect(jsonPath("$.numerosDeSerie[0].encontrado", is(true)))
+                    .andExpect(jsonPath("$.numerosDeSerie[0].equipamento.id", is(equipamentoIdExistente)))
+                    .andExpect(jsonPath("$.numerosDeSerie[1].chave", is("SN-INEXISTENTE")))
+                    .andExpect(jsonPath("$.numerosDeSerie[1].encontrado", is(false)));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 Bad Request para chave em branco ou consulta rejeitada pelo serviço")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void consultarEmLote_Invalida_DeveRetornarBadRequest() throws Exception {
+            mockMvc.perform(post("/api/equipamentos/batch-lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\": [\" \"]}"))
+                    .andExpect(status().isBadRequest());
+
+            when(equipamentoAppService.consultarEmLote(any(ConsultaEmLoteDTO.class)))
+                    .thenThrow(new IllegalArgumentException("Informe ao menos um id ou número de série."));
+            mockMvc.perform(post("/api/equipamentos/batch-lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Deve retornar 401 Unauthorized se não autenticado")
+        void consultarEmLote_NaoAutenticado_DeveRetornarUnauthorized() throws Exception {
+            mockMvc.perform(post("/api/equipamentos/batch-lookup")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\": [\"id1\"]}"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para Exportar Equipamentos (GET /api/equipamentos/export)")
+    class ExportarEquipamentosTests {
+        @Test
+        @DisplayName("Deve exportar em NDJSON por padrão como anexo")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void exportarEquipamentos_SemFormato_DeveUsarNdjson() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/export"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                    .andExpect(header().string("Content-Disposition", containsString("equipamentos.ndjson")));
+
+            verify(equipamentoAppService).exportarEquipamentos(eq(FormatoExportacao.NDJSON), any());
+        }
+
+        @Test
+        @DisplayName("Deve exportar em CSV quando solicitado")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void exportarEquipamentos_Csv_DeveUsarTextCsv() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/export").param("format", "csv"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith("text/csv"));
+
+            verify(equipamentoAppService).exportarEquipamentos(eq(FormatoExportacao.CSV), any());
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 Bad Request para formato desconhecido")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void exportarEquipamentos_FormatoInvalido_DeveRetornarBadRequest() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/export").param("format", "xml"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para Histórico (GET /api/equipamentos/{id}/historico)")
+    class ListarHistoricoTests {
+        @Test
+        @DisplayName("Deve retornar a página do histórico com link para a próxima")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarHistorico_ComProximaPagina_DeveRetornarLink() throws Exception {
+            PaginaCursorDTO<LogAlteracaoDTO> pagina = new PaginaCursorDTO<>(
+                    List.of(new LogAlteracaoDTO(LocalDateTime.now(), "admin@test.com", "Nome alterado.")), "cursorHist", null);
+            when(equipamentoAppService.listarHistorico(equipamentoIdExistente, null, 1)).thenReturn(pagina);
+
+            mockMvc.perform(get("/api/equipamentos/{id}/historico", equipamentoIdExistente).param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens", hasSize(1)))
+                    .andExpect(jsonPath("$.itens[0].descricao", is("Nome alterado.")))
+                    .andExpect(header().string("Link", containsString("after=cursorHist")));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 404 Not Found se o equipamento não existe")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void listarHistorico_EquipamentoNaoEncontrado_DeveRetornarNotFound() throws Exception {
+            when(equipamentoAppService.listarHistorico("idNaoExiste", null, null))
+                    .thenThrow(new RecursoNaoEncontradoException("Equipamento com ID idNaoExiste não encontrado."));
+
+            mockMvc.perform(get("/api/equipamentos/{id}/historico", "idNaoExiste"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para Busca (GET /api/equipamentos/busca)")
+    class BuscarEquipamentosTests {
+        @Test
+        @DisplayName("Deve retornar os resultados da busca com link para a próxima página")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void buscarEquipamentos_ComProximaPagina_DeveRetornarLink() throws Exception {
+            PaginaCursorDTO<EquipamentoResumoDTO> pagina = new PaginaCursorDTO<>(List.of(equipamentoResumoDTO), "cursorBusca", null);
+            when(equipamentoAppService.buscarEquipamentos("impressora", null, null, 1)).thenReturn(pagina);
+
+            mockMvc.perform(get("/api/equipamentos/busca").param("q", "impressora").param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens", hasSize(1)))
+                    .andExpect(jsonPath("$.itens[0].numeroDeSerie", is(numeroDeSerieExistente)))
+                    .andExpect(header().string("Link", allOf(containsString("q=impressora"), containsString("after=cursorBusca"))));
+        }
+
+        @Test
+        @DisplayName("Deve manter o termo e o modo da busca no link da próxima página")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void buscarEquipamentos_ModoRegex_DeveManterParametrosNoLink() throws Exception {
+            PaginaCursorDTO<EquipamentoResumoDTO> pagina = new PaginaCursorDTO<>(List.of(equipamentoResumoDTO), "cursorBusca", null);
+            when(equipamentoAppService.buscarEquipamentos("laser xl", "regex", "cursorAnterior", 1)).thenReturn(pagina);
+
+            mockMvc.perform(get("/api/equipamentos/busca")
+                            .param("q", "laser xl")
+                            .param("modo", "regex")
+                            .param("after", "cursorAnterior")
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.proximaPagina", allOf(containsString("q=laser%20xl"), containsString("modo=regex"),
+                            containsString("limit=1"), containsString("after=cursorBusca"), not(containsString("cursorAnterior")))))
+                    .andExpect(header().string("Link", containsString("modo=regex")));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 400 Bad Request sem o termo da busca")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void buscarEquipamentos_SemTermo_DeveRetornarBadRequest() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/busca"))
+                    .andExpect(status().isBadRequest());
+            verify(equipamentoAppService, never()).buscarEquipamentos(any(), any(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes para Autocomplete (GET /api/equipamentos/autocomplete)")
+    class SugerirEquipamentosTests {
+        @Test
+        @DisplayName("Deve retornar as sugestões do prefixo")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void sugerirEquipamentos_DeveRetornarSugestoes() throws Exception {
+            when(equipamentoAppService.sugerirEquipamentos("impr", 5)).thenReturn(
+                    List.of(new SugestaoEquipamentoDTO(equipamentoIdExistente, "Impressora Laser", numeroDeSerieExistente)));
+
+            mockMvc.perform(get("/api/equipamentos/autocomplete").param("q", "impr").param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].nome", is("Impressora Laser")));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 401 Unauthorized se não autenticado")
+        void sugerirEquipamentos_NaoAutenticado_DeveRetornarUnauthorized() throws Exception {
+            mockMvc.perform(get("/api/equipamentos/autocomplete").param("q", "impr"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
     @Nested
     @DisplayName("Testes para Buscar Equipamento por ID (GET /api/equipamentos/{id})")
     class BuscarEquipamentoPorIdTests {
@@ -185,6 +561,50 @@ class EquipamentoControllerTest {
                     .andExpect(jsonPath("$.id", is(equipamentoIdExistente)));
         }
 
+        @Test
+        @DisplayName("Deve devolver o ETag da versão e do tamanho do histórico e responder 304 quando eles não mudaram")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void buscarEquipamentoPorId_IfNoneMatchIgual_DeveRetornarNotModified() throws Exception {
+            when(equipamentoAppService.buscarEquipamentoPorId(equipamentoIdExistente)).thenReturn(Optional.of(equipamentoRespostaDTO));
+
+            mockMvc.perform(get("/api/equipamentos/{id}", equipamentoIdExistente))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"0-1\""));
+
+            mockMvc.perform(get("/api/equipamentos/{id}", equipamentoIdExistente).header("If-None-Match", "\"0-1\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("Uma entrada de histórico gravada depois da versão deve mudar o ETag")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void buscarEquipamentoPorId_HistoricoGravadoDepoisDaVersao_DeveMudarETag() throws Exception {
+            when(equipamentoAppService.buscarEquipamentoPorId(equipamentoIdExistente)).thenReturn(Optional.of(equipamentoRespostaDTO));
+
+            // "0-0": lido entre o incremento da versão e a gravação do histórico (mesma versão, sem a nova entrada)
+            mockMvc.perform(get("/api/equipamentos/{id}", equipamentoIdExistente).header("If-None-Match", "\"0-0\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"0-1\""))
+                    .andExpect(jsonPath("$.logs", hasSize(1)));
+        }
+
+        @Test
+        @DisplayName("Deve retornar só os campos pedidos, mantendo o ETag da versão")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void buscarEquipamentoPorId_ComFields_DeveRetornarSoOsCamposPedidos() throws Exception {
+            when(equipamentoAppService.buscarEquipamentoParcialPorId(equipamentoIdExistente, EnumSet.of(CampoEquipamento.NUMERO_DE_SERIE)))
+                    .thenReturn(Optional.of(new EquipamentoParcialDTO(Map.of("numeroDeSerie", "SN-1"), 3L)));
+
+            mockMvc.perform(get("/api/equipamentos/{id}", equipamentoIdExistente).param("fields", "numeroDeSerie"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"3\""))
+                    .andExpect(jsonPath("$.numeroDeSerie", is("SN-1")))
+                    .andExpect(jsonPath("$.id").doesNotExist());
+
+            verify(equipamentoAppService, never()).buscarEquipamentoPorId(any());
+        }
+
         @Test
         @DisplayName("Deve retornar 404 Not Found se ID não existe para USUARIO_PADRAO")
         @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
@@ -207,22 +627,38 @@ class EquipamentoControllerTest {
     @DisplayName("Testes para Buscar Equipamento por Número de Série (GET /api/equipamentos/serial/{numeroDeSerie})")
     class BuscarEquipamentoPorNumeroDeSerieTests {
         @Test
-        @DisplayName("Deve retornar equipamento para USUARIO_PADRAO se serial existe")
+        @DisplayName("Deve retornar o resumo do equipamento para USUARIO_PADRAO se serial existe")
         @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
-        void buscarPorSerial_ComoPadrao_Existente_DeveRetornarEquipamento() throws Exception {
+        void buscarPorSerial_ComoPadrao_Existente_DeveRetornarResumo() throws Exception {
+            when(equipamentoAppService.buscarResumoPorNumeroDeSerie(numeroDeSerieExistente))
+                    .thenReturn(Optional.of(equipamentoResumoDTO));
+
+            mockMvc.perform(get("/api/equipamentos/serial/{numeroDeSerie}", numeroDeSerieExistente))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.numeroDeSerie", is(numeroDeSerieExistente)))
+                    .andExpect(jsonPath("$.logs").doesNotExist());
+            verify(equipamentoAppService, never()).buscarEquipamentoPorNumeroDeSerie(any());
+        }
+
+        @Test
+        @DisplayName("Deve retornar o equipamento com logs quando visao=completa")
+        @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
+        void buscarPorSerial_VisaoCompleta_DeveRetornarEquipamentoComLogs() throws Exception {
             when(equipamentoAppService.buscarEquipamentoPorNumeroDeSerie(numeroDeSerieExistente))
                     .thenReturn(Optional.of(equipamentoRespostaDTO));
 
-            mockMvc.perform(get("/api/equipamentos/serial/{numeroDeSerie}", numeroDeSerieExistente))
+            mockMvc.perform(get("/api/equipamentos/serial/{numeroDeSerie}", numeroDeSerieExistente)
+                            .param("visao", "completa"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$.numeroDeSerie", is(numeroDeSerieExistente)));
+                    .andExpect(jsonPath("$.numeroDeSerie", is(numeroDeSerieExistente)))
+                    .andExpect(jsonPath("$.logs", hasSize(1)));
         }
 
         @Test
         @DisplayName("Deve retornar 404 Not Found se serial não existe para USUARIO_PADRAO")
         @WithMockUser(username = "padrao@test.com", roles = {"USUARIO_PADRAO"})
         void buscarPorSerial_NaoExistenteComoPadrao_DeveRetornarNotFound() throws Exception {
-            when(equipamentoAppService.buscarEquipamentoPorNumeroDeSerie("SN-INEXISTENTE"))
+            when(equipamentoAppService.buscarResumoPorNumeroDeSerie("SN-INEXISTENTE"))
                     .thenReturn(Optional.empty());
 
             mockMvc.perform(get("/api/equipamentos/serial/{numeroDeSerie}", "SN-INEXISTENTE"))
@@ -246,7 +682,7 @@ class EquipamentoControllerTest {
         void atualizarEquipamento_ComoAdmin_DeveRetornarOk() throws Exception {
             EquipamentoRespostaDTO dtoAtualizado = new EquipamentoRespostaDTO(
                     equipamentoIdExistente, "Impressora Laser XL", numeroDeSerieExistente, "Nova descrição P&B",
-                    LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "admin@test.com", Collections.emptyList()
+                    LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "admin@test.com", 1L, Collections.emptyList()
             );
             when(equipamentoAppService.atualizarEquipamento(eq(equipamentoIdExistente), any(EquipamentoAtualizacaoDTO.class)))
                     .thenReturn(dtoAtualizado);
@@ -265,14 +701,14 @@ class EquipamentoControllerTest {
         void atualizarEquipamento_ComoMaster_DeveRetornarOk() throws Exception {
             EquipamentoRespostaDTO dtoAtualizado = new EquipamentoRespostaDTO(
                     equipamentoIdExistente, "Impressora Laser MasterEdit", numeroDeSerieExistente, "Editado por Master",
-                    LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "master@test.com", Collections.emptyList()
+                    LocalDateTime.now(), LocalDateTime.now(), "user@test.com", "master@test.com", 1L, Collections.emptyList()
             );
             when(equipamentoAppService.atualizarEquipamento(eq(equipamentoIdExistente), any(EquipamentoAtualizacaoDTO.class)))
                     .thenReturn(dtoAtualizado);
 
             mockMvc.perform(put("/api/equipamentos/{id}", equipamentoIdExistente)
                             .contentType(MediaType.APPLICATION_JSON)
-                            .content(objectMapper.writeValueAsString(new EquipamentoAtualizacaoDTO("Impressora Laser MasterEdit", "Editado por Master"))))
+                            .content(objectMapper.writeValueAsString(new EquipamentoAtualizacaoDTO("Impressora Laser MasterEdit", "Editado por Master", 0L))))
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.nome", is("Impressora Laser MasterEdit")));
         }
@@ -301,18 +737,45 @@ class EquipamentoControllerTest {
                     .andExpect(jsonPath("$.detail", is("Equipamento com ID idNaoExiste não encontrado.")));
         }
 
+        @Test
+        @DisplayName("Deve retornar 409 Conflict com o estado atual em conflito de versão")
+        @WithMockUser(username = "admin@test.com", roles = {"USUARIO_ADMIN"})
+        void atualizarEquipamento_ConflitoDeVersao_DeveRetornarConflict() throws Exception {
+            when(equipamentoAppService.atualizarEquipamento(eq(equipamentoIdExistente), any(EquipamentoAtualizacaoDTO.class)))
+                    .thenThrow(new ConflitoDeVersaoException("O equipamento foi alterado por outro usuário após a versão 0 (campos: nome).",
+                            equipamentoRespostaDTO));
+
+            mockMvc.perform(put("/api/equipamentos/{id}", equipamentoIdExistente)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new EquipamentoAtualizacaoDTO("Impressora Laser XL", null, 0L))))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.type", is("urn:oliveiradev:erro:conflito-de-versao")))
+                    .andExpect(jsonPath("$.current.nome", is("Impressora Laser")));
+        }
+
         @Test
         @DisplayName("Deve retornar 400 Bad Request para DTO de atualização inválido")
         @WithMockUser(username = "admin@test.com", roles = {"USUARIO_ADMIN"})
         void atualizarEquipamento_ComDTOInvalido_DeveRetornarBadRequest() throws Exception {
             // Supondo que @Size(min=2) para nome. "N" é inválido.
-            EquipamentoAtualizacaoDTO dtoInvalido = new EquipamentoAtualizacaoDTO("N", "");
+            EquipamentoAtualizacaoDTO dtoInvalido = new EquipamentoAtualizacaoDTO("N", "", 0L);
 
             mockMvc.perform(put("/api/equipamentos/{id}", equipamentoIdExistente)
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsString(dtoInvalido)))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("Deve retornar 400 Bad Request quando a versão base não é enviada")
+        @WithMockUser(username = "admin@test.com", roles = {"USUARIO_ADMIN"})
+        void atualizarEquipamento_SemVersao_DeveRetornarBadRequest() throws Exception {
+            mockMvc.perform(put("/api/equipamentos/{id}", equipamentoIdExistente)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new EquipamentoAtualizacaoDTO("Impressora Laser XL", null, null))))
+                    .andExpect(status().isBadRequest());
+            verify(equipamentoAppService, never()).atualizarEquipamento(anyString(), any(EquipamentoAtualizacaoDTO.class));
+        }
     }
 
     @Nested
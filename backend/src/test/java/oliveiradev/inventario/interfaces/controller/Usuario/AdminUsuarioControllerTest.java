@@ -31,7 +31,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.hasItem;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.mongo.indices.criar-na-subida=false") // Sobe sem Mongo
 @AutoConfigureMockMvc
 class AdminUsuarioControllerTest {
     @Autowired
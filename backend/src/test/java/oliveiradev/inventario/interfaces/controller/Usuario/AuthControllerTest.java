@@ -37,7 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.hamcrest.Matchers.is;
 
 
-@SpringBootTest
+@SpringBootTest(properties = "app.mongo.indices.criar-na-subida=false") // Sobe sem Mongo
 @AutoConfigureMockMvc
 class AuthControllerTest {
     @Autowired
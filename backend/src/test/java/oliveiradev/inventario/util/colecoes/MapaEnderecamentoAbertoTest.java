@@ -0,0 +1,75 @@
+package oliveiradev.inventario.util.colecoes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaEnderecamentoAbertoTest {
+
+    @Test
+    @DisplayName("Deve inserir, substituir e buscar valores")
+    void put_Get_DeveGuardarUltimoValor() {
+        MapaEnderecamentoAberto<String> mapa = new MapaEnderecamentoAberto<>();
+
+        assertNull(mapa.put("SN-1", "a"));
+        assertEquals("a", mapa.put("SN-1", "b"));
+
+        assertEquals("b", mapa.get("SN-1"));
+        assertNull(mapa.get("SN-2"));
+        assertEquals(1, mapa.size());
+    }
+
+    @Test
+    @DisplayName("Deve manter acessíveis as chaves seguintes na sondagem após uma remoção")
+    void remove_NaoDeveQuebrarSequenciaDeSondagem() {
+        MapaEnderecamentoAberto<Integer> mapa = new MapaEnderecamentoAberto<>();
+        for (int i = 0; i < 10; i++) {
+            mapa.put("SN-" + i, i);
+        }
+
+        assertEquals(3, mapa.remove("SN-3"));
+        assertNull(mapa.remove("SN-3"));
+
+        assertNull(mapa.get("SN-3"));
+        for (int i = 0; i < 10; i++) {
+            if (i != 3) {
+                assertEquals(i, mapa.get("SN-" + i));
+            }
+        }
+        assertEquals(9, mapa.size());
+    }
+
+    @Test
+    @DisplayName("Deve crescer e não acumular lápides com muitas inserções e remoções")
+    void putERemove_EmVolume_DeveSeComportarComoHashMap() {
+        MapaEnderecamentoAberto<Integer> mapa = new MapaEnderecamentoAberto<>();
+        Map<String, Integer> esperado = new HashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            String chave = "SN-" + (i % 7_000);
+            if (i % 3 == 0) {
+                assertEquals(esperado.remove(chave), mapa.remove(chave));
+            } else {
+                assertEquals(esperado.put(chave, i), mapa.put(chave, i));
+            }
+        }
+
+        assertEquals(esperado.size(), mapa.size());
+        esperado.forEach((chave, valor) -> assertEquals(valor, mapa.get(chave)));
+        Map<String, Integer> percorrido = new HashMap<>();
+        mapa.forEach(percorrido::put);
+        assertEquals(esperado, percorrido);
+        assertTrue(mapa.capacidade() <= 16_384, "Capacidade cresceu além do necessário: " + mapa.capacidade());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar chave ou valor nulos")
+    void put_ComNulo_DeveLancarExcecao() {
+        MapaEnderecamentoAberto<String> mapa = new MapaEnderecamentoAberto<>();
+        assertThrows(NullPointerException.class, () -> mapa.put(null, "a"));
+        assertThrows(NullPointerException.class, () -> mapa.put("SN-1", null));
+    }
+}
@@ -0,0 +1,56 @@
+package oliveiradev.inventario.util.colecoes;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriePrefixosTest {
+
+    @Test
+    @DisplayName("Deve devolver os melhores valores da subárvore do prefixo, na ordem informada")
+    void buscar_DeveRetornarMelhoresDoPrefixo() {
+        TriePrefixos<String> trie = new TriePrefixos<>(2, Comparator.naturalOrder());
+        trie.inserir("monitor", "c");
+        trie.inserir("mouse", "a");
+        trie.inserir("monitor lg", "b");
+        trie.inserir("teclado", "0");
+
+        assertEquals(List.of("a", "b"), trie.buscar("mo", 10)); // Limitado a 2 por nó
+        assertEquals(List.of("b", "c"), trie.buscar("moni", 10));
+        assertEquals(List.of("b"), trie.buscar("moni", 1));
+        assertEquals(List.of(), trie.buscar("x", 10));
+    }
+
+    @Test
+    @DisplayName("Ao remover, deve promover o próximo melhor e descartar os nós vazios")
+    void remover_DeveRecalcularMelhoresEPodarNos() {
+        TriePrefixos<String> trie = new TriePrefixos<>(2, Comparator.naturalOrder());
+        trie.inserir("ab", "a");
+        trie.inserir("ac", "b");
+        trie.inserir("ad", "c");
+        int nosAntes = trie.quantidadeNos();
+
+        assertTrue(trie.remover("ab", "a"));
+        assertFalse(trie.remover("ab", "a"));
+
+        assertEquals(List.of("b", "c"), trie.buscar("a", 10));
+        assertEquals(List.of(), trie.buscar("ab", 10));
+        assertEquals(nosAntes - 1, trie.quantidadeNos());
+    }
+
+    @Test
+    @DisplayName("Um valor indexado por duas chaves com prefixo comum deve aparecer uma vez e sobreviver à remoção de uma delas")
+    void valorEmDuasChaves_NaoDeveDuplicar() {
+        TriePrefixos<String> trie = new TriePrefixos<>(5, Comparator.naturalOrder());
+        trie.inserir("mono", "x");
+        trie.inserir("monitor", "x");
+
+        assertEquals(List.of("x"), trie.buscar("mon", 10));
+        trie.remover("mono", "x");
+        assertEquals(List.of("x"), trie.buscar("mon", 10));
+    }
+}
@@ -0,0 +1,132 @@
+package oliveiradev.inventario.util.concorrencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultasCompartilhadasTest {
+
+    // Espera até que 'quantidade' chamadas estejam aguardando a consulta em andamento
+    private static void aguardarCompartilhadas(ConsultasCompartilhadas<?, ?> consultas, long quantidade) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (consultas.getCompartilhadas() < quantidade) {
+            assertTrue(System.nanoTime() < limite, "Chamadas não chegaram à consulta em andamento");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Chamadas simultâneas com a mesma chave devem compartilhar uma única execução")
+    void executar_ChamadasSimultaneas_DeveExecutarUmaVez() throws Exception {
+        ConsultasCompartilhadas<String, String> consultas = new ConsultasCompartilhadas<>();
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        int chamadas = 10;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < chamadas; i++) {
+                resultados.add(executor.submit(() -> consultas.executar("id1", () -> {
+                    execucoes.incrementAndGet();
+                    try {
+                        liberar.await();
+                    } catch (InterruptedException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                    return "valor";
+                })));
+            }
+            aguardarCompartilhadas(consultas, chamadas - 1);
+            liberar.countDown();
+
+            for (Future<String> resultado : resultados) {
+                assertEquals("valor", resultado.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, execucoes.get());
+        assertEquals(1, consultas.getExecutadas());
+        assertEquals(chamadas - 1, consultas.getCompartilhadas());
+        assertEquals(0, consultas.getEmAndamento());
+    }
+
+    @Test
+    @DisplayName("Quem aguarda deve receber a mesma exceção da consulta")
+    void executar_ConsultaFalha_DevePropagarExcecaoParaTodos() throws Exception {
+        ConsultasCompartilhadas<String, String> consultas = new ConsultasCompartilhadas<>();
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> primeira = executor.submit(() -> consultas.executar("id1", () -> {
+                try {
+                    liberar.await();
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                throw new IllegalArgumentException("falhou");
+            }));
+            while (consultas.getEmAndamento() == 0) {
+                Thread.sleep(1);
+            }
+            Future<String> segunda = executor.submit(() -> consultas.executar("id1", () -> "não deveria executar"));
+            aguardarCompartilhadas(consultas, 1);
+            liberar.countDown();
+
+            for (Future<String> resultado : List.of(primeira, segunda)) {
+                Exception ex = assertThrows(Exception.class, () -> resultado.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+            }
+        }
+        // Terminada (mesmo com falha), a próxima chamada executa de novo
+        assertEquals("ok", consultas.executar("id1", () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("Depois de esquecer a chave, novas chamadas não devem se juntar à consulta em andamento")
+    void esquecer_DeveIniciarNovaConsulta() throws Exception {
+        ConsultasCompartilhadas<String, String> consultas = new ConsultasCompartilhadas<>();
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> antiga = executor.submit(() -> consultas.executar("id1", () -> {
+                try {
+                    liberar.await();
+                } catch (InterruptedException ex) {
+                    throw new IllegalStateException(ex);
+                }
+                return "anterior";
+            }));
+            while (consultas.getEmAndamento() == 0) {
+                Thread.sleep(1);
+            }
+
+            consultas.esquecer("id1");
+
+            assertEquals("novo", consultas.executar("id1", () -> "novo"));
+            liberar.countDown();
+            assertEquals("anterior", antiga.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, consultas.getExecutadas());
+        assertEquals(0, consultas.getCompartilhadas());
+    }
+
+    @Test
+    @DisplayName("Chaves diferentes não devem compartilhar a consulta")
+    void executar_ChavesDiferentes_DevemExecutarSeparadamente() {
+        ConsultasCompartilhadas<String, String> consultas = new ConsultasCompartilhadas<>();
+
+        String externo = consultas.executar("id1", () -> consultas.executar("id2", () -> "id2") + "+id1");
+
+        assertEquals("id2+id1", externo);
+        assertEquals(2, consultas.getExecutadas());
+    }
+}
@@ -54,7 +54,8 @@ const Dashboard = () => {
   const handleSave = async (data) => {
     try {
       if (editing) {
-        await updateEquipamento(editing.id, data);
+        // A versão permite ao backend recusar (409) edições sobre dados que outro usuário já alterou
+        await updateEquipamento(editing.id, { ...data, versao: editing.versao });
         await Swal.fire('Atualizado!', 'Equipamento atualizado com sucesso.', 'success');
         setEditing(null);
       } else {
@@ -63,6 +64,12 @@ const Dashboard = () => {
       }
       carregarEquipamentos();
     } catch (err) {
+      if (err.response?.status === 409) {
+        await Swal.fire('Conflito', 'Outro usuário alterou este equipamento. Os dados foram recarregados.', 'warning');
+        setEditing(null);
+        carregarEquipamentos();
+        return;
+      }
       Swal.fire('Erro', 'Erro ao salvar equipamento.', 'error');
     }
   };
@@ -12,10 +12,17 @@ const getAuthHeaders = () => {
   };
 };
 
-// Lista todos os equipamentos
+// Lista todos os equipamentos, seguindo o cursor de paginação do backend
 export const getAllEquipamentos = async () => {
-  const response = await axios.get(API_URL, getAuthHeaders());
-  return response.data;
+  const equipamentos = [];
+  let after = null;
+  do {
+    const params = after ? { after } : {};
+    const response = await axios.get(API_URL, { ...getAuthHeaders(), params });
+    equipamentos.push(...response.data.itens);
+    after = response.data.proximoCursor;
+  } while (after);
+  return equipamentos;
 };
 
 // Busca equipamento por ID
@@ -40,4 +47,4 @@ export const updateEquipamento = async (id, equipamento) => {
 export const deleteEquipamento = async (id) => {
   const response = await axios.delete(`${API_URL}/${id}`, getAuthHeaders());
   return response.data;
-};
\ No newline at end of file
+};